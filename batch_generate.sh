@@ -5,23 +5,23 @@ ROOT_DIR="$(pwd)"
 INPUT_PROJECT="${ROOT_DIR}/sample-projects/demo-app"
 OUTPUT_PROJECT="${ROOT_DIR}/sample-projects/demo-app"
 JAR_PATH="${ROOT_DIR}/common/build/libs/common-0.1.1-boot.jar"
-
-# Find all Java files, excluding DemoApplication
-FILES=$(find "$INPUT_PROJECT/src/main/java" -name "*.java" | grep -v "DemoApplication.java")
+PARALLELISM="${PARALLELISM:-2}"
 
 mkdir -p "${ROOT_DIR}/batch_logs"
+LOG_FILE="${ROOT_DIR}/batch_logs/generate-all.txt"
+
+# Single JVM for the whole project: files are drained from a shared work queue.
+# Per-file status and the throughput report are printed at the end
+# (JSON copy under .test-hea-llama/reports).
+java -jar "$JAR_PATH" generate-all \
+    --root "$INPUT_PROJECT" \
+    --glob "**/*.java" \
+    --exclude "**/DemoApplication.java" \
+    --output-project "$OUTPUT_PROJECT" \
+    --parallelism "$PARALLELISM" 2>&1 | tee "$LOG_FILE"
 
-for FILE in $FILES; do
-    echo "Processing $FILE..."
-    FILE_NAME=$(basename "$FILE")
-    LOG_FILE="${ROOT_DIR}/batch_logs/${FILE_NAME}.txt"
-    
-    # Run the generate command
-    java -jar "$JAR_PATH" generate --input "$FILE" --output-project "$OUTPUT_PROJECT" > "$LOG_FILE" 2>&1
-    
-    if [ $? -eq 0 ]; then
-        echo "✅ Finished $FILE_NAME"
-    else
-        echo "❌ Failed $FILE_NAME. See $LOG_FILE"
-    fi
-done
\ No newline at end of file
+if [ ${PIPESTATUS[0]} -eq 0 ]; then
+    echo "✅ Batch finished. See $LOG_FILE"
+else
+    echo "❌ Batch failed. See $LOG_FILE"
+fi
@@ -0,0 +1,222 @@
+package com.example.llama.application;
+
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+import com.example.llama.utils.ContextPropagator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Application Service for project-wide generation inside a single JVM.
+ * Files are drained from a shared work queue by a fixed number of workers,
+ * so analysis caches and Spring context are paid for once per run.
+ * Files are queued by estimated cost (see {@link FileCostEstimator}), which also drives the ETA.
+ * One file's failure never stops the others: it is reported as a failed result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchGenerationService {
+
+    private static final int ESTIMATION_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final FileGenerationService fileGenerationService;
+    private final FileCostEstimator costEstimator;
+
+    public record BatchReport(
+            LocalDateTime startedAt,
+            Path root,
+            int parallelism,
+            int totalFiles,
+            int passedFiles,
+            long wallClockMs,
+            long totalTokens,
+            double filesPerMinute,
+            double tokensPerMinute,
+            double passRate,
+            List<FileGenerationResult> results,
+            ScheduleReport schedule) {
+    }
+
+    /**
+     * Collects source files under the root that match the glob.
+     * If the root is a project root, scanning starts at {@code src/main/java}.
+     */
+    public List<Path> collectTargets(Path root, String glob, String excludeGlob) throws IOException {
+        Path scanRoot = Files.isDirectory(root.resolve("src/main/java")) ? root.resolve("src/main/java") : root;
+        PathMatcher include = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        PathMatcher exclude = (excludeGlob == null || excludeGlob.isBlank())
+                ? p -> false
+                : FileSystems.getDefault().getPathMatcher("glob:" + excludeGlob);
+
+        try (Stream<Path> stream = Files.walk(scanRoot)) {
+            return stream.filter(Files::isRegularFile)
+                    .filter(p -> p.toString().endsWith(".java"))
+                    .filter(p -> matches(include, scanRoot.relativize(p)))
+                    .filter(p -> !matches(exclude, scanRoot.relativize(p)))
+                    .map(p -> p.toAbsolutePath().normalize())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private boolean matches(PathMatcher matcher, Path relative) {
+        // "**/*.java" does not match top-level files, so the bare file name is checked as well
+        return matcher.matches(relative) || matcher.matches(relative.getFileName());
+    }
+
+    /**
+     * @param policy    Order in which files are handed to the workers.
+     * @param withChurn Fold git churn into the per-file cost estimates.
+     */
+    public BatchReport generateAll(Path root, List<Path> targets, Path outputProject, int parallelism,
+                                   SchedulingPolicy policy, boolean withChurn, GenerationOptions options) {
+        int workers = Math.max(1, Math.min(parallelism, targets.size()));
+        List<FileCostEstimator.FileCost> costs = policy.order(estimateAll(targets, root, withChurn));
+        BlockingQueue<FileCostEstimator.FileCost> queue = new LinkedBlockingQueue<>(costs);
+        EtaTracker eta = new EtaTracker(costs.stream().mapToDouble(FileCostEstimator.FileCost::units).sum(), workers);
+        List<FileGenerationResult> results = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startTime = System.currentTimeMillis();
+
+        log.info("📦 Batch generation: {} files, {} workers, schedule {}", targets.size(), workers, policy);
+        if (!costs.isEmpty()) {
+            log.info("📐 Estimated cost: head {} ({} units), tail {} ({} units)",
+                    costs.get(0).path().getFileName(), String.format("%.1f", costs.get(0).units()),
+                    costs.get(costs.size() - 1).path().getFileName(),
+                    String.format("%.1f", costs.get(costs.size() - 1).units()));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(CompletableFuture.supplyAsync(ContextPropagator.wrap(() -> {
+                    FileCostEstimator.FileCost next;
+                    while ((next = queue.poll()) != null) {
+                        log.info("▶️ [{}] Processing {}", Thread.currentThread().threadId(), next.path().getFileName());
+                        FileGenerationResult result = generateIsolated(next.path(), outputProject, options);
+                        results.add(result);
+                        logStatus(completed.incrementAndGet(), targets.size(), result);
+                        eta.completed(next.units(), result.durationMs()).ifPresent(remaining ->
+                                log.info("⏳ ETA ~{} min", String.format("%.1f", remaining / 60000.0)));
+                    }
+                    return null;
+                }), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        BatchReport report = buildReport(startedAt, root, workers, targets.size(), results,
+                System.currentTimeMillis() - startTime, ScheduleReport.of(policy, costs, results));
+        log.info("📐 Estimate accuracy: rank correlation {}, mean abs error {}%",
+                String.format("%.2f", report.schedule().rankCorrelation()),
+                String.format("%.0f", report.schedule().meanAbsPercentError() * 100));
+        return report;
+    }
+
+    /**
+     * A file that fails unexpectedly is reported as failed instead of ending its worker, so the
+     * remaining files of the queue are still generated.
+     */
+    private FileGenerationResult generateIsolated(Path sourcePath, Path outputProject, GenerationOptions options) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return fileGenerationService.generate(sourcePath, outputProject, options);
+        } catch (RuntimeException e) {
+            log.error("💥 Unexpected failure for {}", sourcePath, e);
+            return new FileGenerationResult(sourcePath, false, 0, System.currentTimeMillis() - startTime, 0, 0,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Estimates all files concurrently, bounded by the CPU count: each estimate parses the file and may
+     * fork {@code git log}, so done one by one they would delay the first generation on large projects.
+     */
+    private List<FileCostEstimator.FileCost> estimateAll(List<Path> targets, Path root, boolean withChurn) {
+        try (ExecutorService executor = Executors.newFixedThreadPool(ESTIMATION_THREADS)) {
+            List<CompletableFuture<FileCostEstimator.FileCost>> estimates = targets.stream()
+                    .map(target -> CompletableFuture.supplyAsync(
+                            () -> costEstimator.estimate(target, root, withChurn), executor))
+                    .toList();
+            return estimates.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    /**
+     * Calibrates milliseconds per cost unit from finished files and projects the remaining units
+     * onto the workers. In-flight files count as remaining.
+     */
+    private static final class EtaTracker {
+        private final int workers;
+        private double remainingUnits;
+        private double doneUnits;
+        private long doneMs;
+
+        EtaTracker(double totalUnits, int workers) {
+            this.remainingUnits = totalUnits;
+            this.workers = workers;
+        }
+
+        synchronized Optional<Long> completed(double units, long durationMs) {
+            remainingUnits = Math.max(0, remainingUnits - units);
+            doneUnits += units;
+            doneMs += durationMs;
+            if (doneUnits <= 0 || remainingUnits <= 0) return Optional.empty();
+            return Optional.of(Math.round(remainingUnits * (doneMs / doneUnits) / workers));
+        }
+    }
+
+    private void logStatus(int done, int total, FileGenerationResult result) {
+        if (result.passed()) {
+            log.info("✅ [{}/{}] {} passed ({} ms, {} tokens, {} repairs)", done, total,
+                    result.sourcePath().getFileName(), result.durationMs(), result.totalTokens(), result.repairAttempts());
+        } else {
+            log.warn("❌ [{}/{}] {} failed ({} ms): {}", done, total,
+                    result.sourcePath().getFileName(), result.durationMs(), result.errorMessage());
+        }
+    }
+
+    private BatchReport buildReport(LocalDateTime startedAt, Path root, int workers, int totalFiles,
+                                    List<FileGenerationResult> results, long wallClockMs, ScheduleReport schedule) {
+        List<FileGenerationResult> ordered = results.stream()
+                .sorted((a, b) -> a.sourcePath().compareTo(b.sourcePath()))
+                .toList();
+        int passed = (int) ordered.stream().filter(FileGenerationResult::passed).count();
+        long tokens = ordered.stream().mapToLong(FileGenerationResult::totalTokens).sum();
+        double minutes = wallClockMs / 60000.0;
+
+        return new BatchReport(
+                startedAt,
+                root,
+                workers,
+                totalFiles,
+                passed,
+                wallClockMs,
+                tokens,
+                minutes > 0 ? ordered.size() / minutes : 0,
+                minutes > 0 ? tokens / minutes : 0,
+                ordered.isEmpty() ? 0 : (double) passed / ordered.size(),
+                ordered,
+                schedule);
+    }
+}
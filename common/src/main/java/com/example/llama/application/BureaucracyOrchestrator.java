@@ -31,14 +31,19 @@ public class BureaucracyOrchestrator {
     // com.example.llama.domain.expert.ExpertGroup> expertGroups; // Deprecating
 
     public GeneratedCode orchestrate(String sourceCode, Path sourcePath, Intelligence.ComponentType domain) {
+        return orchestrate(sourceCode, sourcePath, domain, GenerationOptions.defaults());
+    }
+
+    public GeneratedCode orchestrate(String sourceCode, Path sourcePath, Intelligence.ComponentType domain,
+            GenerationOptions options) {
         if (domain == Intelligence.ComponentType.SERVICE || domain == Intelligence.ComponentType.COMPONENT
                 || domain == Intelligence.ComponentType.LISTENER || domain == Intelligence.ComponentType.ENTITY
                 || domain == Intelligence.ComponentType.DTO || domain == Intelligence.ComponentType.VO) {
-            return serviceOrchestrator.orchestrate(sourceCode, sourcePath);
+            return serviceOrchestrator.orchestrate(sourceCode, sourcePath, options);
         } else if (domain == Intelligence.ComponentType.CONTROLLER) {
-            return controllerOrchestrator.orchestrate(sourceCode, sourcePath);
+            return controllerOrchestrator.orchestrate(sourceCode, sourcePath, options);
         } else if (domain == Intelligence.ComponentType.REPOSITORY) {
-            return repositoryOrchestrator.orchestrate(sourceCode, sourcePath);
+            return repositoryOrchestrator.orchestrate(sourceCode, sourcePath, options);
         }
         throw new UnsupportedOperationException("Orchestrator not implemented for domain: " + domain);
     }
@@ -0,0 +1,169 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.service.CodeSynthesizer;
+import com.example.llama.domain.service.TestRunner.TestExecutionResult;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
+import com.example.llama.utils.ContextPropagator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Best-of-N racing for self-healing.
+ * N candidates are generated in parallel (optionally on different providers); each is
+ * syntax-checked as soon as it arrives and verified in arrival order. The first candidate
+ * that passes wins and the remaining generations are cancelled.
+ * <p>
+ * Verification itself is one-at-a-time: every candidate is the same test class in the same
+ * Gradle source set, and a broken sibling would fail compilation for all of them. Across files
+ * (parallel batch workers) the callers' verifiers hold {@link VerificationLocks} for the project root.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CandidateRace {
+
+    private final CodeSynthesizer codeSynthesizer;
+
+    /**
+     * @param provider  Provider override for this candidate, null = caller's provider.
+     * @param generator Produces the candidate code (an LLM round trip).
+     */
+    public record Candidate(String provider, Supplier<GeneratedCode> generator) {
+    }
+
+    /**
+     * @param code     The winner, or the last verified candidate when none passed (null if none was verifiable).
+     * @param result   Verification result of {@code code}.
+     * @param provider Provider that produced {@code code}.
+     * @param verified Number of candidates that reached verification.
+     */
+    public record RaceOutcome(GeneratedCode code, TestExecutionResult result, String provider,
+                              int verified, long elapsedMs) {
+        public boolean passed() {
+            return result != null && result.success();
+        }
+    }
+
+    private record Arrival(int index, String provider, GeneratedCode code) {
+    }
+
+    /**
+     * Builds {@code count} candidates from one generator, assigning providers round-robin.
+     */
+    public static List<Candidate> fanOut(int count, List<String> providers, Supplier<GeneratedCode> generator) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String provider = providers.isEmpty() ? null : providers.get(i % providers.size());
+            candidates.add(new Candidate(provider, generator));
+        }
+        return candidates;
+    }
+
+    public RaceOutcome race(List<Candidate> candidates, Function<GeneratedCode, TestExecutionResult> verifier) {
+        long startTime = System.currentTimeMillis();
+        log.info("🏁 Racing {} candidate(s)...", candidates.size());
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<Arrival> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Arrival>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                futures.add(completion.submit(toTask(i, candidates.get(i))));
+            }
+
+            GeneratedCode lastCode = null;
+            TestExecutionResult lastResult = null;
+            String lastProvider = null;
+            int verified = 0;
+
+            for (int received = 0; received < candidates.size(); received++) {
+                Arrival arrival = take(completion);
+                if (arrival == null || !isPlausible(arrival.code())) {
+                    continue;
+                }
+
+                verified++;
+                TestExecutionResult result = verifier.apply(arrival.code());
+                lastCode = arrival.code();
+                lastResult = result;
+                lastProvider = arrival.provider();
+
+                if (result.success()) {
+                    long elapsed = System.currentTimeMillis() - startTime;
+                    log.info("🥇 Candidate #{} ({}) passed after {} ms. Cancelling the rest.",
+                            arrival.index() + 1, describe(arrival.provider()), elapsed);
+                    futures.forEach(f -> f.cancel(true));
+                    return new RaceOutcome(lastCode, lastResult, lastProvider, verified, elapsed);
+                }
+                log.warn("❌ Candidate #{} ({}) failed verification.", arrival.index() + 1, describe(arrival.provider()));
+            }
+
+            return new RaceOutcome(lastCode, lastResult, lastProvider, verified, System.currentTimeMillis() - startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Arrival> toTask(int index, Candidate candidate) {
+        Supplier<Arrival> task = ContextPropagator.wrap(() -> {
+            String inherited = LlmContextHolder.getProvider();
+            boolean inheritedBypass = LlmContextHolder.isCacheBypassed();
+            if (candidate.provider() != null) {
+                LlmContextHolder.setProvider(candidate.provider());
+            }
+            // A cached answer would make every candidate of the same provider identical
+            if (index > 0) {
+                LlmContextHolder.setCacheBypass(true);
+            }
+            try {
+                return new Arrival(index, LlmContextHolder.getProvider(), candidate.generator().get());
+            } finally {
+                LlmContextHolder.setProvider(inherited);
+                LlmContextHolder.setCacheBypass(inheritedBypass);
+            }
+        });
+        return task::get;
+    }
+
+    private Arrival take(CompletionService<Arrival> completion) {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            log.warn("⚠️ Candidate generation failed: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Candidate race interrupted", e);
+        }
+    }
+
+    private boolean isPlausible(GeneratedCode code) {
+        if (code == null || code.body() == null || code.body().isBlank()) {
+            log.warn("⚠️ Candidate returned empty code. Skipping verification.");
+            return false;
+        }
+        if (!codeSynthesizer.validateSyntax(code.body())) {
+            log.warn("⚠️ Candidate does not parse. Skipping verification.");
+            return false;
+        }
+        return true;
+    }
+
+    private String describe(String provider) {
+        return provider != null ? provider : "default";
+    }
+}
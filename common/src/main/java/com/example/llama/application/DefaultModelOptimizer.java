@@ -5,6 +5,7 @@ import com.example.llama.domain.service.LlmClient;
 import com.example.llama.domain.service.ModelOptimizer;
 import com.example.llama.infrastructure.llm.LlmContextHolder;
 import com.example.llama.infrastructure.llm.LlmProviderFactory;
+import com.example.llama.infrastructure.llm.ModelRoutingTable;
 import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -31,6 +32,7 @@ public class DefaultModelOptimizer implements ModelOptimizer {
     private final LlmProviderFactory providerFactory;
     private final LlmProviderProperties properties;
     private final BureaucracyOrchestrator orchestrator;
+    private final ModelRoutingTable routingTable;
     private final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .enable(SerializationFeature.INDENT_OUTPUT)
@@ -38,6 +40,8 @@ public class DefaultModelOptimizer implements ModelOptimizer {
 
     private record BenchmarkScenario(String name, String path, com.example.llama.domain.model.Intelligence.ComponentType type) {}
 
+    private record SuiteResult(BenchmarkResult summary, List<BenchmarkResult> scenarios) {}
+
     private final List<BenchmarkScenario> scenarios = List.of(
             new BenchmarkScenario("Controller", "sample-projects/demo-app/src/main/java/com/example/demo/presentation/ProductController.java", com.example.llama.domain.model.Intelligence.ComponentType.CONTROLLER),
             new BenchmarkScenario("Service", "sample-projects/demo-app/src/main/java/com/example/demo/service/ProductService.java", com.example.llama.domain.model.Intelligence.ComponentType.SERVICE),
@@ -47,6 +51,10 @@ public class DefaultModelOptimizer implements ModelOptimizer {
 
     @Override
     public BenchmarkResult benchmark(String provider, String model) {
+        return runSuite(provider, model).summary();
+    }
+
+    private SuiteResult runSuite(String provider, String model) {
         log.info("📊 Starting multi-scenario benchmark for Provider: {}, Model: {}", provider, model);
         
         List<BenchmarkResult> scenarioResults = new ArrayList<>();
@@ -57,13 +65,16 @@ public class DefaultModelOptimizer implements ModelOptimizer {
 
         BenchmarkResult aggregated = aggregate(scenarioResults);
         saveReport(aggregated, scenarioResults);
-        return aggregated;
+        return new SuiteResult(aggregated, scenarioResults);
     }
 
     private BenchmarkResult runScenario(String provider, String model, BenchmarkScenario scenario) {
         log.info("  🧪 Scenario: {}", scenario.name());
         long startTime = System.currentTimeMillis();
+        boolean previousCacheBypass = LlmContextHolder.isCacheBypassed();
         LlmContextHolder.setProvider(provider);
+        // Cached replays carry no tokens or timings, so every scenario measures a real round trip
+        LlmContextHolder.setCacheBypass(true);
         com.example.llama.utils.MetricCollector.start();
         
         try {
@@ -107,6 +118,7 @@ public class DefaultModelOptimizer implements ModelOptimizer {
             return BenchmarkResult.builder()
                     .provider(provider)
                     .modelName(actualModel + " [" + scenario.name() + "]")
+                    .componentType(scenario.type())
                     .timestamp(LocalDateTime.now())
                     .formatSuccess(formatSuccess)
                     .compileSuccess(compileSuccess)
@@ -126,17 +138,20 @@ public class DefaultModelOptimizer implements ModelOptimizer {
             return BenchmarkResult.builder()
                     .provider(provider)
                     .modelName(model + " [" + scenario.name() + "]")
+                    .componentType(scenario.type())
                     .timestamp(LocalDateTime.now())
                     .errorMessage(e.getMessage())
                     .build();
         } finally {
-            LlmContextHolder.clear();
+            LlmContextHolder.setProvider(null);
+            LlmContextHolder.setCacheBypass(previousCacheBypass);
         }
     }
 
     @Override
     public List<BenchmarkResult> optimizeAll() {
         List<BenchmarkResult> results = new ArrayList<>();
+        List<BenchmarkResult> scenarioResults = new ArrayList<>();
         
         for (LlmProviderProperties.ProviderConfig config : properties.getProviders()) {
             String provider = config.getName();
@@ -144,32 +159,35 @@ public class DefaultModelOptimizer implements ModelOptimizer {
             
             log.info("🔄 Optimizing provider: {} (Type: {})", provider, config.getType());
             
-            BenchmarkResult result = benchmarkWithRetry(provider, model);
-            results.add(result);
+            SuiteResult suite = benchmarkWithRetry(provider, model);
+            results.add(suite.summary());
+            scenarioResults.addAll(suite.scenarios());
             
             try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
         }
+
+        // Per-scenario figures feed the role routing: cheap models for classification, big ones where they compile
+        routingTable.learn(scenarioResults);
         
         return results;
     }
 
-    private BenchmarkResult benchmarkWithRetry(String provider, String model) {
+    private SuiteResult benchmarkWithRetry(String provider, String model) {
         int maxRetries = 3;
-        long waitTime = 5000;
 
         for (int i = 0; i < maxRetries; i++) {
-            BenchmarkResult result = benchmark(provider, model);
+            SuiteResult suite = runSuite(provider, model);
+            BenchmarkResult result = suite.summary();
             
             if (result.getErrorMessage() == null || !result.getErrorMessage().contains("429")) {
-                return result;
+                return suite;
             }
 
-            log.warn("⏳ Rate limited (429). Retrying in {}ms... (Attempt {}/{})", waitTime, i + 1, maxRetries);
-            try { Thread.sleep(waitTime); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            waitTime *= 2; 
+            // No local backoff: the provider's admission controller has already slowed down on the 429
+            log.warn("⏳ Rate limited (429). Retrying at the reduced admission rate... (Attempt {}/{})", i + 1, maxRetries);
         }
         
-        return benchmark(provider, model); 
+        return runSuite(provider, model); 
     }
 
     private BenchmarkResult aggregate(List<BenchmarkResult> results) {
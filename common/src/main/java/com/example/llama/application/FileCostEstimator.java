@@ -0,0 +1,103 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.service.CodeAnalyzer;
+import com.example.llama.infrastructure.execution.ChildProcesses;
+import com.example.llama.utils.TokenEstimator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Estimates up front how expensive generating tests for a source file will be, so multi-file
+ * runs can be ordered and given an ETA. The estimate is in relative cost units: every method is
+ * one LLM round trip whose prompt grows with the source, plus one setup call and the collaborators
+ * the orchestrator pulls into the context. Optionally, git churn raises the cost of files that
+ * change often (they tend to need more repair rounds).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileCostEstimator {
+
+    /** Source tokens that double the cost of one LLM round trip. */
+    private static final double TOKENS_PER_CALL_UNIT = 4000.0;
+    private static final double COLLABORATOR_WEIGHT = 0.5;
+    private static final double CHURN_WEIGHT = 0.1;
+    /** Same cap as the orchestrator's related-context lookup. */
+    private static final int MAX_COLLABORATORS = 11;
+    private static final Duration GIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final CodeAnalyzer codeAnalyzer;
+
+    /**
+     * @param units Relative cost, only meaningful compared to other files of the same run.
+     */
+    public record FileCost(Path path, int methods, int sourceTokens, int collaborators, int churn, double units) {
+    }
+
+    public FileCost estimate(Path sourceFile, Path projectRoot, boolean withChurn) {
+        String source;
+        try {
+            source = Files.readString(sourceFile);
+        } catch (Exception e) {
+            log.warn("⚠️ Cannot read {} for cost estimation: {}", sourceFile.getFileName(), e.getMessage());
+            return new FileCost(sourceFile, 0, 0, 0, 0, 1.0);
+        }
+
+        int tokens = TokenEstimator.estimate(source);
+        int methods = 0;
+        int collaborators = 0;
+        try {
+            Intelligence intel = codeAnalyzer.extractIntelligence(source, sourceFile.toString());
+            methods = (int) intel.methods().stream()
+                    .filter(m -> !m.contains("toString()") && !m.contains("hashCode()") && !m.contains("equals("))
+                    .count();
+            collaborators = countProjectCollaborators(intel, projectRoot);
+        } catch (Exception e) {
+            log.debug("Cost estimation without analysis for {}: {}", sourceFile.getFileName(), e.getMessage());
+        }
+        int churn = withChurn ? gitChurn(sourceFile) : 0;
+
+        double units = (1 + methods) * (1 + tokens / TOKENS_PER_CALL_UNIT)
+                + COLLABORATOR_WEIGHT * collaborators;
+        if (churn > 0) {
+            units *= 1 + CHURN_WEIGHT * Math.log1p(churn);
+        }
+        return new FileCost(sourceFile, methods, tokens, collaborators, churn, units);
+    }
+
+    private int countProjectCollaborators(Intelligence intel, Path projectRoot) {
+        Path sourceRoot = Files.isDirectory(projectRoot.resolve("src/main/java"))
+                ? projectRoot.resolve("src/main/java") : projectRoot;
+        return (int) intel.imports().stream()
+                .map(imp -> imp.replace("import ", "").replace(";", "").trim())
+                .filter(imp -> !imp.startsWith("java.") && !imp.startsWith("javax.")
+                        && !imp.startsWith("jakarta.") && !imp.startsWith("org.springframework."))
+                .filter(imp -> Files.exists(sourceRoot.resolve(imp.replace(".", "/") + ".java")))
+                .limit(MAX_COLLABORATORS)
+                .count();
+    }
+
+    /**
+     * Number of commits touching the file, 0 when git is unavailable.
+     */
+    private int gitChurn(Path sourceFile) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder("git", "log", "--format=%h", "--", sourceFile.getFileName().toString())
+                    .directory(sourceFile.getParent().toFile())
+                    .redirectErrorStream(true);
+            ChildProcesses.Outcome outcome = ChildProcesses.run(pb, null, GIT_TIMEOUT);
+            return outcome.isSuccess() ? (int) outcome.output().lines().filter(l -> !l.isBlank()).count() : 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.llama.application;
+
+import com.example.llama.application.config.PipelineProperties;
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.service.CodeWriter;
+import com.example.llama.domain.service.TestRunner;
+import com.example.llama.utils.Deadline;
+import com.example.llama.utils.MetricCollector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Application Service running the full lifecycle for a single source file:
+ * Generation -> Save -> Self-Healing Loop.
+ * Shared by the single-file and the project-wide shell commands.
+ * Every file runs under its own {@link Deadline}, so one stuck file cannot hold a batch worker indefinitely.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileGenerationService {
+
+    private static final int MAX_REPAIR_RETRIES = 3;
+
+    private final BureaucracyOrchestrator orchestrator;
+    private final CodeWriter codeWriter;
+    private final TestRunner testRunner;
+    private final CandidateRace candidateRace;
+    private final VerificationLocks verificationLocks;
+    private final PipelineProperties pipelineProperties;
+
+    public record FileGenerationResult(
+            Path sourcePath,
+            boolean passed,
+            int repairAttempts,
+            long durationMs,
+            int inputTokens,
+            int outputTokens,
+            String errorMessage) {
+
+        public int totalTokens() {
+            return inputTokens + outputTokens;
+        }
+    }
+
+    public FileGenerationResult generate(Path sourcePath, Path projectRoot) {
+        return generate(sourcePath, projectRoot, GenerationOptions.defaults());
+    }
+
+    /**
+     * Generates, saves and verifies the test for one source file.
+     *
+     * @param sourcePath  Absolute path of the source file.
+     * @param projectRoot Project root receiving the generated test, or null to auto-detect.
+     * @param options     Per-run switches (candidate racing, resume, deadline, ...).
+     */
+    public FileGenerationResult generate(Path sourcePath, Path projectRoot, GenerationOptions options) {
+        long startTime = System.currentTimeMillis();
+        MetricCollector.start();
+        Deadline previousDeadline = Deadline.current();
+        Deadline deadline = Deadline.after(options.deadline() != null ? options.deadline() : pipelineProperties.getFileDeadline());
+        Deadline.bind(deadline);
+        boolean passed = false;
+        int attempts = 0;
+        String error = null;
+
+        try {
+            Path outputRoot = projectRoot != null ? projectRoot : findProjectRoot(sourcePath);
+            String sourceCode = Files.readString(sourcePath);
+            Intelligence.ComponentType domain = detectDomain(sourcePath);
+            String expectedClassName = sourcePath.getFileName().toString().replace(".java", "Test");
+            int candidates = options.candidates() > 0 ? options.candidates() : pipelineProperties.getCandidates();
+            List<String> providers = !options.candidateProviders().isEmpty()
+                    ? options.candidateProviders() : pipelineProperties.getCandidateProviders();
+
+            // 1. Initial Generation (the class is flushed to disk as each method block arrives)
+            GeneratedCode result = orchestrator.orchestrate(sourceCode, sourcePath, domain, options.withPartialResultSink(
+                    partial -> codeWriter.savePartial(partial, outputRoot, partial.packageName(), className(partial, expectedClassName))));
+            TestRunner.TestExecutionResult testResult = saveAndVerify(result, outputRoot, expectedClassName);
+
+            // 2. Self-Healing Loop (serial repair, or a best-of-N race per round), bounded by the file deadline
+            while (!testResult.success() && attempts < MAX_REPAIR_RETRIES && !deadline.isExpired()) {
+                attempts++;
+                log.warn("❌ Test Verification Failed (Attempt {}/{}). Initiating Repair...", attempts, MAX_REPAIR_RETRIES);
+                log.warn("Error Sample: {}",
+                        testResult.output().lines().limit(5).collect(Collectors.joining("\n")));
+
+                GeneratedCode broken = result;
+                String errorLog = testResult.output();
+                if (candidates > 1) {
+                    CandidateRace.RaceOutcome outcome = candidateRace.race(
+                            CandidateRace.fanOut(candidates, providers,
+                                    () -> orchestrator.repair(broken, errorLog, sourceCode, sourcePath, domain)),
+                            candidate -> saveAndVerify(candidate, outputRoot, expectedClassName));
+                    if (outcome.code() == null) {
+                        log.error("💥 No repair candidate produced usable code. Aborting repair loop.");
+                        error = "Repair returned empty code";
+                        break;
+                    }
+                    result = outcome.code();
+                    testResult = outcome.result();
+                } else {
+                    result = orchestrator.repair(broken, errorLog, sourceCode, sourcePath, domain);
+                    if (result.body() == null || result.body().isBlank()) {
+                        log.error("💥 Repair Agent returned empty code. Aborting repair loop.");
+                        error = "Repair returned empty code";
+                        break;
+                    }
+                    testResult = saveAndVerify(result, outputRoot, expectedClassName);
+                }
+            }
+
+            passed = testResult.success();
+            if (!passed && deadline.isExpired()) {
+                // Race losers may have overwritten the file: keep the latest result on disk
+                log.warn("⏰ Deadline of {} exceeded for {}. Keeping the best result so far.",
+                        deadline.budget(), sourcePath.getFileName());
+                GeneratedCode best = result;
+                verificationLocks.withLock(outputRoot, () -> {
+                    codeWriter.save(best, outputRoot, best.packageName(), className(best, expectedClassName));
+                    return null;
+                });
+                error = error != null ? error : "Deadline exceeded after " + attempts + " repair attempt(s)";
+            }
+            if (passed) {
+                log.info("✅ Test Passed: {}.{}", result.packageName(), className(result, expectedClassName));
+            } else if (error == null) {
+                error = "Verification failed after " + attempts + " repair attempt(s)";
+            }
+            log.info("🏁 Test generation process complete for {}", sourcePath.getFileName());
+        } catch (Exception e) {
+            log.error("💥 Test generation failed for {}", sourcePath, e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            Deadline.bind(previousDeadline);
+        }
+
+        List<LlmResponse> metrics = MetricCollector.stop();
+        int inTokens = metrics == null ? 0 : metrics.stream().mapToInt(LlmResponse::inputTokens).sum();
+        int outTokens = metrics == null ? 0 : metrics.stream().mapToInt(LlmResponse::outputTokens).sum();
+
+        return new FileGenerationResult(sourcePath, passed, attempts,
+                System.currentTimeMillis() - startTime, inTokens, outTokens, error);
+    }
+
+    private TestRunner.TestExecutionResult saveAndVerify(GeneratedCode code, Path outputRoot, String expectedClassName) {
+        String className = className(code, expectedClassName);
+        // Batch workers share outputRoot: write and test under the root's lock so their Gradle runs never overlap
+        return verificationLocks.withLock(outputRoot, () -> {
+            codeWriter.save(code, outputRoot, code.packageName(), className);
+            return testRunner.runTest(outputRoot, code.packageName() + "." + className);
+        });
+    }
+
+    private String className(GeneratedCode code, String expectedClassName) {
+        return (code.className() != null && !code.className().isBlank()) ? code.className() : expectedClassName;
+    }
+
+    public Intelligence.ComponentType detectDomain(Path sourcePath) {
+        String fileName = sourcePath.getFileName().toString();
+        if (fileName.endsWith("Controller.java")) {
+            return Intelligence.ComponentType.CONTROLLER;
+        } else if (fileName.endsWith("Repository.java")) {
+            return Intelligence.ComponentType.REPOSITORY;
+        } else if (fileName.endsWith("Listener.java")) {
+            return Intelligence.ComponentType.LISTENER;
+        }
+        return Intelligence.ComponentType.SERVICE;
+    }
+
+    public Path findProjectRoot(Path sourcePath) {
+        Path current = sourcePath;
+        while (current != null) {
+            if (Files.exists(current.resolve("build.gradle")) ||
+                    Files.exists(current.resolve("build.gradle.kts"))) {
+                return current;
+            }
+            current = current.getParent();
+        }
+        return Paths.get(".").toAbsolutePath().normalize(); // Fallback
+    }
+}
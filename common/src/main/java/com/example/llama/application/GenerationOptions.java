@@ -0,0 +1,61 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.GeneratedCode;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Per-run generation switches passed from the shell layer.
+ *
+ * @param candidates         Repair candidates raced per self-healing round, 0 = configured default.
+ * @param candidateProviders Providers assigned round-robin to candidates, empty = configured default.
+ * @param resume             Continue from the last checkpoint of the same source and provider/model.
+ * @param deadline           Wall-clock budget per source file, null = configured default, zero = unbounded.
+ * @param partialResultSink  Receives the test class after every grafted method block, null = final result only.
+ */
+public record GenerationOptions(int candidates, List<String> candidateProviders, boolean resume, Duration deadline,
+                                Consumer<GeneratedCode> partialResultSink) {
+
+    public GenerationOptions {
+        candidateProviders = candidateProviders != null ? List.copyOf(candidateProviders) : List.of();
+    }
+
+    public GenerationOptions(int candidates, List<String> candidateProviders, boolean resume, Duration deadline) {
+        this(candidates, candidateProviders, resume, deadline, null);
+    }
+
+    public GenerationOptions withPartialResultSink(Consumer<GeneratedCode> sink) {
+        return new GenerationOptions(candidates, candidateProviders, resume, deadline, sink);
+    }
+
+    public static GenerationOptions defaults() {
+        return new GenerationOptions(0, List.of(), false, null);
+    }
+
+    /**
+     * Parses a comma-separated shell option, null or blank yields an empty list.
+     */
+    public static List<String> parseList(String commaSeparated) {
+        if (commaSeparated == null || commaSeparated.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(commaSeparated.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Parses a duration shell option such as {@code 20m}, {@code 90s} or {@code PT1H}; null or blank yields null.
+     */
+    public static Duration parseDuration(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return DurationStyle.detectAndParse(value.trim());
+    }
+}
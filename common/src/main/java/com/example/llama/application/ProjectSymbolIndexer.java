@@ -13,25 +13,42 @@ import java.util.stream.Stream;
 /**
  * Application Service for indexing and resolving symbols across the project.
  * Crucial for automatic import resolution.
+ * Each project root is walked once per run and the index is shared by every file generated under it,
+ * so concurrent workers neither repeat the walk nor clear each other's index.
  */
 @Slf4j
 @Service
 public class ProjectSymbolIndexer {
-    private final Map<String, String> symbolMap = new ConcurrentHashMap<>();
+    private final Map<Path, Map<String, String>> indexes = new ConcurrentHashMap<>();
 
+    /**
+     * Indexes {@code root} unless it was already indexed; concurrent callers for one root wait for a single walk.
+     */
     public void indexProject(Path root) {
+        indexes.computeIfAbsent(root.toAbsolutePath().normalize(), this::scan);
+    }
+
+    /**
+     * Drops the index of {@code root}, so the next {@link #indexProject} walks it again.
+     */
+    public void invalidate(Path root) {
+        indexes.remove(root.toAbsolutePath().normalize());
+    }
+
+    private Map<String, String> scan(Path root) {
         log.info("🔍 Indexing project symbols at: {}", root);
-        symbolMap.clear();
+        Map<String, String> symbolMap = new ConcurrentHashMap<>();
         try (Stream<Path> stream = Files.walk(root)) {
             stream.filter(p -> p.toString().endsWith(".java"))
-                  .forEach(this::indexFile);
+                  .forEach(path -> indexFile(path, symbolMap));
             log.info("✅ Indexed {} unique symbols.", symbolMap.size());
         } catch (IOException e) {
             log.error("❌ Failed to index project", e);
         }
+        return symbolMap;
     }
 
-    private void indexFile(Path path) {
+    private void indexFile(Path path, Map<String, String> symbolMap) {
         try {
             String content = Files.readString(path);
             String className = path.getFileName().toString().replace(".java", "");
@@ -50,7 +67,11 @@ public class ProjectSymbolIndexer {
                 .orElse(null);
     }
 
-    public String resolve(String className) {
-        return symbolMap.get(className);
+    /**
+     * @return The fully qualified name of {@code className} in {@code root}, null when unknown or not indexed.
+     */
+    public String resolve(Path root, String className) {
+        Map<String, String> symbolMap = indexes.get(root.toAbsolutePath().normalize());
+        return symbolMap != null ? symbolMap.get(className) : null;
     }
 }
@@ -0,0 +1,99 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.Scenario;
+import com.example.llama.utils.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Packs scenarios into shared LLM requests so the class context is sent once per pack
+ * instead of once per scenario. Packs never mix target methods and stay under a token budget.
+ * Responses carry one tagged {@code <code id="...">} section per scenario.
+ */
+public final class ScenarioPacker {
+
+    /** Rough output reservation per scenario (one test method). */
+    static final int OUTPUT_TOKENS_PER_SCENARIO = 400;
+
+    private static final Pattern SECTION = Pattern.compile(
+            "<code\\s+id\\s*=\\s*[\"']([^\"']+)[\"']\\s*>(.*?)</code>", Pattern.DOTALL);
+
+    private ScenarioPacker() {
+    }
+
+    /**
+     * @param id       Section id the LLM must echo back (unique within one pipeline run).
+     * @param index    Position in the planned scenario list.
+     */
+    public record Entry(String id, int index, Scenario scenario) {
+    }
+
+    public record Pack(String targetMethodName, List<Entry> entries) {
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Groups scenarios by target method (first-appearance order), then splits each group
+     * so that no pack exceeds {@code tokenBudget} or {@code maxPerPack} scenarios.
+     */
+    public static List<Pack> pack(List<Scenario> scenarios, int tokenBudget, int maxPerPack) {
+        Map<String, List<Entry>> byMethod = new LinkedHashMap<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario s = scenarios.get(i);
+            byMethod.computeIfAbsent(s.targetMethodName(), k -> new ArrayList<>())
+                    .add(new Entry("s" + (i + 1), i, s));
+        }
+
+        int limit = Math.max(1, maxPerPack);
+        List<Pack> packs = new ArrayList<>();
+        byMethod.forEach((method, entries) -> {
+            List<Entry> current = new ArrayList<>();
+            int currentTokens = 0;
+            for (Entry entry : entries) {
+                int cost = estimateCost(entry.scenario());
+                if (!current.isEmpty() && (current.size() >= limit || currentTokens + cost > tokenBudget)) {
+                    packs.add(new Pack(method, current));
+                    current = new ArrayList<>();
+                    currentTokens = 0;
+                }
+                current.add(entry);
+                currentTokens += cost;
+            }
+            if (!current.isEmpty()) {
+                packs.add(new Pack(method, current));
+            }
+        });
+        return packs;
+    }
+
+    /**
+     * Splits a packed response into its tagged sections, keyed by section id.
+     * Sections that are missing or empty are simply absent from the result.
+     */
+    public static Map<String, String> unpack(String rawResponse) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        if (rawResponse == null) {
+            return sections;
+        }
+        Matcher m = SECTION.matcher(rawResponse);
+        while (m.find()) {
+            String body = m.group(2).trim();
+            if (!body.isEmpty()) {
+                sections.putIfAbsent(m.group(1).trim(), body);
+            }
+        }
+        return sections;
+    }
+
+    private static int estimateCost(Scenario scenario) {
+        return TokenEstimator.estimate(scenario.description()) + TokenEstimator.estimate(scenario.targetMethodName())
+                + OUTPUT_TOKENS_PER_SCENARIO;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.llama.application;
 
+import com.example.llama.application.config.PipelineProperties;
 import com.example.llama.domain.expert.DomainExpert;
 import com.example.llama.domain.model.AgentType;
 import com.example.llama.domain.model.GeneratedCode;
@@ -43,8 +44,23 @@ public class ScenarioProcessingPipeline {
     private final TestRunner testRunner;
     private final CodeWriter codeWriter;
     private final KnowledgeAcquisitionService knowledgeService;
+    private final CandidateRace candidateRace;
+    private final VerificationLocks verificationLocks;
+    private final PipelineProperties pipelineProperties;
 
     public GeneratedCode process(String sourceCode, Path projectRoot, Path sourceRoot, Path relativeSourcePath) {
+        return process(sourceCode, projectRoot, sourceRoot, relativeSourcePath, GenerationOptions.defaults());
+    }
+
+    /**
+     * @param options Per-run switches; {@code candidates} and {@code candidate-providers} override the
+     *                configured repair race.
+     */
+    public GeneratedCode process(String sourceCode, Path projectRoot, Path sourceRoot, Path relativeSourcePath,
+            GenerationOptions options) {
+        int candidates = options.candidates() > 0 ? options.candidates() : pipelineProperties.getCandidates();
+        List<String> providers = !options.candidateProviders().isEmpty()
+                ? options.candidateProviders() : pipelineProperties.getCandidateProviders();
         log.info("🚀 Starting Scenario Processing Pipeline for: {}", relativeSourcePath);
 
         // 0. Symbol Indexing
@@ -71,51 +87,46 @@ public class ScenarioProcessingPipeline {
         List<Scenario> scenarios = testPlanner.planScenarios(intel, sourceCode, relevantFiles);
         log.info("📋 Planned {} scenarios.", scenarios.size());
 
-        // 4. Execution (Agentic Generation - Divide & Conquer)
-        List<String> testMethods = new ArrayList<>();
+        // 4. Execution (Agentic Generation - Packed Divide & Conquer)
         Agent dataClerk = orchestrator.requestSpecialist(AgentType.DATA_CLERK, intel.type());
         DomainExpert expert = orchestrator.getExpertFor(intel.type());
         String domainStrategy = expert.getDomainStrategy();
 
-        for (Scenario s : scenarios) {
-            log.info("🎬 [Divide & Conquer] Generating Code for Scenario: {}", s.description());
-
-            String task = String.format("""
-                    Generate a high-quality JUnit 5 test method for the following scenario:
-                    Target Method: %s
-                    Scenario Description: %s
-
-                    [STRICT EXPERT DIRECTIVES]
-                    1. Mocking: %s
-                    2. Execution: %s
-                    3. Verification: %s
-
-                    Instructions:
-                    1. Use the BDD style (given/when/then) within the method.
-                    2. If appropriate, wrap the test in a @Nested class named 'Describe_%s'.
-                    3. Output ONLY the valid Java code (import statements and the method/nested class).
-                    """,
-                    s.targetMethodName(),
-                    s.description(),
-                    expert.getMockingDirective(),
-                    expert.getExecutionDirective(),
-                    expert.getVerificationDirective(),
-                    s.targetMethodName());
-
-            String context = String.format("""
-                    [SOURCE_CODE]
-                    %s
-
-                    [DOMAIN_STRATEGY]
-                    %s
-
-                    [REQUIRED_IMPORTS]
-                    %s
-                    """, sourceCode, domainStrategy, String.join("\n", expert.getRequiredImports()));
-
-            String rawResponse = dataClerk.act(task, context);
-            GeneratedCode snippet = codeSynthesizer.sanitizeAndExtract(rawResponse);
-            testMethods.add(snippet.body());
+        String context = String.format("""
+                [SOURCE_CODE]
+                %s
+
+                [DOMAIN_STRATEGY]
+                %s
+
+                [REQUIRED_IMPORTS]
+                %s
+                """, sourceCode, domainStrategy, String.join("\n", expert.getRequiredImports()));
+
+        List<ScenarioPacker.Pack> packs = ScenarioPacker.pack(scenarios,
+                pipelineProperties.getScenarioPackTokens(), pipelineProperties.getScenarioPackMax());
+        log.info("📦 Packed {} scenarios into {} request(s).", scenarios.size(), packs.size());
+
+        String[] scenarioBodies = new String[scenarios.size()];
+        for (ScenarioPacker.Pack pack : packs) {
+            List<ScenarioPacker.Entry> missing = pack.size() == 1
+                    ? pack.entries()
+                    : generatePack(pack, dataClerk, expert, context, scenarioBodies);
+
+            // Retry only what did not come back from the packed request
+            for (ScenarioPacker.Entry entry : missing) {
+                Scenario s = entry.scenario();
+                log.info("🎬 [Divide & Conquer] Generating Code for Scenario: {}", s.description());
+                String rawResponse = dataClerk.act(singleScenarioTask(s, expert), context);
+                scenarioBodies[entry.index()] = codeSynthesizer.sanitizeAndExtract(rawResponse).body();
+            }
+        }
+
+        List<String> testMethods = new ArrayList<>();
+        for (String body : scenarioBodies) {
+            if (body != null) {
+                testMethods.add(body);
+            }
         }
 
         // 5. Assembly (AST Synthesis)
@@ -130,36 +141,138 @@ public class ScenarioProcessingPipeline {
 
         // 6. Save & Verify Loop (Self-Healing)
         int maxRetries = 2;
-        int attempt = 0;
+        String fullQualifiedName = intel.packageName() + "." + testClassName;
 
-        while (attempt <= maxRetries) {
-            codeWriter.save(finalCode, projectRoot, intel.packageName(), testClassName);
-
-            // 7. Verify (Run Test)
-            String fullQualifiedName = intel.packageName() + "." + testClassName;
-            TestRunner.TestExecutionResult result = testRunner.runTest(projectRoot, fullQualifiedName);
-
-            if (result.success()) {
-                log.info("✅ Test Execution Passed for {}", fullQualifiedName);
-                return finalCode;
-            }
+        // 7. Verify (Run Test)
+        TestRunner.TestExecutionResult result = saveAndVerify(finalCode, projectRoot, intel, testClassName);
 
+        for (int attempt = 0; !result.success(); attempt++) {
             log.warn("❌ Test Execution Failed (Attempt {}/{}): {}", attempt + 1, maxRetries + 1, result.errorMessage());
             log.warn("📜 Output:\n{}", result.output());
 
             if (attempt == maxRetries) {
                 log.error("💀 Max retries reached. Giving up on healing.");
-                break;
+                return finalCode;
             }
 
             log.info("🚑 Self-Healing Protocol Initiated...");
-            finalCode = repairTest(finalCode, result.output(), intel);
-            attempt++;
+            GeneratedCode broken = finalCode;
+            String errorLog = result.output();
+            if (candidates > 1) {
+                // Best-of-N: the first repair candidate that passes wins
+                CandidateRace.RaceOutcome outcome = candidateRace.race(
+                        CandidateRace.fanOut(candidates, providers, () -> repairTest(broken, errorLog, intel)),
+                        candidate -> saveAndVerify(candidate, projectRoot, intel, testClassName));
+                if (outcome.code() == null) {
+                    log.error("💀 No repair candidate produced usable code. Giving up on healing.");
+                    return finalCode;
+                }
+                finalCode = outcome.code();
+                result = outcome.result();
+            } else {
+                finalCode = repairTest(broken, errorLog, intel);
+                result = saveAndVerify(finalCode, projectRoot, intel, testClassName);
+            }
         }
 
+        log.info("✅ Test Execution Passed for {}", fullQualifiedName);
         return finalCode;
     }
 
+    private TestRunner.TestExecutionResult saveAndVerify(GeneratedCode code, Path projectRoot, Intelligence intel,
+            String testClassName) {
+        return verificationLocks.withLock(projectRoot, () -> {
+            codeWriter.save(code, projectRoot, intel.packageName(), testClassName);
+            return testRunner.runTest(projectRoot, intel.packageName() + "." + testClassName);
+        });
+    }
+
+    /**
+     * Sends one packed request and stores every returned section.
+     *
+     * @return The entries whose section was missing or unusable.
+     */
+    private List<ScenarioPacker.Entry> generatePack(ScenarioPacker.Pack pack, Agent dataClerk, DomainExpert expert,
+            String context, String[] scenarioBodies) {
+        log.info("🎬 [Packed] Generating {} scenarios for method: {}", pack.size(), pack.targetMethodName());
+        String rawResponse = dataClerk.act(packedScenarioTask(pack, expert), context);
+        Map<String, String> sections = ScenarioPacker.unpack(rawResponse);
+
+        List<ScenarioPacker.Entry> missing = new ArrayList<>();
+        for (ScenarioPacker.Entry entry : pack.entries()) {
+            String section = sections.get(entry.id());
+            String body = section == null ? null : codeSynthesizer.sanitizeAndExtract("<code>" + section + "</code>").body();
+            if (body == null || body.isBlank()) {
+                missing.add(entry);
+            } else {
+                scenarioBodies[entry.index()] = body;
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.warn("⚠️ Packed response missed {}/{} scenario(s). Retrying them individually.", missing.size(), pack.size());
+        }
+        return missing;
+    }
+
+    private String singleScenarioTask(Scenario s, DomainExpert expert) {
+        return String.format("""
+                Generate a high-quality JUnit 5 test method for the following scenario:
+                Target Method: %s
+                Scenario Description: %s
+
+                [STRICT EXPERT DIRECTIVES]
+                1. Mocking: %s
+                2. Execution: %s
+                3. Verification: %s
+
+                Instructions:
+                1. Use the BDD style (given/when/then) within the method.
+                2. If appropriate, wrap the test in a @Nested class named 'Describe_%s'.
+                3. Output ONLY the valid Java code (import statements and the method/nested class).
+                """,
+                s.targetMethodName(),
+                s.description(),
+                expert.getMockingDirective(),
+                expert.getExecutionDirective(),
+                expert.getVerificationDirective(),
+                s.targetMethodName());
+    }
+
+    private String packedScenarioTask(ScenarioPacker.Pack pack, DomainExpert expert) {
+        String scenarioList = pack.entries().stream()
+                .map(e -> "- [" + e.id() + "] " + e.scenario().description())
+                .collect(Collectors.joining("\n"));
+        String exampleIds = pack.entries().stream().map(ScenarioPacker.Entry::id).collect(Collectors.joining(", "));
+
+        return String.format("""
+                Generate one high-quality JUnit 5 test method for EACH of the following scenarios:
+                Target Method: %s
+                Scenarios:
+                %s
+
+                [STRICT EXPERT DIRECTIVES]
+                1. Mocking: %s
+                2. Execution: %s
+                3. Verification: %s
+
+                Instructions:
+                1. Use the BDD style (given/when/then) within each method.
+                2. If appropriate, wrap each test in a @Nested class named 'Describe_%s'.
+                3. Give every test method a distinct name.
+                4. Output one section per scenario id (%s) and nothing else, in exactly this form:
+                   <code id="s1">
+                   ...import statements and the method/nested class for scenario s1...
+                   </code>
+                """,
+                pack.targetMethodName(),
+                scenarioList,
+                expert.getMockingDirective(),
+                expert.getExecutionDirective(),
+                expert.getVerificationDirective(),
+                pack.targetMethodName(),
+                exampleIds);
+    }
+
     private GeneratedCode repairTest(GeneratedCode currentCode, String errorLog, Intelligence intel) {
         Agent repairAgent = orchestrator.requestSpecialist(AgentType.REPAIR_SPECIALIST, intel.type());
         if (repairAgent == null)
@@ -0,0 +1,88 @@
+package com.example.llama.application;
+
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * How a multi-file run was scheduled and how well the up-front cost estimates predicted reality.
+ *
+ * @param msPerUnit           Observed wall-clock milliseconds per estimated cost unit.
+ * @param meanAbsPercentError Mean |estimate - actual| / actual once estimates are scaled by {@code msPerUnit}.
+ * @param rankCorrelation     Spearman correlation between estimated and actual cost, what ordering relies on.
+ */
+public record ScheduleReport(
+        SchedulingPolicy policy,
+        double msPerUnit,
+        double meanAbsPercentError,
+        double rankCorrelation,
+        List<FileEstimate> files) {
+
+    public record FileEstimate(Path sourcePath, double units, long estimatedMs, long actualMs) {
+    }
+
+    public static ScheduleReport of(SchedulingPolicy policy, List<FileCostEstimator.FileCost> costs,
+                                    List<FileGenerationResult> results) {
+        Map<Path, FileGenerationResult> byPath = results.stream()
+                .collect(Collectors.toMap(FileGenerationResult::sourcePath, Function.identity(), (a, b) -> a));
+        List<FileCostEstimator.FileCost> measured = costs.stream()
+                .filter(c -> byPath.containsKey(c.path()))
+                .toList();
+
+        double totalUnits = measured.stream().mapToDouble(FileCostEstimator.FileCost::units).sum();
+        long totalMs = measured.stream().mapToLong(c -> byPath.get(c.path()).durationMs()).sum();
+        double msPerUnit = totalUnits > 0 ? totalMs / totalUnits : 0;
+
+        List<FileEstimate> files = measured.stream()
+                .map(c -> new FileEstimate(c.path(), c.units(), Math.round(c.units() * msPerUnit),
+                        byPath.get(c.path()).durationMs()))
+                .toList();
+        double mape = files.stream()
+                .filter(f -> f.actualMs() > 0)
+                .mapToDouble(f -> Math.abs(f.estimatedMs() - f.actualMs()) / (double) f.actualMs())
+                .average()
+                .orElse(0);
+        double[] estimated = files.stream().mapToDouble(FileEstimate::units).toArray();
+        double[] actual = files.stream().mapToDouble(FileEstimate::actualMs).toArray();
+
+        return new ScheduleReport(policy, msPerUnit, mape, spearman(estimated, actual), files);
+    }
+
+    static double spearman(double[] x, double[] y) {
+        if (x.length < 2) return 0;
+        return pearson(ranks(x), ranks(y));
+    }
+
+    private static double[] ranks(double[] values) {
+        Integer[] order = IntStream.range(0, values.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+        double[] ranks = new double[values.length];
+        for (int i = 0; i < order.length; ) {
+            int j = i;
+            while (j + 1 < order.length && values[order[j + 1]] == values[order[i]]) j++;
+            double averageRank = (i + j) / 2.0;
+            for (int k = i; k <= j; k++) ranks[order[k]] = averageRank;
+            i = j + 1;
+        }
+        return ranks;
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double cov = 0, varX = 0, varY = 0;
+        for (int i = 0; i < x.length; i++) {
+            cov += (x[i] - meanX) * (y[i] - meanY);
+            varX += (x[i] - meanX) * (x[i] - meanX);
+            varY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return varX == 0 || varY == 0 ? 0 : cov / Math.sqrt(varX * varY);
+    }
+}
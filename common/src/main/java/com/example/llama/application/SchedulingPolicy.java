@@ -0,0 +1,53 @@
+package com.example.llama.application;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Order in which a multi-file run hands files to its workers.
+ */
+public enum SchedulingPolicy {
+    /** Biggest files first: keeps a few huge services from setting the makespan at the end. */
+    LONGEST_FIRST,
+    /** Smallest files first: the first results (and failures) show up quickly. */
+    SHORTEST_FIRST,
+    /** Plain path order, as collected. */
+    FILE_ORDER;
+
+    public List<FileCostEstimator.FileCost> order(List<FileCostEstimator.FileCost> costs) {
+        Comparator<FileCostEstimator.FileCost> byPath = Comparator.comparing(FileCostEstimator.FileCost::path);
+        Comparator<FileCostEstimator.FileCost> byUnits = Comparator.comparingDouble(FileCostEstimator.FileCost::units);
+        return switch (this) {
+            case LONGEST_FIRST -> costs.stream().sorted(byUnits.reversed().thenComparing(byPath)).toList();
+            case SHORTEST_FIRST -> costs.stream().sorted(byUnits.thenComparing(byPath)).toList();
+            case FILE_ORDER -> costs.stream().sorted(byPath).toList();
+        };
+    }
+
+    /**
+     * Accepts {@code longest-first}, {@code LONGEST_FIRST}, ... case-insensitively.
+     *
+     * @throws IllegalArgumentException naming the valid values when {@code value} is none of them.
+     */
+    public static SchedulingPolicy parse(String value) {
+        if (value == null || value.isBlank()) {
+            return LONGEST_FIRST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown schedule '%s'. Valid values: %s".formatted(value.trim(), validValues()));
+        }
+    }
+
+    /**
+     * @return The shell spellings of all policies, e.g. {@code longest-first, shortest-first, file-order}.
+     */
+    public static String validValues() {
+        return Arrays.stream(values())
+                .map(policy -> policy.name().toLowerCase().replace('_', '-'))
+                .collect(Collectors.joining(", "));
+    }
+}
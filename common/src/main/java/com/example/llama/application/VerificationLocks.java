@@ -0,0 +1,35 @@
+package com.example.llama.application;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One verification at a time per project root.
+ * Generated tests share the root's Gradle source set: two concurrent {@code gradle test} runs fight over
+ * the build directory, and a class being written by one worker can break compilation for another.
+ * LLM generation stays parallel; only the save + test run of each candidate is serialized.
+ */
+@Component
+public class VerificationLocks {
+
+    private final Map<Path, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code verification} while holding the lock of {@code projectRoot}.
+     * Reentrant, so a verifier nested inside another verification of the same root does not deadlock.
+     */
+    public <T> T withLock(Path projectRoot, Supplier<T> verification) {
+        ReentrantLock lock = locks.computeIfAbsent(projectRoot.toAbsolutePath().normalize(), root -> new ReentrantLock());
+        lock.lock();
+        try {
+            return verification.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.llama.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "llama.pipeline")
+public class PipelineProperties {
+
+    private int candidates = 1; // Repair candidates raced per self-healing round (1 = serial repair)
+    private List<String> candidateProviders = new ArrayList<>(); // Round-robin providers for candidates, empty = current
+    private int scenarioPackTokens = 4000; // Token budget of the scenarios sharing one request (context excluded)
+    private int scenarioPackMax = 8; // Max scenarios per request, 1 = one request per scenario
+    private Duration fileDeadline = Duration.ZERO; // Wall-clock budget per source file, 0 = unbounded
+}
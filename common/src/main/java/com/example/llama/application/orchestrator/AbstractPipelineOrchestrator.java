@@ -1,28 +1,52 @@
 package com.example.llama.application.orchestrator;
 
+import com.example.llama.application.GenerationOptions;
 import com.example.llama.domain.model.AgentType;
 import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.model.GenerationManifest;
 import com.example.llama.domain.model.Intelligence;
 import com.example.llama.domain.model.prompt.LlmClassContext;
 import com.example.llama.domain.model.prompt.LlmCollaborator;
 import com.example.llama.domain.model.prompt.LlmUserRequest;
 import com.example.llama.domain.service.Agent;
 import com.example.llama.domain.service.AgentFactory;
+import com.example.llama.domain.service.CheckpointStore;
 import com.example.llama.domain.service.CodeSynthesizer;
+import com.example.llama.domain.service.ManifestStore;
 import com.example.llama.infrastructure.parser.JavaSourceSplitter;
 import com.example.llama.infrastructure.security.SecurityMasker;
+import com.example.llama.utils.ContextPropagator;
+import com.example.llama.utils.Deadline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Base implementation of the Standard Test Generation Pipeline.
  * Pipeline: Analysis -> Strategy -> Coding -> Assembly.
+ * After analysis the stages form an async graph on virtual threads: dependency analysis and
+ * collaborator fetching run side by side, then setup and every method stage run concurrently.
+ * Method results are merged in declaration order.
+ * Finished phases and methods are checkpointed, so a run can be resumed after quota exhaustion or a crash.
+ * A per-file manifest of method hashes limits re-runs to the methods that actually changed.
+ * Once the file's {@link Deadline} runs out, pending methods are skipped and whatever finished is assembled.
+ * With a partial-result sink, the class is also assembled in memory as blocks arrive and flushed after each graft.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -35,6 +59,8 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
     protected final com.example.llama.infrastructure.analysis.SimpleDependencyAnalyzer dependencyAnalyzer;
     protected final JavaSourceSplitter javaSourceSplitter;
     protected final com.example.llama.domain.service.RepairService repairService;
+    protected final ManifestStore manifestStore;
+    protected final CheckpointStore checkpointStore;
 
     protected abstract AgentType getAnalystRole();
     protected abstract AgentType getStrategistRole();
@@ -42,24 +68,112 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
     protected abstract Intelligence.ComponentType getDomain();
 
     @Override
-    public GeneratedCode orchestrate(String sourceCode, Path sourcePath) {
+    public GeneratedCode orchestrate(String sourceCode, Path sourcePath, GenerationOptions options) {
         log.info("🎼 Orchestrator [{}] conducting: {}", this.getClass().getSimpleName(), sourcePath.getFileName());
+        PipelineStageTimer timer = new PipelineStageTimer();
 
-        // 1. Analysis Phase
-        String maskedSourceCode = securityMasker.mask(sourceCode);
-        Intelligence intelligence = codeAnalyzer.extractIntelligence(maskedSourceCode, sourcePath.toString());
         Path projectRoot = findProjectRoot(sourcePath);
-        String libInfo = analyzeDependencies(projectRoot);
-        List<LlmCollaborator> collaborators = fetchRelatedContext(intelligence, projectRoot);
+        String testClassName = sourcePath.getFileName().toString().replace(".java", "Test");
+        CheckpointSession checkpoint = CheckpointSession.open(checkpointStore, checkpointRoot(projectRoot, sourcePath),
+                sourceCode, sourcePath.getFileName().toString(), options.resume());
+
+        // 1. Analysis Phase (caller thread: everything downstream depends on it)
+        Analysis analysis = timer.time("analysis", () -> {
+            String masked = securityMasker.mask(sourceCode);
+            Intelligence intel = checkpoint.intelligence()
+                    .orElseGet(() -> codeAnalyzer.extractIntelligence(masked, sourcePath.toString()));
+            return new Analysis(masked, intel, planIncrementalRun(intel, masked, sourcePath, projectRoot, testClassName));
+        });
+        Intelligence intelligence = analysis.intelligence();
+        IncrementalPlan plan = analysis.plan();
+
+        if (plan.isUpToDate()) {
+            log.info("⏭️ No method changed since the last run. Keeping existing {}", testClassName);
+            return new GeneratedCode(intelligence.packageName(), testClassName, Set.of(), plan.existingTestSource());
+        }
+        checkpoint.recordIntelligence(intelligence);
+
+        // Partial classes reach disk as soon as a skeleton and the first blocks are known
+        PartialTestAssembly streaming = PartialTestAssembly.open(codeSynthesizer, options.partialResultSink(),
+                intelligence.packageName(), testClassName);
+        Set<String> streamingImports = assemblyImports(intelligence);
+
+        // Methods finished by an interrupted run are not paid for twice
+        Map<String, String> resumedBlocks = new LinkedHashMap<>();
+        plan.targets().stream()
+                .filter(checkpoint.methodBlocks()::containsKey)
+                .forEach(signature -> resumedBlocks.put(signature, checkpoint.methodBlocks().get(signature)));
+        List<String> pendingMethods = plan.targets().stream()
+                .filter(signature -> !resumedBlocks.containsKey(signature))
+                .toList();
+        if (!resumedBlocks.isEmpty()) {
+            log.info("♻️ Reusing {} method block(s) from checkpoint, {} left", resumedBlocks.size(), pendingMethods.size());
+        }
+        resumedBlocks.values().forEach(streaming::graft);
+
+        GeneratedCode result;
+        Map<String, String> regenerated;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Context stages: independent of each other
+            CompletableFuture<String> libInfoStage = CompletableFuture.supplyAsync(ContextPropagator.wrap(
+                    timer.timed("dependencies", () -> analyzeDependencies(projectRoot))), executor);
+            CompletableFuture<List<LlmCollaborator>> collaboratorsStage = CompletableFuture.supplyAsync(ContextPropagator.wrap(
+                    timer.timed("collaborators", () -> fetchRelatedContext(intelligence, projectRoot))), executor);
+            CompletableFuture<PromptContext> contextStage = libInfoStage.thenCombine(collaboratorsStage, PromptContext::new);
+
+            // 2. Setup Phase and 3. Method Phase overlap: method prompts only need the static setup summary
+            CompletableFuture<GeneratedCode> setupStage;
+            Optional<GeneratedCode> resumedSetup = checkpoint.setup();
+            if (plan.canSplice()) {
+                setupStage = CompletableFuture.completedFuture(null);
+                streaming.start(() -> pruneStaleBlocks(plan), Set.of(), false);
+            } else if (resumedSetup.isPresent()) {
+                log.info("♻️ Reusing setup from checkpoint");
+                setupStage = CompletableFuture.completedFuture(resumedSetup.get());
+                streaming.start(resumedSetup.get()::toFullSource, streamingImports, true);
+            } else {
+                setupStage = contextStage.thenApplyAsync(ContextPropagator.wrap(timer.timed("setup",
+                        (PromptContext ctx) -> {
+                            GeneratedCode setup = generateSetup(intelligence, analysis.maskedSourceCode(),
+                                    ctx.collaborators(), ctx.libInfo());
+                            checkpoint.recordSetup(setup);
+                            streaming.start(setup::toFullSource, streamingImports, true);
+                            return setup;
+                        })), executor);
+            }
+            CompletableFuture<Map<String, String>> methodStage = generateMethodTests(intelligence,
+                    analysis.maskedSourceCode(), contextStage, pendingMethods, checkpoint, streaming, timer, executor);
+
+            GeneratedCode setupCode = join(setupStage);
+            Map<String, String> fresh = join(methodStage);
+            Map<String, String> generated = new LinkedHashMap<>();
+            plan.targets().forEach(signature -> generated.put(signature,
+                    resumedBlocks.containsKey(signature) ? resumedBlocks.get(signature) : fresh.get(signature)));
+
+            // 4. Assembly Phase (or splice into the existing test class)
+            result = timer.time("assembly", () -> plan.canSplice()
+                    ? spliceIntoExistingTest(intelligence, plan, generated, testClassName)
+                    : assembleFinalCode(intelligence, setupCode, joinBlocks(plan.blocksWith(generated)), sourcePath));
+            regenerated = generated;
+            checkpoint.finish(!regenerated.containsValue(null)
+                    && (plan.canSplice() || (setupCode != null && setupCode.body() != null && !setupCode.body().isBlank())));
+        }
+
+        saveManifest(plan, regenerated, testClassName);
+        timer.logBreakdown(sourcePath.getFileName());
+        return result;
+    }
 
-        // 2. Setup Phase
-        GeneratedCode setupCode = generateSetup(intelligence, maskedSourceCode, collaborators, libInfo);
+    private Path checkpointRoot(Path projectRoot, Path sourcePath) {
+        if (!projectRoot.equals(sourcePath)) return projectRoot;
+        Path parent = sourcePath.toAbsolutePath().getParent();
+        return parent != null ? parent : Paths.get(".").toAbsolutePath().normalize();
+    }
 
-        // 3. Method Phase
-        String methodTests = generateMethodTests(intelligence, maskedSourceCode, collaborators, libInfo);
+    private record Analysis(String maskedSourceCode, Intelligence intelligence, IncrementalPlan plan) {
+    }
 
-        // 4. Assembly Phase
-        return assembleFinalCode(intelligence, setupCode, methodTests, sourcePath);
+    private record PromptContext(String libInfo, List<LlmCollaborator> collaborators) {
     }
 
     private String analyzeDependencies(Path projectRoot) {
@@ -93,51 +207,246 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
         return sanitizedSetup;
     }
 
-    private String generateMethodTests(Intelligence intelligence, String maskedSourceCode, 
-                                     List<LlmCollaborator> collaborators, String libInfo) {
-        log.info("🔄 [Phase 3] Iterating Methods...");
-        StringBuilder allTestsMethods = new StringBuilder();
+    private CompletableFuture<Map<String, String>> generateMethodTests(Intelligence intelligence, String maskedSourceCode,
+                                                                       CompletableFuture<PromptContext> contextStage,
+                                                                       List<String> methodSignatures,
+                                                                       CheckpointSession checkpoint,
+                                                                       PartialTestAssembly streaming,
+                                                                       PipelineStageTimer timer, ExecutorService executor) {
+        log.info("🔄 [Phase 3] Generating Method Tests concurrently ({} method(s))...", methodSignatures.size());
         Agent methodCoder = agentFactory.create(getCoderRole(), getDomain());
 
-        for (String methodSignature : intelligence.methods()) {
-            if (isExcludedMethod(methodSignature)) continue;
-
+        // Each method stage starts as soon as the prompt context is ready.
+        // The provider concurrency cap applies downstream.
+        Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        for (String methodSignature : methodSignatures) {
             String methodName = extractNameFromSignature(methodSignature);
-            log.info("   -> Generating tests for method: [{}]", methodName);
+            futures.put(methodSignature, contextStage.thenApplyAsync(ContextPropagator.wrap(timer.timed("method:" + methodName,
+                    (PromptContext ctx) -> {
+                        if (Deadline.current().isExpired()) {
+                            // Left out of the assembled class and of the checkpoint, so --resume picks it up
+                            log.warn("⏰ Deadline exceeded. Skipping method: [{}]", methodName);
+                            return null;
+                        }
+                        String block = generateMethodSnippet(methodCoder, new MethodTask(methodSignature, methodName,
+                                createMethodRequest(intelligence, maskedSourceCode, ctx.collaborators(), ctx.libInfo(), methodName)));
+                        checkpoint.recordMethod(methodSignature, block);
+                        streaming.graft(block);
+                        return block;
+                    })), executor));
+        }
 
-            JavaSourceSplitter.SplitResult methodSplit = javaSourceSplitter.split(maskedSourceCode, methodName);
-            
-            List<LlmCollaborator> fullContext = new ArrayList<>(collaborators);
-            fullContext.add(createSetupSummary(intelligence));
-
-            LlmClassContext methodClassContext = LlmClassContext.builder()
-                    .packageName(methodSplit.packageName())
-                    .imports(methodSplit.imports())
-                    .references(fullContext)
-                    .classStructure(methodSplit.classStructure())
-                    .targetMethodSource(methodSplit.targetMethodSource())
-                    .build();
-
-            LlmUserRequest methodReq = LlmUserRequest.builder()
-                    .task("Generate @Test methods ONLY for the target method: " + methodName
-                            + ". Use @Nested Describe_" + methodName
-                            + " if appropriate. Do NOT repeat the class setup.")
-                    .libraryInfo(libInfo)
-                    .classContext(methodClassContext)
-                    .build();
-
-            String rawTestMethods = methodCoder.act(methodReq);
-            GeneratedCode methodSnippet = codeSynthesizer.sanitizeAndExtract(rawTestMethods);
-            
-            if (rawTestMethods.contains("<status>FAILED</status>")) {
-                log.warn("Method generation FAILED for [{}]. Skipping.", methodName);
-                continue;
+        // Collect in declaration order so the assembled class is deterministic
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Map<String, String> blocks = new LinkedHashMap<>();
+                    futures.forEach((signature, future) -> blocks.put(signature, future.join()));
+                    return blocks;
+                });
+    }
+
+    private String joinBlocks(Map<String, String> blocks) {
+        StringBuilder allTestsMethods = new StringBuilder();
+        for (String block : blocks.values()) {
+            if (block != null) {
+                allTestsMethods.append("\n").append(block).append("\n");
             }
-            allTestsMethods.append("\n").append(methodSnippet.body()).append("\n");
         }
         return allTestsMethods.toString();
     }
 
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private LlmUserRequest createMethodRequest(Intelligence intelligence, String maskedSourceCode,
+                                               List<LlmCollaborator> collaborators, String libInfo, String methodName) {
+        JavaSourceSplitter.SplitResult methodSplit = javaSourceSplitter.split(maskedSourceCode, methodName);
+
+        List<LlmCollaborator> fullContext = new ArrayList<>(collaborators);
+        fullContext.add(createSetupSummary(intelligence));
+
+        LlmClassContext methodClassContext = LlmClassContext.builder()
+                .packageName(methodSplit.packageName())
+                .imports(methodSplit.imports())
+                .references(fullContext)
+                .classStructure(methodSplit.classStructure())
+                .targetMethodSource(methodSplit.targetMethodSource())
+                .build();
+
+        return LlmUserRequest.builder()
+                .task("Generate @Test methods ONLY for the target method: " + methodName
+                        + ". Use @Nested Describe_" + methodName
+                        + " if appropriate. Do NOT repeat the class setup.")
+                .libraryInfo(libInfo)
+                .classContext(methodClassContext)
+                .build();
+    }
+
+    private String generateMethodSnippet(Agent methodCoder, MethodTask task) {
+        log.info("   -> Generating tests for method: [{}]", task.methodName());
+        String rawTestMethods = methodCoder.act(task.request());
+
+        if (rawTestMethods.contains("<status>FAILED</status>")) {
+            log.warn("Method generation FAILED for [{}]. Skipping.", task.methodName());
+            return null;
+        }
+        return codeSynthesizer.sanitizeAndExtract(rawTestMethods).body();
+    }
+
+    private record MethodTask(String signature, String methodName, LlmUserRequest request) {
+    }
+
+    /**
+     * Decides which methods need a fresh LLM round trip by comparing AST hashes with the last manifest.
+     * Overloads share one Describe_ block, so a change to any overload regenerates all of them.
+     */
+    private IncrementalPlan planIncrementalRun(Intelligence intelligence, String maskedSourceCode, Path sourcePath,
+                                               Path projectRoot, String testClassName) {
+        List<String> signatures = intelligence.methods().stream()
+                .filter(signature -> !isExcludedMethod(signature))
+                .toList();
+
+        if (projectRoot.equals(sourcePath)) {
+            // No build file found: nowhere to keep a manifest
+            return IncrementalPlan.full(null, null, signatures, Map.of());
+        }
+
+        String sourceKey = projectRoot.relativize(sourcePath).toString().replace('\\', '/');
+        Map<String, String> fingerprints = fingerprint(maskedSourceCode);
+        Optional<GenerationManifest> previous = manifestStore.load(projectRoot, sourceKey);
+        if (previous.isEmpty() || fingerprints.isEmpty()) {
+            return IncrementalPlan.full(projectRoot, sourceKey, signatures, fingerprints);
+        }
+
+        Map<String, GenerationManifest.MethodEntry> entries = previous.get().methods();
+        Set<String> staleNames = new HashSet<>();
+        for (String signature : signatures) {
+            GenerationManifest.MethodEntry entry = entries.get(signature);
+            String hash = fingerprints.get(signature);
+            if (entry == null || entry.block() == null || hash == null || !hash.equals(entry.hash())) {
+                staleNames.add(extractNameFromSignature(signature));
+            }
+        }
+        entries.keySet().stream()
+                .filter(signature -> !signatures.contains(signature))
+                .map(this::extractNameFromSignature)
+                .forEach(staleNames::add);
+
+        List<String> targets = new ArrayList<>();
+        Map<String, String> reused = new LinkedHashMap<>();
+        for (String signature : signatures) {
+            if (staleNames.contains(extractNameFromSignature(signature))) {
+                targets.add(signature);
+            } else {
+                reused.put(signature, entries.get(signature).block());
+            }
+        }
+
+        String existingTest = readExistingTest(projectRoot, intelligence.packageName(), testClassName);
+        log.info("🧮 Incremental plan: {} changed, {} unchanged, {} stale block(s)",
+                targets.size(), reused.size(), staleNames.size());
+        return new IncrementalPlan(projectRoot, sourceKey, signatures, fingerprints, targets, reused,
+                staleNames, existingTest);
+    }
+
+    private Map<String, String> fingerprint(String maskedSourceCode) {
+        try {
+            return codeAnalyzer.fingerprintMethods(maskedSourceCode);
+        } catch (Exception e) {
+            log.warn("⚠️ Method fingerprinting failed, regenerating everything: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private String readExistingTest(Path projectRoot, String packageName, String testClassName) {
+        Path testFile = projectRoot.resolve("src/test/java")
+                .resolve(packageName.replace(".", "/"))
+                .resolve(testClassName + ".java");
+        if (!Files.exists(testFile)) {
+            return null;
+        }
+        try {
+            String existing = Files.readString(testFile);
+            if (codeSynthesizer.validateSyntax(existing)) {
+                return existing;
+            }
+            log.warn("⚠️ Existing test {} does not parse. Rebuilding it from the manifest.", testFile.getFileName());
+        } catch (IOException e) {
+            log.warn("Failed to read existing test: {}", testFile);
+        }
+        return null;
+    }
+
+    private GeneratedCode spliceIntoExistingTest(Intelligence intelligence, IncrementalPlan plan,
+                                                 Map<String, String> regenerated, String testClassName) {
+        log.info("🧩 [Phase 4] Splicing {} regenerated block(s) into existing {}...", regenerated.size(), testClassName);
+
+        String pruned = pruneStaleBlocks(plan);
+
+        GeneratedCode[] snippets = regenerated.values().stream()
+                .filter(Objects::nonNull)
+                .map(block -> new GeneratedCode(Set.of(), block))
+                .toArray(GeneratedCode[]::new);
+        String merged = codeSynthesizer.mergeTestClass(pruned, snippets);
+        return new GeneratedCode(intelligence.packageName(), testClassName, Set.of(), merged);
+    }
+
+    private String pruneStaleBlocks(IncrementalPlan plan) {
+        List<String> staleBlocks = plan.staleNames().stream().map(name -> "Describe_" + name).toList();
+        return codeSynthesizer.removeTestBlocks(plan.existingTestSource(), staleBlocks);
+    }
+
+    private void saveManifest(IncrementalPlan plan, Map<String, String> regenerated, String testClassName) {
+        if (plan.projectRoot() == null || plan.fingerprints().isEmpty()) return;
+
+        Map<String, GenerationManifest.MethodEntry> entries = new LinkedHashMap<>();
+        plan.blocksWith(regenerated).forEach((signature, block) ->
+                entries.put(signature, new GenerationManifest.MethodEntry(plan.fingerprints().get(signature), block)));
+        manifestStore.save(plan.projectRoot(), new GenerationManifest(plan.sourceKey(), testClassName, entries));
+    }
+
+    /**
+     * @param targets            Method signatures that need generation in this run.
+     * @param reusedBlocks       Unchanged methods and their blocks from the last run.
+     * @param staleNames         Method names whose Describe_ blocks are outdated or orphaned.
+     * @param existingTestSource Current test class, or null when it must be rebuilt.
+     */
+    private record IncrementalPlan(Path projectRoot, String sourceKey, List<String> signatures,
+                                   Map<String, String> fingerprints, List<String> targets,
+                                   Map<String, String> reusedBlocks, Set<String> staleNames,
+                                   String existingTestSource) {
+
+        static IncrementalPlan full(Path projectRoot, String sourceKey, List<String> signatures,
+                                    Map<String, String> fingerprints) {
+            return new IncrementalPlan(projectRoot, sourceKey, signatures, fingerprints, signatures,
+                    Map.of(), Set.of(), null);
+        }
+
+        boolean canSplice() {
+            return existingTestSource != null;
+        }
+
+        boolean isUpToDate() {
+            return canSplice() && targets.isEmpty() && staleNames.isEmpty();
+        }
+
+        /** All current methods in declaration order, with reused or freshly generated blocks. */
+        Map<String, String> blocksWith(Map<String, String> regenerated) {
+            Map<String, String> blocks = new LinkedHashMap<>();
+            for (String signature : signatures) {
+                blocks.put(signature, regenerated.containsKey(signature)
+                        ? regenerated.get(signature) : reusedBlocks.get(signature));
+            }
+            return blocks;
+        }
+    }
+
     private boolean isExcludedMethod(String signature) {
         return signature.contains("toString()") || signature.contains("hashCode()") || signature.contains("equals(");
     }
@@ -157,8 +466,7 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
         log.info("🧩 [Phase 4] Assembling Code...");
         
         Set<String> newImports = new HashSet<>(setupCode.imports());
-        newImports.add(intelligence.packageName() + "." + intelligence.className());
-        addStandardTestImports(newImports);
+        newImports.addAll(assemblyImports(intelligence));
 
         String finalCode = mergeSetupAndTests(setupCode.toFullSource(), testMethods, newImports);
 
@@ -166,6 +474,13 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
         return new GeneratedCode(intelligence.packageName(), className, newImports, finalCode);
     }
 
+    private Set<String> assemblyImports(Intelligence intelligence) {
+        Set<String> imports = new HashSet<>();
+        imports.add(intelligence.packageName() + "." + intelligence.className());
+        addStandardTestImports(imports);
+        return imports;
+    }
+
     private void addStandardTestImports(Set<String> imports) {
         imports.add("org.junit.jupiter.api.Test");
         imports.add("org.junit.jupiter.api.DisplayName");
@@ -197,7 +512,7 @@ public abstract class AbstractPipelineOrchestrator implements Orchestrator {
 
     private String mergeSetupAndTests(String setupCode, String testMethods, Set<String> extraImports) {
         try {
-            com.github.javaparser.ast.CompilationUnit setupCu = com.github.javaparser.StaticJavaParser.parse(setupCode);
+            com.github.javaparser.ast.CompilationUnit setupCu = com.example.llama.infrastructure.parser.JavaParsers.parse(setupCode);
             
             com.github.javaparser.ast.body.ClassOrInterfaceDeclaration testClass = setupCu.getTypes().stream()
                     .filter(t -> t instanceof com.github.javaparser.ast.body.ClassOrInterfaceDeclaration)
@@ -0,0 +1,88 @@
+package com.example.llama.application.orchestrator;
+
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.model.PipelineCheckpoint;
+import com.example.llama.domain.service.CheckpointStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records the progress of one orchestrator run. Every finished phase and method is written
+ * through immediately, so an abort at any point loses at most the in-flight LLM calls.
+ */
+@Slf4j
+class CheckpointSession {
+
+    private final CheckpointStore store;
+    private final Path root;
+    private PipelineCheckpoint current;
+
+    private CheckpointSession(CheckpointStore store, Path root, PipelineCheckpoint current) {
+        this.store = store;
+        this.root = root;
+        this.current = current;
+    }
+
+    /**
+     * Opens a session. With {@code resume} the previous checkpoint of the same source and
+     * provider/model is continued, otherwise any stale checkpoint is overwritten.
+     */
+    static CheckpointSession open(CheckpointStore store, Path root, String sourceCode, String sourceFile, boolean resume) {
+        String key = store.keyFor(sourceCode);
+        Optional<PipelineCheckpoint> previous = resume ? store.load(root, key) : Optional.empty();
+        previous.ifPresentOrElse(
+                cp -> log.info("♻️ Resuming from checkpoint: analysis={}, setup={}, {} method(s) done",
+                        cp.intelligence() != null, cp.setup() != null, cp.methodBlocks().size()),
+                () -> {
+                    if (resume) log.info("♻️ No checkpoint found for {}. Starting from scratch.", sourceFile);
+                });
+        return new CheckpointSession(store, root, previous.orElseGet(() -> PipelineCheckpoint.start(key, sourceFile)));
+    }
+
+    synchronized Optional<Intelligence> intelligence() {
+        return Optional.ofNullable(current.intelligence());
+    }
+
+    synchronized Optional<GeneratedCode> setup() {
+        return Optional.ofNullable(current.setup()).map(PipelineCheckpoint.SetupSnapshot::toGeneratedCode);
+    }
+
+    synchronized Map<String, String> methodBlocks() {
+        return current.methodBlocks();
+    }
+
+    synchronized void recordIntelligence(Intelligence intelligence) {
+        update(current.withIntelligence(intelligence));
+    }
+
+    synchronized void recordSetup(GeneratedCode setup) {
+        if (setup == null || setup.body() == null || setup.body().isBlank()) return;
+        update(current.withSetup(PipelineCheckpoint.SetupSnapshot.of(setup)));
+    }
+
+    synchronized void recordMethod(String signature, String block) {
+        if (block == null) return; // failed methods stay open for the next --resume
+        update(current.withMethod(signature, block));
+    }
+
+    /**
+     * Drops the checkpoint once every phase produced output. Runs with failed methods keep it,
+     * so {@code --resume} retries only what is missing.
+     */
+    synchronized void finish(boolean complete) {
+        if (complete) {
+            store.delete(root, current.key());
+        } else {
+            log.warn("💾 Checkpoint kept for {} (incomplete run). Re-run with --resume to continue.", current.sourceFile());
+        }
+    }
+
+    private void update(PipelineCheckpoint next) {
+        current = next;
+        store.save(root, current);
+    }
+}
@@ -1,10 +1,18 @@
 package com.example.llama.application.orchestrator;
 
+import com.example.llama.application.GenerationOptions;
 import com.example.llama.domain.model.GeneratedCode;
 import java.nio.file.Path;
 
 public interface Orchestrator {
-    GeneratedCode orchestrate(String sourceCode, Path sourcePath);
+    default GeneratedCode orchestrate(String sourceCode, Path sourcePath) {
+        return orchestrate(sourceCode, sourcePath, GenerationOptions.defaults());
+    }
+
+    /**
+     * Generates the test class, honoring per-run options such as {@code resume}.
+     */
+    GeneratedCode orchestrate(String sourceCode, Path sourcePath, GenerationOptions options);
 
     /**
      * Attempts to repair broken code using the error log.
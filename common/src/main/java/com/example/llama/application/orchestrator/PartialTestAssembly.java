@@ -0,0 +1,79 @@
+package com.example.llama.application.orchestrator;
+
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.service.CodeSynthesizer;
+import com.example.llama.domain.service.TestClassAssembly;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Streams the test class of one orchestrator run to its sink while methods are still generating.
+ * Every installed skeleton and grafted block is flushed right away. A failed flush is logged and
+ * never fails the run: the final assembly is written by the caller anyway.
+ */
+@Slf4j
+class PartialTestAssembly {
+
+    private static final PartialTestAssembly DISABLED = new PartialTestAssembly(null, null, null, null);
+
+    private final TestClassAssembly assembly;
+    private final Consumer<GeneratedCode> sink;
+    private final String packageName;
+    private final String className;
+    private int flushes;
+
+    private PartialTestAssembly(TestClassAssembly assembly, Consumer<GeneratedCode> sink,
+                                String packageName, String className) {
+        this.assembly = assembly;
+        this.sink = sink;
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    /**
+     * @param sink Receives every partial class, null disables streaming.
+     */
+    static PartialTestAssembly open(CodeSynthesizer synthesizer, Consumer<GeneratedCode> sink,
+                                  String packageName, String className) {
+        if (sink == null) return DISABLED;
+        TestClassAssembly assembly = synthesizer.openAssembly();
+        return assembly != null ? new PartialTestAssembly(assembly, sink, packageName, className) : DISABLED;
+    }
+
+    /**
+     * @param skeleton Only evaluated when streaming is enabled.
+     */
+    synchronized void start(Supplier<String> skeleton, Collection<String> extraImports, boolean dropPlaceholders) {
+        if (assembly == null) return;
+        try {
+            flush(assembly.start(skeleton.get(), extraImports, dropPlaceholders));
+        } catch (Exception e) {
+            log.warn("⚠️ Streaming assembly of {} could not start: {}", className, e.getMessage());
+        }
+    }
+
+    synchronized void graft(String block) {
+        if (assembly == null) return;
+        flush(assembly.graft(block));
+    }
+
+    synchronized int flushes() {
+        return flushes;
+    }
+
+    private void flush(Optional<String> source) {
+        source.ifPresent(s -> {
+            try {
+                sink.accept(new GeneratedCode(packageName, className, Set.of(), s));
+                flushes++;
+            } catch (Exception e) {
+                log.warn("⚠️ Partial flush of {} failed: {}", className, e.getMessage());
+            }
+        });
+    }
+}
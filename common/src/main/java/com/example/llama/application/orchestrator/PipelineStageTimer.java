@@ -0,0 +1,71 @@
+package com.example.llama.application.orchestrator;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock timing of pipeline stages for one file.
+ * Stages overlap, so the breakdown shows each stage's window on a shared time axis
+ * next to the end-to-end time.
+ */
+@Slf4j
+class PipelineStageTimer {
+
+    private final long originNanos = System.nanoTime();
+    private final List<StageTiming> timings = new ArrayList<>();
+
+    private record StageTiming(String stage, long startMs, long endMs) {
+        long durationMs() {
+            return endMs - startMs;
+        }
+    }
+
+    <T> T time(String stage, Supplier<T> body) {
+        long start = elapsedMs();
+        try {
+            return body.get();
+        } finally {
+            record(stage, start);
+        }
+    }
+
+    <T> Supplier<T> timed(String stage, Supplier<T> body) {
+        return () -> time(stage, body);
+    }
+
+    <T, R> Function<T, R> timed(String stage, Function<T, R> body) {
+        return input -> time(stage, () -> body.apply(input));
+    }
+
+    void logBreakdown(Object subject) {
+        List<StageTiming> snapshot;
+        synchronized (timings) {
+            snapshot = new ArrayList<>(timings);
+        }
+        snapshot.sort(Comparator.comparingLong(StageTiming::startMs));
+
+        long wallMs = elapsedMs();
+        long stageSumMs = snapshot.stream().mapToLong(StageTiming::durationMs).sum();
+        StringBuilder sb = new StringBuilder();
+        for (StageTiming t : snapshot) {
+            sb.append(String.format("%n   %-28s %7d → %7d ms (%d ms)", t.stage(), t.startMs(), t.endMs(), t.durationMs()));
+        }
+        log.info("⏱️ Stage breakdown for {}: wall {} ms, stage sum {} ms{}", subject, wallMs, stageSumMs, sb);
+    }
+
+    private void record(String stage, long startMs) {
+        StageTiming timing = new StageTiming(stage, startMs, elapsedMs());
+        synchronized (timings) {
+            timings.add(timing);
+        }
+    }
+
+    private long elapsedMs() {
+        return (System.nanoTime() - originNanos) / 1_000_000;
+    }
+}
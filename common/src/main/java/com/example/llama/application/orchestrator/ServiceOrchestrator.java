@@ -15,8 +15,11 @@ public class ServiceOrchestrator extends AbstractPipelineOrchestrator {
             com.example.llama.infrastructure.security.SecurityMasker securityMasker,
             com.example.llama.infrastructure.analysis.SimpleDependencyAnalyzer dependencyAnalyzer,
             JavaSourceSplitter javaSourceSplitter,
-            com.example.llama.domain.service.RepairService repairService) {
-        super(agentFactory, codeSynthesizer, codeAnalyzer, securityMasker, dependencyAnalyzer, javaSourceSplitter, repairService);
+            com.example.llama.domain.service.RepairService repairService,
+            com.example.llama.domain.service.ManifestStore manifestStore,
+            com.example.llama.domain.service.CheckpointStore checkpointStore) {
+        super(agentFactory, codeSynthesizer, codeAnalyzer, securityMasker, dependencyAnalyzer, javaSourceSplitter, repairService,
+                manifestStore, checkpointStore);
     }
 
     @Override
@@ -55,5 +55,28 @@ public enum AgentType {
     ANNOTATION_SCOUT,
     STRUCTURE_ANALYST,
     JUDGE,
-    REPAIR_SPECIALIST
+    REPAIR_SPECIALIST;
+
+    /**
+     * How heavy a role's LLM work is, so routing can keep big models for the roles that need them.
+     */
+    public enum Workload {
+        CLASSIFY, // short verdicts and selections
+        REVIEW, // checks and clean-up of existing output
+        PLAN, // analysis and scenario design
+        GENERATE // writes test code
+    }
+
+    public Workload workload() {
+        return switch (this) {
+            case SCOUT, ANNOTATION_SCOUT, KNOWLEDGE_SELECTOR, STRUCTURE_ANALYST, JUDGE, ARBITRATOR -> Workload.CLASSIFY;
+            case DATA_MANAGER, MOCK_MANAGER, EXEC_MANAGER, VERIFY_MANAGER, ASSEMBLY_MANAGER,
+                 IMPORT_CLERK, FRAGMENT_PURIFIER, FORMAT_CLERK, DIRECTOR -> Workload.REVIEW;
+            case ANALYST, STRATEGIST, QUERY_SPECIALIST, KNOWLEDGE_DISTILLER,
+                 LOGIC_ARCHITECT, BOUNDARY_ARCHITECT, ENUM_ARCHITECT, CONCURRENCY_ARCHITECT, INTEGRITY_ARCHITECT,
+                 MASTER_ARCHITECT, INTEGRATION_ARCHITECT, SERVICE_ANALYST, SERVICE_STRATEGIST,
+                 CONTROLLER_ANALYST, CONTROLLER_STRATEGIST, REPOSITORY_ANALYST, REPOSITORY_STRATEGIST -> Workload.PLAN;
+            default -> Workload.GENERATE;
+        };
+    }
 }
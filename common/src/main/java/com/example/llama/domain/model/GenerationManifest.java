@@ -0,0 +1,27 @@
+package com.example.llama.domain.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Record of the last generation run for one source file.
+ * Maps each public method signature to the normalized AST hash it was generated from
+ * and the test block produced for it, enabling method-level incremental regeneration.
+ */
+public record GenerationManifest(
+        String sourceFile,
+        String testClassName,
+        Map<String, MethodEntry> methods) {
+
+    public GenerationManifest {
+        methods = methods != null ? Collections.unmodifiableMap(new LinkedHashMap<>(methods)) : Collections.emptyMap();
+    }
+
+    /**
+     * @param hash  Normalized AST hash of the method (signature + body, comments stripped).
+     * @param block Generated test block (e.g. the Describe_method class), null if generation failed.
+     */
+    public record MethodEntry(String hash, String block) {
+    }
+}
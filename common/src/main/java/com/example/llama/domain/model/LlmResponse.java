@@ -6,6 +6,9 @@ import java.util.Map;
 /**
  * Value Object representing the response from an LLM, 
  * including generated content and performance metrics.
+ *
+ * @param savedTokens Output tokens cut off by a {@link StopCondition}: the received tail past the stop
+ *                    point (a lower bound, the output a cancelled stream would still have produced is unknown).
  */
 @Builder
 public record LlmResponse(
@@ -14,11 +17,33 @@ public record LlmResponse(
     long totalTimeMs,
     int inputTokens,
     int outputTokens,
+    int savedTokens,
     Map<String, Object> metadata
 ) {
+    /**
+     * A response the client produced itself because the call failed (not a FAILED answer of the model);
+     * the cause is kept in the {@code error} metadata entry.
+     */
     public static LlmResponse failed(String error) {
         return LlmResponse.builder()
                 .content("<response><status>FAILED</status><code>" + error + "</code></response>")
+                .metadata(Map.of("error", String.valueOf(error)))
                 .build();
     }
+
+    public boolean isClientFailure() {
+        return metadata != null && metadata.containsKey("error");
+    }
+
+    /**
+     * The same response with its content cut to {@code length} characters, counting the cut tail as saved.
+     */
+    public LlmResponse truncatedTo(int length) {
+        if (content == null || length >= content.length()) {
+            return this;
+        }
+        int cutTokens = (content.length() - length) / 4;
+        return new LlmResponse(content.substring(0, length), ttftMs, totalTimeMs, inputTokens,
+                Math.max(0, outputTokens - cutTokens), savedTokens + cutTokens, metadata);
+    }
 }
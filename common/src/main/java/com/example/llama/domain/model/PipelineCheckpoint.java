@@ -0,0 +1,63 @@
+package com.example.llama.domain.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Progress of one orchestrator run, persisted after every finished phase and method so that
+ * an interrupted run (quota exhaustion, crash) resumes without paying for the same LLM responses again.
+ *
+ * @param key          Source hash combined with provider/model, see {@code CheckpointStore#keyFor}.
+ * @param intelligence Analysis result, null until the analysis phase finished.
+ * @param setup        Generated test class skeleton, null until the setup phase finished.
+ * @param methodBlocks Finished method blocks keyed by method signature.
+ */
+public record PipelineCheckpoint(
+        String key,
+        String sourceFile,
+        Intelligence intelligence,
+        SetupSnapshot setup,
+        Map<String, String> methodBlocks,
+        Instant updatedAt) {
+
+    public PipelineCheckpoint {
+        methodBlocks = methodBlocks != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(methodBlocks))
+                : Collections.emptyMap();
+    }
+
+    public static PipelineCheckpoint start(String key, String sourceFile) {
+        return new PipelineCheckpoint(key, sourceFile, null, null, Map.of(), Instant.now());
+    }
+
+    public PipelineCheckpoint withIntelligence(Intelligence intelligence) {
+        return new PipelineCheckpoint(key, sourceFile, intelligence, setup, methodBlocks, Instant.now());
+    }
+
+    public PipelineCheckpoint withSetup(SetupSnapshot setup) {
+        return new PipelineCheckpoint(key, sourceFile, intelligence, setup, methodBlocks, Instant.now());
+    }
+
+    public PipelineCheckpoint withMethod(String signature, String block) {
+        Map<String, String> blocks = new LinkedHashMap<>(methodBlocks);
+        blocks.put(signature, block);
+        return new PipelineCheckpoint(key, sourceFile, intelligence, setup, blocks, Instant.now());
+    }
+
+    /**
+     * Serializable form of the setup {@link GeneratedCode}.
+     */
+    public record SetupSnapshot(String packageName, String className, Set<String> imports, String source) {
+
+        public static SetupSnapshot of(GeneratedCode code) {
+            return new SetupSnapshot(code.packageName(), code.className(), code.imports(), code.toFullSource());
+        }
+
+        public GeneratedCode toGeneratedCode() {
+            return new GeneratedCode(packageName, className, imports, source);
+        }
+    }
+}
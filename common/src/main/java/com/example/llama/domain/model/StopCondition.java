@@ -0,0 +1,74 @@
+package com.example.llama.domain.model;
+
+/**
+ * Decides while a response streams in whether the rest is still worth receiving.
+ * Agents expect {@code <response><status/><thought/><code/></response>}: anything a model writes
+ * after the closing tag is paid for and thrown away.
+ */
+@FunctionalInterface
+public interface StopCondition {
+
+    /**
+     * @param text    Everything received so far.
+     * @param newFrom Where the latest chunk starts in {@code text}; earlier text was already checked.
+     * @return How many characters of {@code text} to keep when generation should stop now, or -1 to continue.
+     */
+    int stopAt(CharSequence text, int newFrom);
+
+    static StopCondition never() {
+        return (text, newFrom) -> -1;
+    }
+
+    /**
+     * Stops right after the first {@code </tag>}, dropping whatever follows it.
+     */
+    static StopCondition afterClosingTag(String tag) {
+        String marker = "</" + tag + ">";
+        return (text, newFrom) -> {
+            int index = indexOf(text, marker, newFrom);
+            return index < 0 ? -1 : index + marker.length();
+        };
+    }
+
+    /**
+     * Stops once the model reports {@code <status>FAILED</status>}: the caller discards failed answers,
+     * so the rest of the stream is not needed. Keeps what was received (the status stays visible).
+     */
+    static StopCondition onFailedStatus() {
+        String marker = "<status>FAILED</status>";
+        return (text, newFrom) -> indexOf(text, marker, newFrom) < 0 ? -1 : text.length();
+    }
+
+    /**
+     * The bureaucratic protocol's default: a complete {@code <response>} or a reported failure.
+     */
+    static StopCondition responseComplete() {
+        return afterClosingTag("response").or(onFailedStatus());
+    }
+
+    default StopCondition or(StopCondition other) {
+        return (text, newFrom) -> {
+            int mine = stopAt(text, newFrom);
+            int theirs = other.stopAt(text, newFrom);
+            if (mine < 0) return theirs;
+            if (theirs < 0) return mine;
+            return Math.min(mine, theirs);
+        };
+    }
+
+    /**
+     * Searches only where a match can end in the new chunk, so checking every chunk stays linear.
+     */
+    private static int indexOf(CharSequence text, String marker, int newFrom) {
+        int start = Math.max(0, newFrom - marker.length() + 1);
+        int last = text.length() - marker.length();
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < marker.length(); j++) {
+                if (text.charAt(i + j) != marker.charAt(j)) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
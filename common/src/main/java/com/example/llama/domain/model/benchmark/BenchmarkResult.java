@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 public class BenchmarkResult {
     private final String provider;
     private final String modelName;
+    private final com.example.llama.domain.model.Intelligence.ComponentType componentType; // Scenario type, null for aggregates
     private final LocalDateTime timestamp;
 
     // Success Gradation
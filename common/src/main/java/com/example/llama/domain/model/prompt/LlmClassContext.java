@@ -11,7 +11,7 @@ import java.util.stream.Collectors;
  * Represents the target class context being tested.
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class LlmClassContext {
     @NonNull
     @Builder.Default
@@ -34,6 +34,13 @@ public class LlmClassContext {
     private final String targetMethodSource = "";
 
     public String toXml() {
+        return sharedXml() + targetXml();
+    }
+
+    /**
+     * The part every method of the class shares: package, imports, class skeleton, then references.
+     */
+    public String sharedXml() {
         String referencesXml = references.stream()
                 .map(LlmCollaborator::toXml)
                 .collect(Collectors.joining("\n"))
@@ -46,20 +53,25 @@ public class LlmClassContext {
                     <imports><![CDATA[
                 %s
                     ]]></imports>
-                    <references>
-                %s
-                    </references>
                     <class_structure><![CDATA[
                 %s
                     ]]></class_structure>
-                    <target_method><![CDATA[
+                    <references>
                 %s
-                    ]]></target_method>
+                    </references>
                 """,
                 packageName.indent(8).trim(),
                 imports.indent(8).trim(),
-                referencesXml,
                 classStructure.indent(8).trim(),
+                referencesXml);
+    }
+
+    public String targetXml() {
+        return String.format("""
+                    <target_method><![CDATA[
+                %s
+                    ]]></target_method>
+                """,
                 targetMethodSource.indent(8).trim());
     }
 }
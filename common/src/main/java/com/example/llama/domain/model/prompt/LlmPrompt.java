@@ -1,5 +1,7 @@
 package com.example.llama.domain.model.prompt;
 
+import com.example.llama.domain.model.AgentType;
+import com.example.llama.domain.model.Intelligence;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
@@ -10,7 +12,7 @@ import lombok.NonNull;
  * <prompt>.
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class LlmPrompt {
 
     @NonNull
@@ -19,16 +21,35 @@ public class LlmPrompt {
     @NonNull
     private final LlmUserRequest userRequest;
 
+    /** Role and component the prompt is sent for: routing hints only, never part of the XML. */
+    private final AgentType agentType;
+    private final Intelligence.ComponentType componentType;
+
+    /**
+     * Rendered as a byte-stable prefix (system directive, class skeleton, references, library info)
+     * followed by the short per-call suffix (target method, task), so consecutive calls for the same
+     * class share the longest possible prompt prefix and providers can reuse its KV cache.
+     */
     public String toXml() {
+        return stablePrefix() + suffix();
+    }
+
+    public String stablePrefix() {
         return String.format("""
                 <prompt>
                 %s
 
+                %s""",
+                systemDirective.toXml(),
+                userRequest.prefixXml());
+    }
+
+    public String suffix() {
+        return String.format("""
                 %s
                 </prompt>
                 """,
-                systemDirective.toXml(),
-                userRequest.toXml());
+                userRequest.suffixXml());
     }
 
     @Override
@@ -10,7 +10,7 @@ import lombok.NonNull;
  * (CS), and Target Method (TM).
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class LlmUserRequest {
 
     @NonNull
@@ -24,20 +24,64 @@ public class LlmUserRequest {
     private final LlmClassContext classContext;
 
     public String toXml() {
+        return prefixXml() + suffixXml();
+    }
+
+    /**
+     * Opening half of {@code <request>}: the class context and library info, identical for every method
+     * of a class. Not well-formed on its own.
+     */
+    public String prefixXml() {
         return String.format("""
                 <request>
-                    <task>
+                %s    <lib>
+                %s
+                    </lib>
+                """,
+                classContext.sharedXml(),
+                libraryInfo.indent(8).trim());
+    }
+
+    /**
+     * Closing half of {@code <request>}: the target method and the task.
+     */
+    public String suffixXml() {
+        return String.format("""
+                %s    <task>
                 %s
                     </task>
-                    <lib>
+                </request>""",
+                classContext.targetXml(),
+                task.indent(8).trim());
+    }
+
+    /**
+     * The class context and library info as one well-formed {@code <context>} block, identical for every
+     * method of a class.
+     */
+    public String contextXml() {
+        return String.format("""
+                <context>
+                %s    <lib>
                 %s
                     </lib>
+                </context>""",
+                classContext.sharedXml(),
+                libraryInfo.indent(8).trim());
+    }
+
+    /**
+     * The target method and the task as one well-formed {@code <request>} block, to follow {@link #contextXml()}.
+     */
+    public String methodXml() {
+        return String.format("""
+                <request>
+                %s    <task>
                 %s
-                </request>
-                """,
-                task.indent(8).trim(),
-                libraryInfo.indent(8).trim(),
-                classContext.toXml()).trim();
+                    </task>
+                </request>""",
+                classContext.targetXml(),
+                task.indent(8).trim());
     }
 
     @Override
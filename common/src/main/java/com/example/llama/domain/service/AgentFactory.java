@@ -63,7 +63,7 @@ public class AgentFactory {
         }
 
         LlmSystemDirective directive = constructArtisanPersona(role, domainType, specificExpert);
-        return new BureaucraticAgent(role.name(), directive, llmClient);
+        return new BureaucraticAgent(role, domainType, directive, llmClient);
     }
 
     /**
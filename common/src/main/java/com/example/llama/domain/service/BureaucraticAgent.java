@@ -17,26 +17,53 @@ public class BureaucraticAgent implements Agent {
     private final String role;
     private final LlmSystemDirective systemDirective;
     private final LlmClient llmClient;
+    private final com.example.llama.domain.model.AgentType agentType;
+    private final com.example.llama.domain.model.Intelligence.ComponentType componentType;
 
     public BureaucraticAgent(String role, LlmSystemDirective systemDirective, LlmClient llmClient) {
+        this(role, systemDirective, llmClient, null, null);
+    }
+
+    public BureaucraticAgent(com.example.llama.domain.model.AgentType agentType,
+                             com.example.llama.domain.model.Intelligence.ComponentType componentType,
+                             LlmSystemDirective systemDirective, LlmClient llmClient) {
+        this(agentType.name(), systemDirective, llmClient, agentType, componentType);
+    }
+
+    private BureaucraticAgent(String role, LlmSystemDirective systemDirective, LlmClient llmClient,
+                              com.example.llama.domain.model.AgentType agentType,
+                              com.example.llama.domain.model.Intelligence.ComponentType componentType) {
         this.role = role;
         this.systemDirective = systemDirective;
         this.llmClient = llmClient;
+        this.agentType = agentType;
+        this.componentType = componentType;
     }
 
     @Override
     public String act(LlmUserRequest request) {
+        if (com.example.llama.utils.Deadline.current().isExpired()) {
+            log.warn("[Agent: {}] ⏰ Deadline exceeded. Skipping LLM call.", role);
+            return com.example.llama.domain.model.LlmResponse.failed("Deadline exceeded").content();
+        }
         log.info("[Agent: {}] Acting on instruction (XML Prompt)...", role);
 
         com.example.llama.domain.model.prompt.LlmPrompt fullPrompt = com.example.llama.domain.model.prompt.LlmPrompt.builder()
                 .systemDirective(systemDirective)
                 .userRequest(request)
+                .agentType(agentType)
+                .componentType(componentType)
                 .build();
 
         // [LOG] Record the exact prompt being sent
         com.example.llama.utils.AgentLogger.logInteraction(role, "PROMPT", fullPrompt.toXml());
 
-        com.example.llama.domain.model.LlmResponse response = llmClient.generate(fullPrompt);
+        // Stream and stop at </response> (or a reported failure): trailing output is never used
+        com.example.llama.domain.model.LlmResponse response = llmClient.generate(fullPrompt, chunk -> { },
+                com.example.llama.domain.model.StopCondition.responseComplete());
+        if (response.savedTokens() > 0) {
+            log.debug("[Agent: {}] ✂️ Stopped early, ~{} output tokens cut.", role, response.savedTokens());
+        }
         
         // [METRICS] Record response for benchmarking if active
         com.example.llama.utils.MetricCollector.record(response);
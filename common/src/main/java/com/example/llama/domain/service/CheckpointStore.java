@@ -0,0 +1,23 @@
+package com.example.llama.domain.service;
+
+import com.example.llama.domain.model.PipelineCheckpoint;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Port for persisting in-flight pipeline progress (resume after quota exhaustion or crash).
+ */
+public interface CheckpointStore {
+    /**
+     * Derives the checkpoint key from the source content and the active provider/model,
+     * so a changed source or a different model never resumes from stale responses.
+     */
+    String keyFor(String sourceCode);
+
+    Optional<PipelineCheckpoint> load(Path projectRoot, String key);
+
+    void save(Path projectRoot, PipelineCheckpoint checkpoint);
+
+    void delete(Path projectRoot, String key);
+}
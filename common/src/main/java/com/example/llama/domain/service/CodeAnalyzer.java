@@ -9,4 +9,11 @@ import com.example.llama.domain.model.Intelligence;
 public interface CodeAnalyzer {
     Intelligence extractIntelligence(String sourceCode, String filePath);
     String getMethodBody(String sourceCode, String methodName);
+
+    /**
+     * Computes a normalized AST hash for every non-private method, keyed by its declaration
+     * (the same strings as {@link Intelligence#methods()}).
+     * Formatting and comments do not affect the hash; signature and body changes do.
+     */
+    java.util.Map<String, String> fingerprintMethods(String sourceCode);
 }
@@ -23,6 +23,16 @@ public interface CodeSynthesizer {
      */
     String mergeTestClass(String existingSource, GeneratedCode... newSnippets);
 
+    /**
+     * Removes the named nested test classes (e.g. Describe_method) from an existing test class.
+     */
+    String removeTestBlocks(String existingSource, java.util.Collection<String> blockNames);
+
+    /**
+     * Opens an in-memory test class that accepts the skeleton and method blocks as they arrive.
+     */
+    TestClassAssembly openAssembly();
+
     /**
      * Legacy support or general assembly.
      */
@@ -18,4 +18,11 @@ public interface CodeWriter {
      * @return The path to the saved file.
      */
     Path save(GeneratedCode code, Path rootPath, String packageName, String className);
+
+    /**
+     * Saves an intermediate version of a class that is still being generated; later calls overwrite it.
+     */
+    default Path savePartial(GeneratedCode code, Path rootPath, String packageName, String className) {
+        return save(code, rootPath, packageName, className);
+    }
 }
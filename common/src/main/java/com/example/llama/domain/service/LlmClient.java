@@ -1,8 +1,11 @@
 package com.example.llama.domain.service;
 
 import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
 import com.example.llama.domain.model.prompt.LlmPrompt;
 
+import java.util.function.Consumer;
+
 /**
  * Port for LLM communication.
  * Decouples the domain from specific libraries like LangChain4j.
@@ -16,6 +19,23 @@ public interface LlmClient {
      */
     LlmResponse generate(LlmPrompt prompt);
 
+    /**
+     * Generates while streaming: chunks are handed to {@code onChunk} as they arrive and the upstream
+     * is cancelled as soon as {@code stopCondition} matches. Clients that cannot stream generate in one
+     * piece and deliver the response untouched as a single chunk: its tokens were already generated, so
+     * cutting it would save nothing and drop trailing markers (e.g. Gemini's {@code MODEL_USED} comment).
+     *
+     * @return The response, for real streams up to the stop point with the cut-off tail counted in
+     * {@link LlmResponse#savedTokens()}.
+     */
+    default LlmResponse generate(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        LlmResponse response = generate(prompt);
+        if (response != null && response.content() != null) {
+            onChunk.accept(response.content());
+        }
+        return response;
+    }
+
     /**
      * Backward compatibility method.
      */
@@ -0,0 +1,21 @@
+package com.example.llama.domain.service;
+
+import com.example.llama.domain.model.GenerationManifest;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Port for persisting per-file generation manifests (incremental regeneration).
+ */
+public interface ManifestStore {
+    /**
+     * Loads the manifest of a source file.
+     *
+     * @param projectRoot The root directory of the project.
+     * @param sourceFile  The source file path relative to the project root.
+     */
+    Optional<GenerationManifest> load(Path projectRoot, String sourceFile);
+
+    void save(Path projectRoot, GenerationManifest manifest);
+}
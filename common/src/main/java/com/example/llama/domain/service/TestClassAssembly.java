@@ -0,0 +1,28 @@
+package com.example.llama.domain.service;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A test class assembled incrementally: the skeleton and method blocks may arrive in any order
+ * and from different threads. Each call returns the current source so it can be flushed right away.
+ */
+public interface TestClassAssembly {
+
+    /**
+     * Installs the class skeleton. Blocks grafted earlier are applied on top of it.
+     *
+     * @param skeletonSource   Full source of the test class skeleton (setup or an existing test class).
+     * @param extraImports     Imports to add, {@code "static "}-prefixed for static imports.
+     * @param dropPlaceholders Remove {@code Describe_} classes already present in the skeleton (LLM placeholders).
+     * @return The current source, or empty when the skeleton does not parse.
+     */
+    Optional<String> start(String skeletonSource, Collection<String> extraImports, boolean dropPlaceholders);
+
+    /**
+     * Grafts one generated block (a {@code Describe_<method>} class or loose members).
+     *
+     * @return The current source, or empty while no skeleton is installed or the block could not be grafted.
+     */
+    Optional<String> graft(String block);
+}
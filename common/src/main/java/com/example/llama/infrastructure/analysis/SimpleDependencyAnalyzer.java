@@ -8,16 +8,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Dependency analyzer that uses build tool wrappers (gradlew/mvnw)
  * to fetch accurate, resolved dependency information.
+ * Results are cached per project root, so batch runs call the build tool once.
  */
 @Slf4j
 @Component
 public class SimpleDependencyAnalyzer {
 
+    private final Map<Path, List<String>> cache = new ConcurrentHashMap<>();
+
     public List<String> analyze(Path projectRoot) {
+        return cache.computeIfAbsent(projectRoot.toAbsolutePath().normalize(),
+                root -> List.copyOf(resolveDependencies(root)));
+    }
+
+    private List<String> resolveDependencies(Path projectRoot) {
         log.info("📊 Analyzing dependencies for project at: {}", projectRoot);
 
         // 1. Try Gradle Wrapper
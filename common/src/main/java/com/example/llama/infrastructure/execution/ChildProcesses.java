@@ -0,0 +1,122 @@
+package com.example.llama.infrastructure.execution;
+
+import com.example.llama.utils.Deadline;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs child processes (CLIs, Gradle) under the current {@link Deadline}.
+ * Stdin is fed and output drained on virtual threads, so the timeout holds even while the child keeps
+ * writing or stops reading a large input.
+ * On timeout, deadline expiry or interruption the whole process tree is killed.
+ */
+@Slf4j
+public final class ChildProcesses {
+
+    private static final long DRAIN_GRACE_MS = 2000;
+
+    private ChildProcesses() {
+    }
+
+    /**
+     * @param exitCode         Exit code, -1 when the process was killed.
+     * @param output           Everything the process wrote before it ended or was killed.
+     * @param timedOut         The process was killed because its time ran out.
+     * @param deadlineExceeded The per-file deadline, not the call's own timeout, ran out first.
+     */
+    public record Outcome(int exitCode, String output, boolean timedOut, boolean deadlineExceeded) {
+        public boolean isSuccess() {
+            return !timedOut && exitCode == 0;
+        }
+    }
+
+    /**
+     * Starts the process, feeds {@code stdin} (if any) and waits for the shorter of
+     * {@code timeout} and the time left on the current deadline.
+     */
+    public static Outcome run(ProcessBuilder processBuilder, String stdin, Duration timeout)
+            throws IOException, InterruptedException {
+        if (Deadline.current().isExpired()) {
+            return new Outcome(-1, "", true, true);
+        }
+        return await(processBuilder.start(), stdin, timeout);
+    }
+
+    /**
+     * Like {@link #run}, for a process that was started earlier (e.g. a pre-started worker waiting on stdin).
+     * An expired deadline kills the process without feeding it.
+     */
+    public static Outcome await(Process process, String stdin, Duration timeout)
+            throws IOException, InterruptedException {
+        Deadline deadline = Deadline.current();
+        if (deadline.isExpired()) {
+            killTree(process);
+            return new Outcome(-1, "", true, true);
+        }
+
+        CompletableFuture<String> output = CompletableFuture.supplyAsync(() -> drain(process.getInputStream()),
+                command -> Thread.ofVirtual().start(command));
+        Thread.ofVirtual().start(() -> feed(process, stdin));
+        try {
+            Duration wait = deadline.clamp(timeout);
+            if (!process.waitFor(wait.toMillis(), TimeUnit.MILLISECONDS)) {
+                boolean byDeadline = deadline.isExpired();
+                log.warn("⏰ {} after {} ms. Killing process tree (pid {}).",
+                        byDeadline ? "Deadline exceeded" : "Timeout", wait.toMillis(), process.pid());
+                killTree(process);
+                return new Outcome(-1, collect(output), true, byDeadline);
+            }
+            return new Outcome(process.exitValue(), collect(output), false, false);
+        } catch (InterruptedException e) {
+            killTree(process);
+            throw e;
+        }
+    }
+
+    /**
+     * Kills the process and everything it spawned (e.g. Gradle workers, CLI helpers).
+     */
+    public static void killTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * Writes {@code stdin} (if any) and closes the stream; a child that exits or is killed first breaks the pipe.
+     */
+    private static void feed(Process process, String stdin) {
+        try (OutputStream os = process.getOutputStream()) {
+            if (stdin != null) {
+                os.write(stdin.getBytes(StandardCharsets.UTF_8));
+                os.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Stdin of pid {} closed early: {}", process.pid(), e.getMessage());
+        }
+    }
+
+    private static String drain(InputStream inputStream) {
+        try (InputStream is = inputStream) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String collect(CompletableFuture<String> output) throws InterruptedException {
+        try {
+            return output.get(DRAIN_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return "";
+        }
+    }
+}
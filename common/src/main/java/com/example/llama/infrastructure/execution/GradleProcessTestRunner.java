@@ -4,17 +4,16 @@ import com.example.llama.domain.service.TestRunner;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Path;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.time.Duration;
 
 @Slf4j
 @Component
 public class GradleProcessTestRunner implements TestRunner {
 
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
     @Override
     public TestExecutionResult runTest(Path projectRoot, String className) {
         log.info("🚀 Executing test: {} in {}", className, projectRoot);
@@ -33,28 +32,18 @@ public class GradleProcessTestRunner implements TestRunner {
         pb.redirectErrorStream(true);
 
         try {
-            Process process = pb.start();
-
-            // Read output
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
-
-            boolean finished = process.waitFor(5, TimeUnit.MINUTES);
-            if (!finished) {
-                process.destroyForcibly();
-                return new TestExecutionResult(false, output.toString(), "Timeout after 5 minutes");
+            ChildProcesses.Outcome outcome = ChildProcesses.run(pb, null, TIMEOUT);
+            if (outcome.timedOut()) {
+                return new TestExecutionResult(false, outcome.output(), outcome.deadlineExceeded()
+                        ? "Deadline exceeded" : "Timeout after " + TIMEOUT.toMinutes() + " minutes");
             }
+            String output = outcome.output();
 
-            int exitCode = process.exitValue();
+            int exitCode = outcome.exitCode();
             boolean success = (exitCode == 0);
 
             // Validate that tests actually ran
-            String params = output.toString();
+            String params = output;
             boolean testsExecuted = params.contains("tests completed") || params.contains("test completed");
             if (success && !testsExecuted && !params.contains("UP-TO-DATE")) {
                 // If build success but no "tests completed" (and not up-to-date), it implies 0
@@ -77,7 +66,7 @@ public class GradleProcessTestRunner implements TestRunner {
             }
 
             log.info("Test execution finished. Success: {}", success);
-            return new TestExecutionResult(success, output.toString(), success ? null : "Exit code: " + exitCode);
+            return new TestExecutionResult(success, output, success ? null : "Exit code: " + exitCode);
 
         } catch (IOException | InterruptedException e) {
             log.error("Failed to execute test process", e);
@@ -0,0 +1,92 @@
+package com.example.llama.infrastructure.io;
+
+import com.example.llama.domain.model.PipelineCheckpoint;
+import com.example.llama.domain.service.CheckpointStore;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Hashing;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores pipeline checkpoints as JSON under {@code <projectRoot>/.test-hea-llama/checkpoints/}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileSystemCheckpointStore implements CheckpointStore {
+
+    private static final String CHECKPOINT_DIR = ".test-hea-llama/checkpoints";
+
+    private final LlmProviderProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Override
+    public String keyFor(String sourceCode) {
+        String provider = LlmContextHolder.getProvider() != null
+                ? LlmContextHolder.getProvider() : properties.getDefaultProvider();
+        String model = properties.getProviders().stream()
+                .filter(p -> p.getName().equalsIgnoreCase(provider))
+                .findFirst()
+                .map(LlmProviderProperties.ProviderConfig::getSettings)
+                .map(settings -> settings.getOrDefault("model", "default"))
+                .orElse("default");
+        return Hashing.sha256(sourceCode, provider, model);
+    }
+
+    @Override
+    public Optional<PipelineCheckpoint> load(Path projectRoot, String key) {
+        Path path = resolve(projectRoot, key);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(path.toFile(), PipelineCheckpoint.class));
+        } catch (IOException e) {
+            log.warn("⚠️ Ignoring unreadable checkpoint {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void save(Path projectRoot, PipelineCheckpoint checkpoint) {
+        Path path = resolve(projectRoot, checkpoint.key());
+        try {
+            Files.createDirectories(path.getParent());
+            // Write-then-rename: a crash mid-write must not destroy the previous checkpoint
+            Path tempFile = Files.createTempFile(path.getParent(), ".checkpoint", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), checkpoint);
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to save checkpoint for {}", checkpoint.sourceFile(), e);
+        }
+    }
+
+    @Override
+    public void delete(Path projectRoot, String key) {
+        try {
+            Files.deleteIfExists(resolve(projectRoot, key));
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Path resolve(Path projectRoot, String key) {
+        return projectRoot.resolve(CHECKPOINT_DIR).resolve(key + ".json");
+    }
+}
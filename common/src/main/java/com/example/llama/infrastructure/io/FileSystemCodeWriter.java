@@ -6,8 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 @Slf4j
 @Component
@@ -15,6 +17,22 @@ public class FileSystemCodeWriter implements CodeWriter {
 
     @Override
     public Path save(GeneratedCode code, Path rootPath, String packageName, String className) {
+        Path filePath = write(code, rootPath, packageName, className);
+        log.info("💾 Saved generated test to: {}", filePath.toAbsolutePath());
+        return filePath;
+    }
+
+    /**
+     * Flushed after every grafted method block, so only logged at debug.
+     */
+    @Override
+    public Path savePartial(GeneratedCode code, Path rootPath, String packageName, String className) {
+        Path filePath = write(code, rootPath, packageName, className);
+        log.debug("💾 Saved partial test to: {}", filePath.toAbsolutePath());
+        return filePath;
+    }
+
+    private Path write(GeneratedCode code, Path rootPath, String packageName, String className) {
         try {
             // Determine path: root/src/test/java/package/path/ClassName.java
             Path sourceDir = rootPath.resolve("src/test/java");
@@ -24,13 +42,29 @@ public class FileSystemCodeWriter implements CodeWriter {
             Path filePath = packageDir.resolve(className + ".java");
             
             String content = code.toFullSource();
-            Files.writeString(filePath, content);
-
-            log.info("💾 Saved generated test to: {}", filePath.toAbsolutePath());
+            writeAtomically(filePath, content);
             return filePath;
         } catch (IOException e) {
             log.error("Failed to write test file", e);
             throw new RuntimeException("IO Error", e);
         }
     }
+
+    /**
+     * Partial classes are flushed while generation is still running, so readers (IDE, Gradle)
+     * must never observe a half-written file.
+     */
+    private void writeAtomically(Path filePath, String content) throws IOException {
+        Path temp = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, content);
+            try {
+                Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
 }
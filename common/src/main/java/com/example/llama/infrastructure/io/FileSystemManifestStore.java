@@ -0,0 +1,60 @@
+package com.example.llama.infrastructure.io;
+
+import com.example.llama.domain.model.GenerationManifest;
+import com.example.llama.domain.service.ManifestStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores generation manifests as JSON under {@code <projectRoot>/.test-hea-llama/manifest/},
+ * mirroring the source file layout.
+ */
+@Slf4j
+@Component
+public class FileSystemManifestStore implements ManifestStore {
+
+    private static final String MANIFEST_DIR = ".test-hea-llama/manifest";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Override
+    public Optional<GenerationManifest> load(Path projectRoot, String sourceFile) {
+        Path manifestPath = resolve(projectRoot, sourceFile);
+        if (!Files.exists(manifestPath)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(manifestPath.toFile(), GenerationManifest.class));
+        } catch (IOException e) {
+            log.warn("⚠️ Ignoring unreadable manifest {}: {}", manifestPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(Path projectRoot, GenerationManifest manifest) {
+        Path manifestPath = resolve(projectRoot, manifest.sourceFile());
+        try {
+            Files.createDirectories(manifestPath.getParent());
+            // Write-then-rename so an interrupted run never leaves a half-written manifest
+            Path tempFile = Files.createTempFile(manifestPath.getParent(), ".manifest", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), manifest);
+            Files.move(tempFile, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved manifest: {}", manifestPath);
+        } catch (IOException e) {
+            log.error("Failed to save manifest for {}", manifest.sourceFile(), e);
+        }
+    }
+
+    private Path resolve(Path projectRoot, String sourceFile) {
+        return projectRoot.resolve(MANIFEST_DIR).resolve(sourceFile + ".json");
+    }
+}
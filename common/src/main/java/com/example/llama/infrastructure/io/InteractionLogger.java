@@ -81,7 +81,7 @@ public class InteractionLogger {
         appendToFile(sb.toString());
     }
 
-    private void appendToFile(String content) {
+    private synchronized void appendToFile(String content) {
         if (currentLogFile == null) return;
         try {
             Files.writeString(currentLogFile, content, StandardOpenOption.APPEND);
@@ -0,0 +1,215 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.service.LlmClient;
+import com.example.llama.infrastructure.llm.cache.PromptCanonicalizer;
+import com.example.llama.infrastructure.llm.cache.ResponseCacheStore;
+import com.example.llama.infrastructure.llm.cache.ResponseCacheStore.CachedResponse;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Hashing;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Serves repeated prompts from an on-disk cache in front of {@link RoutingLlmClient}.
+ * The key is the hash of provider, model and the {@link PromptCanonicalizer} fingerprint of the prompt,
+ * so a re-run over unchanged sources (or sources differing only in comments, formatting or masked
+ * literals) replays the earlier answers without a round trip. Failed, empty, hedged or retried (answered by
+ * another provider than the key's) and truncated responses (cut by the caller's {@link StopCondition}, which the key
+ * does not cover) are never stored. {@link LlmContextHolder#setCacheBypass(boolean)} skips lookups (e.g. {@code --no-cache}).
+ * <p>
+ * With {@code llama.cache.coalesce}, identical prompts that are already in flight are not sent again:
+ * the later callers wait for the running call and share its response ({@link InFlightRequests}), whether
+ * or not the disk cache is enabled. Bypassing callers (racing candidates that want distinct answers) always
+ * make their own call.
+ */
+@Slf4j
+@Component
+@Primary
+@RequiredArgsConstructor
+public class CachingLlmClient implements LlmClient {
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    // Tags of answers produced by another provider than the one the key names
+    private static final List<String> SWITCHED_PROVIDER = List.of("hedgedTo", "retriedOn", "reroutedTo");
+
+    private final RoutingLlmClient delegate;
+    private final LlmProviderProperties properties;
+    private final PromptCanonicalizer canonicalizer;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedTokens = new AtomicLong();
+    private final AtomicLong savedMs = new AtomicLong();
+    private final InFlightRequests inFlight = new InFlightRequests();
+    private ResponseCacheStore store;
+    private boolean storeUnavailable;
+
+    /**
+     * @param savedTokens Input and output tokens the hits did not pay for.
+     * @param savedMs     Latency of the original calls the hits replayed.
+     * @param coalesced   Calls that shared an identical in-flight call instead of going upstream.
+     */
+    public record CacheStats(boolean enabled, long hits, long misses, long savedTokens, long savedMs,
+                             int entries, long liveBytes, long fileBytes, long evictions,
+                             long coalesced, long coalescedTokens) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0;
+        }
+    }
+
+    @Override
+    public LlmResponse generate(LlmPrompt prompt) {
+        return cached(prompt, null, () -> delegate.generate(prompt));
+    }
+
+    @Override
+    public LlmResponse generate(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        return cached(prompt, onChunk, () -> delegate.generate(prompt, onChunk, stopCondition));
+    }
+
+    /**
+     * @param onChunk Receives a replayed response as one chunk, null when the caller does not stream.
+     */
+    private LlmResponse cached(LlmPrompt prompt, Consumer<String> onChunk, Supplier<LlmResponse> call) {
+        ResponseCacheStore cache = properties.getCache().isEnabled() ? store() : null;
+        boolean bypassed = LlmContextHolder.isCacheBypassed();
+        boolean coalesce = properties.getCache().isCoalesce() && !bypassed;
+        if (cache == null && !coalesce) {
+            return call.get();
+        }
+
+        String key = keyOf(prompt);
+        if (cache != null && !bypassed) {
+            Optional<CachedResponse> cached = lookup(cache, key);
+            if (cached.isPresent()) {
+                LlmResponse replayed = replay(cached.get());
+                if (onChunk != null) {
+                    onChunk.accept(replayed.content());
+                }
+                return replayed;
+            }
+            misses.incrementAndGet();
+        }
+
+        Supplier<LlmResponse> upstream = () -> stored(cache, key, call.get());
+        return coalesce ? inFlight.execute(key, onChunk, upstream) : upstream.get();
+    }
+
+    private LlmResponse stored(ResponseCacheStore cache, String key, LlmResponse response) {
+        if (cache != null && isCacheable(response)) {
+            try {
+                cache.put(key, new CachedResponse(response.content(), response.inputTokens(),
+                        response.outputTokens(), response.totalTimeMs()));
+            } catch (IOException e) {
+                log.warn("⚠️ Could not store LLM response in cache: {}", e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    public CacheStats stats() {
+        boolean enabled = properties.getCache().isEnabled();
+        ResponseCacheStore cache = enabled ? store() : null;
+        ResponseCacheStore.StoreStats storeStats = new ResponseCacheStore.StoreStats(0, 0, 0, 0);
+        if (cache != null) {
+            try {
+                storeStats = cache.stats();
+            } catch (IOException e) {
+                log.warn("⚠️ Could not read LLM cache stats: {}", e.getMessage());
+            }
+        }
+        return new CacheStats(enabled, hits.get(), misses.get(), savedTokens.get(), savedMs.get(),
+                storeStats.entries(), storeStats.liveBytes(), storeStats.fileBytes(), storeStats.evictions(),
+                inFlight.coalesced(), inFlight.savedTokens());
+    }
+
+    public void clear() throws IOException {
+        ResponseCacheStore cache = store();
+        if (cache != null) {
+            cache.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+        savedTokens.set(0);
+        savedMs.set(0);
+        inFlight.reset();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.debug("Closing LLM cache failed: {}", e.getMessage());
+            }
+            store = null;
+        }
+    }
+
+    String keyOf(LlmPrompt prompt) {
+        String name = properties.resolveName(delegate.resolveProvider(prompt));
+        String model = properties.getProviders().stream()
+                .filter(p -> p.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .map(p -> p.getType() + ":" + (p.getSettings() != null ? p.getSettings().getOrDefault("model", "") : ""))
+                .orElse("");
+        return Hashing.sha256(name, model, canonicalizer.fingerprint(prompt));
+    }
+
+    private Optional<CachedResponse> lookup(ResponseCacheStore cache, String key) {
+        try {
+            return cache.get(key);
+        } catch (IOException e) {
+            log.warn("⚠️ LLM cache read failed, calling the provider: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private LlmResponse replay(CachedResponse cached) {
+        hits.incrementAndGet();
+        savedTokens.addAndGet(cached.inputTokens() + cached.outputTokens());
+        savedMs.addAndGet(cached.totalTimeMs());
+        log.debug("💾 LLM cache hit (saved {} ms).", cached.totalTimeMs());
+        return LlmResponse.builder()
+                .content(cached.content())
+                .metadata(Map.of("cache", "hit"))
+                .build();
+    }
+
+    private boolean isCacheable(LlmResponse response) {
+        return response != null && response.content() != null && !response.content().isBlank()
+                && !response.content().contains("<status>FAILED</status>")
+                && response.savedTokens() == 0
+                && (response.metadata() == null || SWITCHED_PROVIDER.stream().noneMatch(response.metadata()::containsKey));
+    }
+
+    private synchronized ResponseCacheStore store() {
+        if (store == null && !storeUnavailable) {
+            LlmProviderProperties.CacheConfig config = properties.getCache();
+            try {
+                store = ResponseCacheStore.open(Paths.get(config.getDirectory()), config.getMaxSizeMb() * BYTES_PER_MB);
+            } catch (IOException e) {
+                storeUnavailable = true;
+                log.warn("⚠️ LLM cache unavailable at {}: {}. Continuing without it.", config.getDirectory(), e.getMessage());
+            }
+        }
+        return store;
+    }
+}
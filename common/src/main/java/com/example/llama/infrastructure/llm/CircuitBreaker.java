@@ -0,0 +1,117 @@
+package com.example.llama.infrastructure.llm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Per-provider circuit breaker. After {@code failureThreshold} consecutive failures the circuit opens and
+ * requests are refused without touching the provider; once {@code openDuration} has passed a single
+ * half-open probe request is let through, and its outcome closes or re-opens the circuit.
+ * A failing health probe counts as one failure toward the threshold (and keeps an open circuit open), a
+ * passing one lets the half-open probe through early.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * @return Whether a request may go to the provider now. A true answer in half-open state is the probe,
+     * and must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()) {
+            state = State.HALF_OPEN;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) yield false;
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Whether requests would currently be refused, without claiming the half-open probe.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.nanoTime() - openedAtNanos < openDuration.toNanos()
+                || state == State.HALF_OPEN && probeInFlight;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("🟢 Provider [{}] recovered. Circuit closed.", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open("%d consecutive failure(s)".formatted(consecutiveFailures));
+        }
+    }
+
+    /**
+     * The request ended without saying anything about the provider's health (deadline, throttling).
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Outcome of a background health probe.
+     */
+    public synchronized void onProbe(boolean healthy) {
+        if (!healthy && state == State.CLOSED) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                open("%d consecutive failure(s), last a health probe".formatted(consecutiveFailures));
+            }
+        } else if (!healthy && state == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        } else if (healthy && state == State.OPEN) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void open(String reason) {
+        if (state != State.OPEN) {
+            log.warn("🔴 Provider [{}] circuit opened ({}). Skipping it for {} s.", name, reason, openDuration.toSeconds());
+        }
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        probeInFlight = false;
+    }
+}
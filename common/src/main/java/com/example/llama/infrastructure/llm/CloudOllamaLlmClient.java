@@ -1,45 +1,78 @@
 package com.example.llama.infrastructure.llm;
 
+import com.example.llama.domain.model.StopCondition;
 import com.example.llama.domain.model.prompt.LlmPrompt;
 import com.example.llama.domain.service.LlmClient;
 import com.example.llama.infrastructure.io.InteractionLogger;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Deadline;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component("ollamaLlmClient")
 public class CloudOllamaLlmClient implements LlmClient, ConfigurableLlmClient {
 
+    private static final String ERROR_DEADLINE = "Deadline exceeded";
+
     private final OllamaChatModel chatModel;
     private final InteractionLogger logger;
-    private String model = "qwen3-coder:480b-cloud"; // Explicit cloud model default
+    private final String model; // sent with every prompt; null = spring.ai.ollama.chat.options.model
+    private final Duration idleTimeout; // llama.timeouts.idle, applied from the first chunk on
 
+    @org.springframework.beans.factory.annotation.Autowired
     public CloudOllamaLlmClient(org.springframework.beans.factory.ObjectProvider<OllamaChatModel> chatModelProvider, 
-                                InteractionLogger logger) {
-        this.chatModel = chatModelProvider.getIfAvailable();
+                                InteractionLogger logger, LlmProviderProperties properties) {
+        this(chatModelProvider.getIfAvailable(), logger, null, properties.getTimeouts().getIdle());
+    }
+
+    private CloudOllamaLlmClient(OllamaChatModel chatModel, InteractionLogger logger, String model, Duration idleTimeout) {
+        this.chatModel = chatModel;
         this.logger = logger;
+        this.model = model;
+        this.idleTimeout = idleTimeout;
     }
 
     @Override
-    public void configure(java.util.Map<String, String> settings) {
-        if (settings.containsKey("model")) {
-            this.model = settings.get("model");
-        }
+    public CloudOllamaLlmClient withSettings(java.util.Map<String, String> settings) {
+        return new CloudOllamaLlmClient(chatModel, logger, settings.getOrDefault("model", model), idleTimeout);
+    }
+
+    @Override
+    public boolean isHealthy() {
+        return chatModel != null;
     }
 
     @Override
     public com.example.llama.domain.model.LlmResponse generate(LlmPrompt prompt) {
+        return generate(prompt, chunk -> { }, StopCondition.never());
+    }
+
+    @Override
+    public com.example.llama.domain.model.LlmResponse generate(LlmPrompt prompt, Consumer<String> onChunk,
+                                                               StopCondition stopCondition) {
         if (chatModel == null) {
             return com.example.llama.domain.model.LlmResponse.failed("OllamaChatModel not available.");
         }
-        log.info("🚀 Generating with Cloud Ollama (Spring AI) model: {}", model);
+        Deadline deadline = Deadline.current();
+        if (deadline.isExpired()) {
+            return com.example.llama.domain.model.LlmResponse.failed(ERROR_DEADLINE);
+        }
+        log.info("🚀 Generating with Cloud Ollama (Spring AI) model: {}", model != null ? model : "default");
 
         String systemContent = prompt.getSystemDirective().toXml();
         String userContent = prompt.getUserRequest().toXml();
@@ -47,30 +80,61 @@ public class CloudOllamaLlmClient implements LlmClient, ConfigurableLlmClient {
         try {
             SystemMessage systemMessage = new SystemMessage(systemContent);
             UserMessage userMessage = new UserMessage(userContent);
-            Prompt ollamaPrompt = new Prompt(List.of(systemMessage, userMessage));
+            // Per-prompt options merge over the chat model's defaults, so each provider entry gets its own model
+            Prompt ollamaPrompt = model != null
+                    ? new Prompt(List.of(systemMessage, userMessage), OllamaOptions.builder().model(model).build())
+                    : new Prompt(List.of(systemMessage, userMessage));
 
             long startTime = System.currentTimeMillis();
             java.util.concurrent.atomic.AtomicLong ttft = new java.util.concurrent.atomic.AtomicLong(0);
-            StringBuilder contentBuilder = new StringBuilder();
+            java.util.concurrent.atomic.AtomicReference<Usage> usage = new java.util.concurrent.atomic.AtomicReference<>();
+            java.util.concurrent.atomic.AtomicReference<String> servedModel = new java.util.concurrent.atomic.AtomicReference<>(model);
+            StreamAccumulator accumulator = new StreamAccumulator(onChunk, stopCondition);
 
-            // Use blockLast() or collectList() to wait for stream completion
-            chatModel.stream(ollamaPrompt).doOnNext(response -> {
+            // Use blockLast() or collectList() to wait for stream completion.
+            // take(remaining) cancels the in-flight stream once the file's deadline runs out,
+            // takeUntil cancels it once the caller's stop condition matched.
+            Flux<ChatResponse> stream = chatModel.stream(ollamaPrompt);
+            if (idleTimeout.isPositive()) {
+                // the first chunk may take as long as the request deadline allows, later ones only idle-timeout
+                stream = stream.timeout(Mono.never(), response -> Mono.delay(idleTimeout))
+                        .onErrorMap(TimeoutException.class, e -> new IllegalStateException(
+                                "Ollama stream idle for more than " + idleTimeout.toSeconds() + " s"));
+            }
+            if (deadline.isBounded()) {
+                stream = stream.take(deadline.remaining());
+            }
+            stream.doOnNext(response -> {
                 if (ttft.get() == 0) {
                     ttft.set(System.currentTimeMillis() - startTime);
                 }
+                // The final chunk carries Ollama's prompt_eval_count / eval_count
+                if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                    usage.set(response.getMetadata().getUsage());
+                }
+                // Report the model the server answered with, not the one we asked for
+                if (response.getMetadata() != null && response.getMetadata().getModel() != null
+                        && !response.getMetadata().getModel().isBlank()) {
+                    servedModel.set(response.getMetadata().getModel());
+                }
                 if (response.getResult() != null && response.getResult().getOutput() != null) {
-                    contentBuilder.append(response.getResult().getOutput().getText());
+                    accumulator.accept(response.getResult().getOutput().getText());
                 }
-            }).blockLast();
+            }).takeUntil(response -> accumulator.isStopped()).blockLast();
+
+            if (!accumulator.isStopped() && deadline.isExpired()) {
+                log.warn("⏰ Deadline exceeded. Ollama stream cancelled after {} chars.", accumulator.length());
+                return com.example.llama.domain.model.LlmResponse.failed(ERROR_DEADLINE);
+            }
 
             long totalTime = System.currentTimeMillis() - startTime;
-            String content = contentBuilder.toString();
+            String content = accumulator.text();
 
-            // Record metrics
-            int inTokens = (systemContent.length() + userContent.length()) / 4;
-            int outTokens = content.length() / 4;
+            // Record metrics (0 = not reported, estimated by TokenAccountant)
+            int inTokens = usage.get() != null ? tokens(usage.get().getPromptTokens()) : 0;
+            int outTokens = usage.get() != null ? tokens(usage.get().getGenerationTokens()) : 0;
 
-            logger.logInteraction("Ollama:" + model, systemContent + "\n---\n" + userContent, content);
+            logger.logInteraction("Ollama:" + (servedModel.get() != null ? servedModel.get() : "default"), systemContent + "\n---\n" + userContent, content);
             
             return com.example.llama.domain.model.LlmResponse.builder()
                     .content(content)
@@ -78,7 +142,8 @@ public class CloudOllamaLlmClient implements LlmClient, ConfigurableLlmClient {
                     .totalTimeMs(totalTime)
                     .inputTokens(inTokens)
                     .outputTokens(outTokens)
-                    .metadata(java.util.Map.of("model", model))
+                    .savedTokens(accumulator.savedTokens())
+                    .metadata(servedModel.get() != null ? java.util.Map.of("model", servedModel.get()) : java.util.Map.of())
                     .build();
 
         } catch (Exception e) {
@@ -86,4 +151,8 @@ public class CloudOllamaLlmClient implements LlmClient, ConfigurableLlmClient {
             return com.example.llama.domain.model.LlmResponse.failed(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static int tokens(Long count) {
+        return count != null ? count.intValue() : 0;
+    }
+}
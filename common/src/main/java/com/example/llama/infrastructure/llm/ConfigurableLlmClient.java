@@ -1,7 +1,31 @@
 package com.example.llama.infrastructure.llm;
 
+import com.example.llama.domain.service.LlmClient;
+
 import java.util.Map;
 
+/**
+ * A client bean that acts as a template for per-provider instances.
+ * {@link LlmProviderFactory} derives one instance per configured provider and never mutates the bean,
+ * so providers sharing a type (e.g. two Ollama models) cannot overwrite each other's settings.
+ */
 public interface ConfigurableLlmClient {
-    void configure(Map<String, String> settings);
+
+    /**
+     * @return A new client with {@code settings} applied on top of this one's; this instance is unchanged.
+     */
+    LlmClient withSettings(Map<String, String> settings);
+
+    /**
+     * Cheap liveness check (no generation) used by the background health probe.
+     */
+    default boolean isHealthy() {
+        return true;
+    }
+
+    /**
+     * Releases what the instance holds (connection pools, pre-started processes).
+     */
+    default void close() {
+    }
 }
@@ -2,27 +2,30 @@ package com.example.llama.infrastructure.llm;
 
 import com.example.llama.domain.model.prompt.LlmPrompt;
 import com.example.llama.domain.service.LlmClient;
+import com.example.llama.infrastructure.execution.ChildProcesses;
 import com.example.llama.infrastructure.io.InteractionLogger;
-import lombok.RequiredArgsConstructor;
+import com.example.llama.utils.Deadline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * LLM Client implementation using Gemini CLI.
- * Uses 'gemini --prompt' for non-interactive mode.
+ * The prompt is fed through stdin of a worker from {@link GeminiWorkerPool}, so Node.js startup and
+ * CLI init overlap with the previous request instead of delaying this one.
  */
 @Slf4j
 @Component("geminiLlmClient")
-@RequiredArgsConstructor
 public class GeminiLlmClient implements LlmClient, ConfigurableLlmClient {
 
     private static final String CMD_GEMINI = "gemini";
@@ -31,28 +34,79 @@ public class GeminiLlmClient implements LlmClient, ConfigurableLlmClient {
     private static final String VALUE_YOLO = "yolo";
     private static final String FLAG_EXTENSIONS = "--extensions";
     private static final String VALUE_NONE = "none";
+    private static final String FLAG_OUTPUT = "--output-format";
+    private static final String VALUE_JSON = "json";
     
     private static final String ERROR_QUOTA_RETRY = "RetryableQuotaError";
     private static final String ERROR_QUOTA_TERMINAL = "TerminalQuotaError";
     private static final String STATUS_FAILED = "<status>FAILED</status>";
     
-    private static final long TIMEOUT_MINUTES = 10;
-    private static final long RETRY_DELAY_MS = 5000;
+    private static final String ERROR_DEADLINE = "Deadline exceeded";
 
-    private final InteractionLogger logger;
-    private String lastUsedModel = "unknown";
+    private static final Duration TIMEOUT = Duration.ofMinutes(10);
+    private static final int DEFAULT_POOL_SIZE = 1;
+    private static final Duration DEFAULT_MAX_IDLE = Duration.ofMinutes(10);
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(30);
 
+    private final InteractionLogger logger;
     // List of models to try in order of preference
-    private List<String> modelFallbacks = new ArrayList<>(List.of(
-            "gemini-2.0-flash",
-            "gemini-1.5-pro",
-            "auto"
-    ));
+    private final List<String> modelFallbacks;
+    private final int poolSize;
+    private final Duration maxIdle;
+    private volatile String lastUsedModel = "unknown";
+    private GeminiWorkerPool pool;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * @param inputTokens Prompt tokens from the CLI's usage stats, 0 when it printed none.
+     */
+    private record CliResult(String output, boolean warm, long spawnMs, int inputTokens, int outputTokens) {
+        CliResult(String output, boolean warm, long spawnMs) {
+            this(output, warm, spawnMs, 0, 0);
+        }
+    }
+
+    @Autowired
+    public GeminiLlmClient(InteractionLogger logger) {
+        this(logger, List.of("gemini-2.0-flash", "gemini-1.5-pro", "auto"), DEFAULT_POOL_SIZE, DEFAULT_MAX_IDLE);
+    }
+
+    private GeminiLlmClient(InteractionLogger logger, List<String> modelFallbacks, int poolSize, Duration maxIdle) {
+        this.logger = logger;
+        this.modelFallbacks = List.copyOf(modelFallbacks);
+        this.poolSize = poolSize;
+        this.maxIdle = maxIdle;
+    }
+
+    @Override
+    public GeminiLlmClient withSettings(Map<String, String> settings) {
+        return new GeminiLlmClient(logger,
+                settings.containsKey("fallbacks") ? Arrays.asList(settings.get("fallbacks").split(",")) : modelFallbacks,
+                Integer.parseInt(settings.getOrDefault("pool-size", String.valueOf(poolSize))),
+                settings.containsKey("max-idle") ? DurationStyle.detectAndParse(settings.get("max-idle")) : maxIdle);
+    }
+
+    @Override
+    public boolean isHealthy() {
+        try {
+            return ChildProcesses.run(new ProcessBuilder(CMD_GEMINI, "--version").redirectErrorStream(true),
+                    null, PROBE_TIMEOUT).isSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
 
     @Override
-    public void configure(Map<String, String> settings) {
-        if (settings.containsKey("fallbacks")) {
-            this.modelFallbacks = Arrays.asList(settings.get("fallbacks").split(","));
+    @PreDestroy
+    public synchronized void close() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
@@ -60,70 +114,119 @@ public class GeminiLlmClient implements LlmClient, ConfigurableLlmClient {
     public com.example.llama.domain.model.LlmResponse generate(LlmPrompt prompt) {
         String fullPrompt = prompt.toXml();
         long startTime = System.currentTimeMillis();
+        long spawnMs = 0;
+        boolean throttled = false;
         
         for (String model : modelFallbacks) {
+            if (Deadline.current().isExpired()) {
+                log.warn("⏰ Deadline exceeded. Skipping remaining Gemini fallbacks.");
+                return com.example.llama.domain.model.LlmResponse.failed(ERROR_DEADLINE);
+            }
             log.info("🚀 Attempting generation with model: {}", model);
-            String response = executeCli(fullPrompt, model);
+            CliResult result = executeCli(fullPrompt, model);
+            spawnMs += result.spawnMs();
+            String response = result.output();
             
             if (response.contains(ERROR_QUOTA_RETRY)) {
-                log.warn("⏳ Quota exhausted for model: {}. Waiting {}ms before fallback...", model, RETRY_DELAY_MS);
-                try { 
-                    Thread.sleep(RETRY_DELAY_MS); 
-                } catch (InterruptedException e) { 
-                    Thread.currentThread().interrupt(); 
-                } 
+                // The next fallback has its own quota; pacing this provider is the admission controller's job
+                log.warn("⏳ Quota exhausted for model: {}. Falling back...", model);
+                throttled = true;
                 continue; // Force fallback
             }
 
-            if (!response.contains(ERROR_QUOTA_TERMINAL) && !response.contains(STATUS_FAILED)) {
+            if (response.contains(ERROR_QUOTA_TERMINAL)) {
+                throttled = true;
+            } else if (!response.contains(STATUS_FAILED)) {
                 this.lastUsedModel = model;
                 String content = response + "\n<!-- MODEL_USED: " + model + " -->";
-                
+                long totalTime = System.currentTimeMillis() - startTime;
+
+                // Spawn overhead is reported apart from model latency (0 when a warm worker absorbed it)
                 return com.example.llama.domain.model.LlmResponse.builder()
                         .content(content)
-                        .totalTimeMs(System.currentTimeMillis() - startTime)
-                        .metadata(Map.of("model", model))
+                        .totalTimeMs(totalTime)
+                        .inputTokens(result.inputTokens())
+                        .outputTokens(result.outputTokens())
+                        .metadata(Map.of("model", model, "spawnMs", spawnMs,
+                                "modelMs", Math.max(0, totalTime - spawnMs), "warmWorker", result.warm(),
+                                "throttled", throttled))
                         .build();
             }
             
             log.warn("⚠️ Model {} failed (Quota or Error). Trying next fallback...", model);
         }
 
-        return com.example.llama.domain.model.LlmResponse.failed("All models exhausted.");
+        return com.example.llama.domain.model.LlmResponse.failed(throttled
+                ? ERROR_QUOTA_RETRY + ": all models exhausted." : "All models exhausted.");
     }
 
-    private String executeCli(String fullPrompt, String model) {
+    private CliResult executeCli(String fullPrompt, String model) {
+        GeminiWorkerPool.Lease lease = null;
         try {
-            ProcessBuilder pb = new ProcessBuilder(CMD_GEMINI, FLAG_MODEL, model, FLAG_APPROVAL, VALUE_YOLO, FLAG_EXTENSIONS, VALUE_NONE);
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
+            lease = workerPool().acquire(model);
+            ChildProcesses.Outcome outcome = ChildProcesses.await(lease.process(), fullPrompt, TIMEOUT);
 
-            try (OutputStream os = process.getOutputStream()) {
-                os.write(fullPrompt.getBytes(StandardCharsets.UTF_8));
-                os.flush();
+            if (outcome.timedOut()) {
+                return new CliResult(STATUS_FAILED.replace("</status>", "</status><code>"
+                        + (outcome.deadlineExceeded() ? ERROR_DEADLINE : "Timeout") + "</code>"), lease.warm(), lease.spawnMs());
             }
 
-            String output;
-            try (InputStream is = process.getInputStream()) {
-                output = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            if (outcome.exitCode() != 0) {
+                return new CliResult(STATUS_FAILED.replace("</status>", "</status><code>" + outcome.output() + "</code>"),
+                        lease.warm(), lease.spawnMs());
             }
 
-            boolean finished = process.waitFor(TIMEOUT_MINUTES, TimeUnit.MINUTES);
-            if (!finished) {
-                process.destroyForcibly();
-                return STATUS_FAILED.replace("</status>", "</status><code>Timeout</code>");
-            }
+            logger.logInteraction("GeminiCLI:" + model, fullPrompt, outcome.output());
+            return parse(outcome.output(), lease.warm(), lease.spawnMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CliResult(STATUS_FAILED, lease != null && lease.warm(), lease != null ? lease.spawnMs() : 0);
+        } catch (Exception e) {
+            log.error("CLI Execution failed", e);
+            return new CliResult(STATUS_FAILED, lease != null && lease.warm(), lease != null ? lease.spawnMs() : 0);
+        }
+    }
 
-            if (process.exitValue() != 0) {
-                return STATUS_FAILED.replace("</status>", "</status><code>" + output + "</code>");
+    /**
+     * Reads {@code --output-format json}: the answer is {@code response}, token usage is summed over
+     * {@code stats.models.*.tokens} (fallbacks inside the CLI may touch several models).
+     * Plain text output (older CLIs) is taken as the answer without usage. stderr is merged into the
+     * output, so log lines before the JSON document are skipped.
+     */
+    private static CliResult parse(String output, boolean warm, long spawnMs) {
+        int start = output.startsWith("{") ? 0 : output.indexOf("\n{") + 1;
+        if (start == 0 && !output.startsWith("{")) {
+            return new CliResult(output, warm, spawnMs);
+        }
+        try {
+            JsonNode root = JSON.readTree(output.substring(start));
+            if (!root.hasNonNull("response")) {
+                return new CliResult(output, warm, spawnMs);
+            }
+            int inputTokens = 0;
+            int outputTokens = 0;
+            for (JsonNode model : root.path("stats").path("models")) {
+                inputTokens += model.path("tokens").path("prompt").asInt(0);
+                outputTokens += model.path("tokens").path("candidates").asInt(0);
             }
+            return new CliResult(root.get("response").asText(), warm, spawnMs, inputTokens, outputTokens);
+        } catch (JsonProcessingException e) {
+            return new CliResult(output, warm, spawnMs);
+        }
+    }
 
-            logger.logInteraction("GeminiCLI:" + model, fullPrompt, output);
-            return output;
-        } catch (Exception e) {
-            log.error("CLI Execution failed", e);
-            return STATUS_FAILED;
+    private synchronized GeminiWorkerPool workerPool() {
+        if (pool == null) {
+            pool = new GeminiWorkerPool(this::command, poolSize, maxIdle,
+                    new ProcessBuilder(CMD_GEMINI, "--version").redirectErrorStream(true));
         }
+        return pool;
+    }
+
+    private ProcessBuilder command(String model) {
+        return new ProcessBuilder(CMD_GEMINI, FLAG_MODEL, model, FLAG_APPROVAL, VALUE_YOLO, FLAG_EXTENSIONS, VALUE_NONE,
+                FLAG_OUTPUT, VALUE_JSON)
+                .redirectErrorStream(true);
     }
 
     public String getLastUsedModel() {
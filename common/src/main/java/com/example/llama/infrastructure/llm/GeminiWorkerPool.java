@@ -0,0 +1,168 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.infrastructure.execution.ChildProcesses;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pre-started Gemini CLI workers, so a prompt does not wait for Node.js startup and CLI init.
+ * <p>
+ * The CLI has no request loop: a worker is a process started ahead of time that blocks on stdin.
+ * Closing stdin frames the request, process exit frames the response, so every worker serves exactly
+ * one prompt and a replacement is started in the background as soon as it is leased. Workers are
+ * health-checked (alive, younger than {@code maxIdle}) before use and recycled otherwise.
+ * <p>
+ * Startup overhead is calibrated once by timing {@code --version}; a cold lease reports it as its
+ * spawn cost, a warm lease reports none, so metrics can separate it from model latency.
+ */
+@Slf4j
+final class GeminiWorkerPool implements AutoCloseable {
+
+    private static final Duration CALIBRATION_TIMEOUT = Duration.ofSeconds(30);
+
+    private record Worker(Process process, long startedAtNanos) {
+    }
+
+    /**
+     * @param spawnMs Startup overhead this request paid (0 when a warm worker absorbed it).
+     */
+    record Lease(Process process, boolean warm, long spawnMs) {
+    }
+
+    record PoolStats(long warmLeases, long coldLeases, long recycled, long startupMs) {
+    }
+
+    private final Function<String, ProcessBuilder> commandForModel;
+    private final int warmPerModel;
+    private final Duration maxIdle;
+    private final Map<String, Deque<Worker>> idle = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> warming = new ConcurrentHashMap<>();
+    private final ExecutorService spawner = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong warmLeases = new AtomicLong();
+    private final AtomicLong coldLeases = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong startupMs = new AtomicLong(-1);
+    private volatile boolean closed;
+
+    /**
+     * @param commandForModel CLI invocation for a model; the prompt is fed through stdin.
+     * @param warmPerModel    Idle workers kept per model that has been used at least once.
+     * @param calibration     Command whose run time approximates CLI startup, null to skip.
+     */
+    GeminiWorkerPool(Function<String, ProcessBuilder> commandForModel, int warmPerModel, Duration maxIdle,
+                     ProcessBuilder calibration) {
+        this.commandForModel = commandForModel;
+        this.warmPerModel = warmPerModel;
+        this.maxIdle = maxIdle;
+        if (calibration != null) {
+            spawner.submit(() -> calibrate(calibration));
+        }
+    }
+
+    Lease acquire(String model) throws IOException {
+        Deque<Worker> queue = idle.computeIfAbsent(model, m -> new ConcurrentLinkedDeque<>());
+        Worker worker;
+        while ((worker = queue.pollFirst()) != null) {
+            if (isHealthy(worker)) {
+                warmLeases.incrementAndGet();
+                refill(model);
+                return new Lease(worker.process(), true, 0);
+            }
+            retire(worker);
+        }
+
+        Process process = commandForModel.apply(model).start();
+        coldLeases.incrementAndGet();
+        refill(model);
+        return new Lease(process, false, Math.max(0, startupMs.get()));
+    }
+
+    PoolStats stats() {
+        return new PoolStats(warmLeases.get(), coldLeases.get(), recycled.get(), startupMs.get());
+    }
+
+    int idleWorkers(String model) {
+        Deque<Worker> queue = idle.get(model);
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        spawner.shutdownNow();
+        idle.values().forEach(queue -> {
+            Worker worker;
+            while ((worker = queue.pollFirst()) != null) {
+                ChildProcesses.killTree(worker.process());
+            }
+        });
+        log.info("🧊 Gemini worker pool closed: {} warm / {} cold leases, {} recycled, startup ~{} ms.",
+                warmLeases.get(), coldLeases.get(), recycled.get(), startupMs.get());
+    }
+
+    private boolean isHealthy(Worker worker) {
+        return worker.process().isAlive()
+                && System.nanoTime() - worker.startedAtNanos() < maxIdle.toNanos();
+    }
+
+    private void retire(Worker worker) {
+        recycled.incrementAndGet();
+        ChildProcesses.killTree(worker.process());
+    }
+
+    private void refill(String model) {
+        if (closed || warmPerModel <= 0) return;
+        Deque<Worker> queue = idle.get(model);
+        AtomicInteger inFlight = warming.computeIfAbsent(model, m -> new AtomicInteger());
+        while (queue.size() + inFlight.get() < warmPerModel) {
+            inFlight.incrementAndGet();
+            try {
+                spawner.submit(() -> {
+                    try {
+                        Worker worker = new Worker(commandForModel.apply(model).start(), System.nanoTime());
+                        queue.addLast(worker);
+                        if (closed) {
+                            // Lost the race with close(): do not leave a worker waiting on stdin
+                            queue.remove(worker);
+                            ChildProcesses.killTree(worker.process());
+                        }
+                    } catch (IOException e) {
+                        log.warn("⚠️ Could not pre-start a Gemini worker for {}: {}", model, e.getMessage());
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (Exception rejected) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void calibrate(ProcessBuilder calibration) {
+        long start = System.nanoTime();
+        try {
+            ChildProcesses.Outcome outcome = ChildProcesses.run(calibration, null, CALIBRATION_TIMEOUT);
+            if (outcome.isSuccess()) {
+                startupMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                log.info("⏱️ Gemini CLI startup overhead: ~{} ms per process.", startupMs.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Gemini startup calibration failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when {@link RoutingLlmClient} hedges a request on a second provider ({@code llama.hedge}).
+ * The delay is the observed TTFT quantile of the primary (p90 by default), so only the slow tail is
+ * duplicated; the hedge budget keeps hedged requests below {@code max-rate} of all routed requests.
+ * Requests pinned to a provider ({@link LlmContextHolder#isProviderPinned()}) are never hedged.
+ */
+@Component
+@RequiredArgsConstructor
+public class HedgingPolicy {
+
+    private static final int WINDOW = 200;
+
+    private final LlmProviderProperties properties;
+    private final Map<String, SampleWindow> ttft = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * @param hedgeWins Hedges that finished first and replaced the primary's answer.
+     */
+    public record HedgeStats(boolean enabled, long requests, long hedged, long hedgeWins, double maxRate) {
+        public double hedgeRate() {
+            return requests > 0 ? (double) hedged / requests : 0;
+        }
+    }
+
+    /**
+     * @return The provider that receives hedges of {@code provider}, null when hedging is off, the caller
+     * pinned the provider, or there is none.
+     */
+    public String secondaryFor(String provider) {
+        LlmProviderProperties.HedgeConfig config = properties.getHedge();
+        if (!config.isEnabled() || LlmContextHolder.isProviderPinned()) return null;
+        String primary = properties.resolveName(provider);
+        if (config.getSecondary() != null && !config.getSecondary().isBlank()) {
+            return config.getSecondary().equalsIgnoreCase(primary) ? null : config.getSecondary().toLowerCase();
+        }
+        return properties.getProviders().stream()
+                .map(LlmProviderProperties.ProviderConfig::getName)
+                .filter(name -> !name.equalsIgnoreCase(primary))
+                .map(String::toLowerCase)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * @return How long to wait for the primary's first token, empty until enough TTFT samples were seen.
+     */
+    public Optional<Duration> threshold(String provider) {
+        LlmProviderProperties.HedgeConfig config = properties.getHedge();
+        SampleWindow window = ttft.get(properties.resolveName(provider));
+        int samples = window != null ? window.size() : 0;
+        if (samples < config.getMinSamples()) return Optional.empty();
+
+        long quantileMs = samples > 0 ? (long) window.quantile(config.getQuantile()) : 0;
+        return Optional.of(Duration.ofMillis(Math.max(config.getMinDelay().toMillis(), quantileMs)));
+    }
+
+    public void recordTtft(String provider, long ttftMs) {
+        ttft.computeIfAbsent(properties.resolveName(provider), p -> new SampleWindow(WINDOW)).add(ttftMs);
+    }
+
+    public void recordRequest() {
+        requests.incrementAndGet();
+    }
+
+    /**
+     * Takes one hedge from the budget, false when hedging now would exceed {@code max-rate}.
+     */
+    public synchronized boolean tryHedge() {
+        if (hedged.get() + 1 > properties.getHedge().getMaxRate() * requests.get()) {
+            return false;
+        }
+        hedged.incrementAndGet();
+        return true;
+    }
+
+    public void recordHedgeWin() {
+        hedgeWins.incrementAndGet();
+    }
+
+    public HedgeStats stats() {
+        LlmProviderProperties.HedgeConfig config = properties.getHedge();
+        return new HedgeStats(config.isEnabled(), requests.get(), hedged.get(), hedgeWins.get(), config.getMaxRate());
+    }
+}
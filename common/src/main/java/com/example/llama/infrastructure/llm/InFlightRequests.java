@@ -0,0 +1,110 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.utils.Deadline;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for LLM calls: while a call for a key is running, further calls with the same key wait
+ * for it and receive its response (tagged {@code coalesced}) instead of going upstream themselves.
+ * Like a cache hit, a shared copy carries no input/output tokens: only the leader's response is billed, and
+ * the waiters' share shows up in {@link #savedTokens()}, so per-file token totals count each call once.
+ * A waiter gives up at its own {@link Deadline}; when the leading call was cancelled (its thread
+ * interrupted, e.g. a lost hedge or race), waiters make their own call instead of sharing the cancellation.
+ * The same holds for a response the leader's {@link com.example.llama.domain.model.StopCondition} cut short:
+ * the key does not cover the stop condition, so a waiter may want the full text.
+ */
+final class InFlightRequests {
+
+    private static final String ERROR_DEADLINE = "Deadline exceeded";
+
+    private final Map<String, CompletableFuture<LlmResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong savedTokens = new AtomicLong();
+
+    /**
+     * @param onChunk Receives a shared response as one chunk, null when the caller does not stream.
+     */
+    LlmResponse execute(String key, Consumer<String> onChunk, Supplier<LlmResponse> call) {
+        CompletableFuture<LlmResponse> mine = new CompletableFuture<>();
+        CompletableFuture<LlmResponse> leading = inFlight.putIfAbsent(key, mine);
+        if (leading != null) {
+            LlmResponse shared;
+            try {
+                shared = await(leading);
+            } catch (CancellationException e) {
+                return call.get();
+            }
+            if (onChunk != null && shared != null && shared.content() != null) {
+                onChunk.accept(shared.content());
+            }
+            return shared;
+        }
+        try {
+            LlmResponse response = call.get();
+            if (Thread.currentThread().isInterrupted() || (response != null && response.savedTokens() > 0)) {
+                mine.cancel(false);
+            } else {
+                mine.complete(response);
+            }
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    long coalesced() {
+        return coalesced.get();
+    }
+
+    long savedTokens() {
+        return savedTokens.get();
+    }
+
+    void reset() {
+        coalesced.set(0);
+        savedTokens.set(0);
+    }
+
+    private LlmResponse await(CompletableFuture<LlmResponse> leading) {
+        Deadline deadline = Deadline.current();
+        LlmResponse response;
+        try {
+            response = deadline.isBounded()
+                    ? leading.get(deadline.remaining().toMillis(), TimeUnit.MILLISECONDS)
+                    : leading.get();
+        } catch (TimeoutException e) {
+            return LlmResponse.failed(ERROR_DEADLINE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced LLM response", e);
+        }
+
+        coalesced.incrementAndGet();
+        if (response == null) {
+            return null;
+        }
+        savedTokens.addAndGet(response.inputTokens() + response.outputTokens());
+        Map<String, Object> metadata = new HashMap<>(response.metadata() != null ? response.metadata() : Map.of());
+        metadata.put("coalesced", true);
+        return new LlmResponse(response.content(), response.ttftMs(), response.totalTimeMs(), 0, 0,
+                response.savedTokens(), metadata);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.llama.infrastructure.llm;
 
 public class LlmContextHolder {
     private static final ThreadLocal<String> currentProvider = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> cacheBypass = new ThreadLocal<>();
 
     public static void setProvider(String provider) {
         currentProvider.set(provider);
@@ -11,7 +12,32 @@ public class LlmContextHolder {
         return currentProvider.get();
     }
 
+    /**
+     * A provider was chosen explicitly (e.g. {@code --provider}, benchmark runs): retries and hedges must
+     * not move the call to another one.
+     */
+    public static boolean isProviderPinned() {
+        String provider = currentProvider.get();
+        return provider != null && !provider.isBlank();
+    }
+
+    /**
+     * Makes LLM calls of the current thread skip the response cache (they still refresh it).
+     */
+    public static void setCacheBypass(boolean bypass) {
+        if (bypass) {
+            cacheBypass.set(Boolean.TRUE);
+        } else {
+            cacheBypass.remove();
+        }
+    }
+
+    public static boolean isCacheBypassed() {
+        return Boolean.TRUE.equals(cacheBypass.get());
+    }
+
     public static void clear() {
         currentProvider.remove();
+        cacheBypass.remove();
     }
 }
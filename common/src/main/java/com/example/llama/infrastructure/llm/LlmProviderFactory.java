@@ -2,43 +2,104 @@ package com.example.llama.infrastructure.llm;
 
 import com.example.llama.domain.service.LlmClient;
 import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Registry of one client per configured provider. Each entry is derived once from its type's bean
+ * ({@code <type>LlmClient}) with the provider's settings, so two providers of the same type keep their own
+ * model and connection pool and concurrent pipelines never reconfigure a shared client.
+ * <p>
+ * Every {@code llama.resilience.health-interval} the registered clients are probed
+ * ({@link ConfigurableLlmClient#isHealthy()}) and the result is fed to their {@link ProviderCircuitBreakers circuit}.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class LlmProviderFactory {
 
     private final ApplicationContext applicationContext;
     private final LlmProviderProperties properties;
+    private final ProviderCircuitBreakers circuitBreakers;
+
+    private final Map<String, LlmClient> clients = new ConcurrentHashMap<>();
+    private ScheduledExecutorService healthProbe;
 
     public LlmClient getClient(String providerName) {
-        String name = (providerName != null && !providerName.isBlank()) 
-                ? providerName : properties.getDefaultProvider();
-        
-        Optional<LlmProviderProperties.ProviderConfig> configOpt = properties.getProviders().stream()
-                .filter(p -> p.getName().equalsIgnoreCase(name))
-                .findFirst();
+        return clients.computeIfAbsent(properties.resolveName(providerName), this::create);
+    }
 
-        if (configOpt.isEmpty()) {
-            throw new IllegalArgumentException("Unknown LLM provider: " + name);
+    /**
+     * Builds the clients of all configured providers and starts the background health probe.
+     */
+    @PostConstruct
+    void start() {
+        for (LlmProviderProperties.ProviderConfig config : properties.getProviders()) {
+            try {
+                getClient(config.getName());
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Provider [{}] is not available: {}", config.getName(), e.getMessage());
+            }
+        }
+        Duration interval = properties.getResilience().getHealthInterval();
+        if (interval != null && !interval.isZero() && !interval.isNegative()) {
+            healthProbe = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("llm-health-probe").factory());
+            healthProbe.scheduleWithFixedDelay(this::probeAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
         }
+    }
 
-        LlmProviderProperties.ProviderConfig config = configOpt.get();
-        
-        // Resolve bean by TYPE (e.g. gemini, ollama)
-        // This allows multiple instances of the same type if needed
-        String beanName = config.getType() + "LlmClient";
-        LlmClient client = applicationContext.getBean(beanName, LlmClient.class);
-        
-        // If the client supports dynamic config, inject it (optional refinement)
-        if (client instanceof ConfigurableLlmClient configurable) {
-            configurable.configure(config.getSettings());
+    @PreDestroy
+    void stop() {
+        if (healthProbe != null) {
+            healthProbe.shutdownNow();
         }
+        clients.values().forEach(client -> {
+            if (client instanceof ConfigurableLlmClient configurable) {
+                configurable.close();
+            }
+        });
+        clients.clear();
+    }
 
-        return client;
+    void probeAll() {
+        clients.forEach((name, client) -> {
+            if (!(client instanceof ConfigurableLlmClient configurable)) return;
+            boolean healthy;
+            try {
+                healthy = configurable.isHealthy();
+            } catch (RuntimeException e) {
+                healthy = false;
+            }
+            if (!healthy) {
+                log.warn("🩺 Health probe of provider [{}] failed.", name);
+            }
+            circuitBreakers.of(name).onProbe(healthy);
+        });
+    }
+
+    private LlmClient create(String name) {
+        LlmProviderProperties.ProviderConfig config = properties.getProviders().stream()
+                .filter(p -> p.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown LLM provider: " + name));
+
+        // Resolve the template bean by TYPE (e.g. gemini, ollama); providers sharing a type get their own instance
+        String beanName = config.getType() + "LlmClient";
+        LlmClient template = applicationContext.getBean(beanName, LlmClient.class);
+        if (template instanceof ConfigurableLlmClient configurable) {
+            return configurable.withSettings(config.getSettings() != null ? config.getSettings() : Map.of());
+        }
+        return template;
     }
 }
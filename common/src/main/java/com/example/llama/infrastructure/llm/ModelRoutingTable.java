@@ -0,0 +1,197 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.AgentType;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.model.benchmark.BenchmarkResult;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Picks the provider per {@link AgentType} and {@link Intelligence.ComponentType} ({@code llama.routing}).
+ * A provider entry carries its own model, so a route to {@code gemini-flash} or {@code ollama-large}
+ * chooses provider and model at once (both Ollama client types send their entry's {@code model} with
+ * every request).
+ * <p>
+ * Routes are looked up from the most specific key: agent on component, agent on any component, workload
+ * on component, workload on any component. Learned routes come from {@link #learn(List)} (benchmark
+ * scenarios) and are kept in {@code table-file}; routes in the configuration override them.
+ */
+@Slf4j
+@Component
+public class ModelRoutingTable {
+
+    private static final String ANY = "*";
+
+    private final LlmProviderProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private volatile Map<String, Route> learned;
+
+    /**
+     * @param reason Benchmark figures the route was chosen on (empty for configured routes).
+     */
+    public record Route(String role, String component, String provider, String reason) {
+    }
+
+    record RoutingFile(List<Route> routes) {
+    }
+
+    public ModelRoutingTable(LlmProviderProperties properties) {
+        this.properties = properties;
+    }
+
+    public Optional<String> providerFor(AgentType agentType, Intelligence.ComponentType componentType) {
+        if (!properties.getRouting().isEnabled() || agentType == null) {
+            return Optional.empty();
+        }
+        String component = componentType != null ? componentType.name() : ANY;
+        Map<String, Route> routes = routes();
+        for (String key : List.of(
+                key(agentType.name(), component), key(agentType.name(), ANY),
+                key(agentType.workload().name(), component), key(agentType.workload().name(), ANY))) {
+            Route route = routes.get(key);
+            if (route != null) {
+                return Optional.of(route.provider());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The effective table: learned routes overlaid with the configured ones.
+     */
+    public Map<String, Route> routes() {
+        Map<String, Route> routes = new LinkedHashMap<>(learned());
+        for (LlmProviderProperties.RouteConfig config : properties.getRouting().getRoutes()) {
+            String role = config.getAgent() != null && !config.getAgent().isBlank() ? config.getAgent() : config.getWorkload();
+            if (role == null || config.getProvider() == null) continue;
+            String component = config.getComponent() != null ? config.getComponent() : ANY;
+            routes.put(key(role, component), new Route(role.toUpperCase(), component.toUpperCase(), config.getProvider(), ""));
+        }
+        return routes;
+    }
+
+    /**
+     * Derives routes from benchmark scenario results and stores them in {@code table-file}.
+     * Classification and review go to the fastest provider that kept the response format; planning and
+     * generation of each component go to the provider with the best compile rate, then the fastest.
+     */
+    public synchronized List<Route> learn(List<BenchmarkResult> scenarioResults) {
+        List<BenchmarkResult> usable = scenarioResults.stream()
+                .filter(r -> r.getProvider() != null && r.getErrorMessage() == null)
+                .toList();
+        List<Route> routes = new ArrayList<>();
+
+        // Per provider over all scenarios: share of well-formed answers first, then mean first-token latency
+        usable.stream()
+                .collect(Collectors.groupingBy(BenchmarkResult::getProvider, LinkedHashMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .min(Comparator.<Map.Entry<String, List<BenchmarkResult>>>comparingDouble(e -> -formatRate(e.getValue()))
+                        .thenComparingDouble(e -> meanLatency(e.getValue())))
+                .ifPresent(best -> {
+                    String reason = String.format("format %.0f%%, ttft %.0f ms",
+                            formatRate(best.getValue()) * 100, meanLatency(best.getValue()));
+                    routes.add(new Route(AgentType.Workload.CLASSIFY.name(), ANY, best.getKey(), reason));
+                    routes.add(new Route(AgentType.Workload.REVIEW.name(), ANY, best.getKey(), reason));
+                });
+
+        Map<Intelligence.ComponentType, List<BenchmarkResult>> byComponent = usable.stream()
+                .filter(r -> r.getComponentType() != null)
+                .collect(Collectors.groupingBy(BenchmarkResult::getComponentType, LinkedHashMap::new, Collectors.toList()));
+        byComponent.forEach((component, results) ->
+                pick(results, BenchmarkResult::isCompileSuccess, Comparator.comparingLong(BenchmarkResult::getTotalGenerationTimeMs))
+                        .ifPresent(best -> {
+                            String reason = String.format("compiles in %d ms, %.1f tok/s",
+                                    best.getTotalGenerationTimeMs(), best.getTps());
+                            routes.add(new Route(AgentType.Workload.PLAN.name(), component.name(), best.getProvider(), reason));
+                            routes.add(new Route(AgentType.Workload.GENERATE.name(), component.name(), best.getProvider(), reason));
+                        }));
+
+        Map<String, Route> table = new LinkedHashMap<>();
+        routes.forEach(route -> table.put(key(route.role(), route.component()), route));
+        learned = table;
+        save(routes);
+        routes.forEach(route -> log.info("🧭 Route {} on {} -> {} ({})", route.role(), route.component(), route.provider(), route.reason()));
+        return routes;
+    }
+
+    private Optional<BenchmarkResult> pick(List<BenchmarkResult> results, Predicate<BenchmarkResult> passed,
+                                           Comparator<BenchmarkResult> faster) {
+        return results.stream()
+                .filter(passed)
+                .min(faster)
+                .or(() -> results.stream().min(faster));
+    }
+
+    private double formatRate(List<BenchmarkResult> results) {
+        return results.stream().filter(BenchmarkResult::isFormatSuccess).count() / (double) results.size();
+    }
+
+    private double meanLatency(List<BenchmarkResult> results) {
+        return results.stream()
+                .mapToLong(r -> r.getTtftMs() > 0 ? r.getTtftMs() : r.getTotalGenerationTimeMs())
+                .average()
+                .orElse(Double.MAX_VALUE);
+    }
+
+    private Map<String, Route> learned() {
+        Map<String, Route> table = learned;
+        if (table == null) {
+            synchronized (this) {
+                if (learned == null) {
+                    learned = load();
+                }
+                table = learned;
+            }
+        }
+        return table;
+    }
+
+    private Map<String, Route> load() {
+        Path file = Paths.get(properties.getRouting().getTableFile());
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            RoutingFile routingFile = objectMapper.readValue(file.toFile(), RoutingFile.class);
+            Map<String, Route> table = new LinkedHashMap<>();
+            routingFile.routes().forEach(route -> table.put(key(route.role(), route.component()), route));
+            log.info("🧭 Loaded {} learned route(s) from {}", table.size(), file);
+            return table;
+        } catch (IOException e) {
+            log.warn("⚠️ Could not read routing table {}: {}", file, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void save(List<Route> routes) {
+        Path file = Paths.get(properties.getRouting().getTableFile());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            objectMapper.writeValue(file.toFile(), new RoutingFile(routes));
+        } catch (IOException e) {
+            log.warn("⚠️ Could not save routing table {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String key(String role, String component) {
+        return role.toUpperCase() + "/" + component.toUpperCase();
+    }
+}
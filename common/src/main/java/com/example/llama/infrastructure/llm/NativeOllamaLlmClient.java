@@ -0,0 +1,327 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.domain.service.LlmClient;
+import com.example.llama.infrastructure.io.InteractionLogger;
+import com.example.llama.utils.Deadline;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Native Ollama {@code /api/chat} client on Reactor Netty.
+ * Requests share a pooled connection provider with HTTP keep-alive; the pool size is the bound on
+ * in-flight requests, and further requests wait for a connection without holding a thread.
+ * {@link #stream(LlmPrompt)} and {@link #generateAsync(LlmPrompt)} never block, so many generations
+ * can share the Netty event loop; {@link #generate(LlmPrompt)} blocks only the calling (virtual) thread.
+ * <p>
+ * With {@code prefix-session} on (off by default), the class context is sent as its own well-formed user
+ * message ({@link LlmUserRequest#contextXml()}) ahead of the method's ({@link LlmUserRequest#methodXml()}).
+ * All calls for a class then tokenize identically up to the method, and a model kept loaded
+ * ({@code keep-alive}) reuses the KV cache of that prefix instead of re-encoding it.
+ * <p>
+ * A stream that stays silent for {@code idle-timeout} after its first chunk is dropped; the whole call is
+ * bounded by the current {@link Deadline}, which {@link RequestTimeouts} narrows per request.
+ */
+@Slf4j
+@Component("ollamaNativeLlmClient")
+public class NativeOllamaLlmClient implements LlmClient, ConfigurableLlmClient {
+
+    private static final String ERROR_DEADLINE = "Deadline exceeded";
+    private static final int DEFAULT_MAX_CONNECTIONS = 8;
+    private static final int MAX_PENDING_ACQUIRES = 256;
+    private static final Duration PENDING_ACQUIRE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(60);
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient.Builder webClientBuilder;
+    private final InteractionLogger logger;
+
+    private final String baseUrl;
+    private final String model;
+    private final String keepAlive;
+    private final String apiKey;
+    private final int maxConnections;
+    private final boolean prefixSession;
+    private final Duration connectTimeout;
+    private final Duration idleTimeout;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @Autowired
+    public NativeOllamaLlmClient(WebClient.Builder webClientBuilder, InteractionLogger logger) {
+        this(webClientBuilder, logger, "http://localhost:11434", "qwen3-coder:480b-cloud", "-1",
+                System.getenv("OLLAMA_API_KEY"), DEFAULT_MAX_CONNECTIONS, false,
+                DEFAULT_CONNECT_TIMEOUT, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    private NativeOllamaLlmClient(WebClient.Builder webClientBuilder, InteractionLogger logger, String baseUrl,
+                                  String model, String keepAlive, String apiKey, int maxConnections,
+                                  boolean prefixSession, Duration connectTimeout, Duration idleTimeout) {
+        this.webClientBuilder = webClientBuilder;
+        this.logger = logger;
+        this.baseUrl = baseUrl;
+        this.model = model;
+        this.keepAlive = keepAlive;
+        this.apiKey = apiKey;
+        this.maxConnections = maxConnections;
+        this.prefixSession = prefixSession;
+        this.connectTimeout = connectTimeout;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record ChatRequest(String model, List<Message> messages, boolean stream,
+                       @JsonProperty("keep_alive") String keepAlive) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Message(String role, String content) {
+    }
+
+    /**
+     * One NDJSON line of a streamed chat. Token counts only arrive on the final ({@code done}) chunk.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatChunk(String model, Message message, boolean done,
+                     @JsonProperty("prompt_eval_count") Integer promptEvalCount,
+                     @JsonProperty("eval_count") Integer evalCount,
+                     String error) {
+        String text() {
+            return message != null && message.content() != null ? message.content() : "";
+        }
+    }
+
+    @Override
+    public NativeOllamaLlmClient withSettings(Map<String, String> settings) {
+        return new NativeOllamaLlmClient(webClientBuilder, logger,
+                settings.getOrDefault("base-url", baseUrl),
+                settings.getOrDefault("model", model),
+                settings.getOrDefault("keep-alive", keepAlive),
+                settings.getOrDefault("api-key", apiKey),
+                Integer.parseInt(settings.getOrDefault("max-connections", String.valueOf(maxConnections))),
+                Boolean.parseBoolean(settings.getOrDefault("prefix-session", String.valueOf(prefixSession))),
+                duration(settings.get("connect-timeout"), connectTimeout),
+                duration(settings.get("idle-timeout"), idleTimeout));
+    }
+
+    /**
+     * {@code GET /api/version}: answers without loading a model.
+     */
+    @Override
+    public boolean isHealthy() {
+        try {
+            webClient().get()
+                    .uri("/api/version")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(PROBE_TIMEOUT);
+            return true;
+        } catch (Exception e) {
+            log.debug("Ollama health probe failed for {}: {}", baseUrl, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public LlmResponse generate(LlmPrompt prompt) {
+        return generate(prompt, chunk -> { }, StopCondition.never());
+    }
+
+    @Override
+    public LlmResponse generate(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        LlmResponse response = generateAsync(prompt, onChunk, stopCondition).block();
+        return response != null ? response : LlmResponse.failed("Empty Ollama response");
+    }
+
+    /**
+     * Streams the generated text piece by piece. Cancelling the subscription aborts the HTTP exchange.
+     */
+    public Flux<String> stream(LlmPrompt prompt) {
+        Deadline deadline = Deadline.current();
+        if (deadline.isExpired()) {
+            return Flux.error(new IllegalStateException(ERROR_DEADLINE));
+        }
+        return chunks(prompt, model, deadline)
+                .map(ChatChunk::text)
+                .filter(text -> !text.isEmpty());
+    }
+
+    public Mono<LlmResponse> generateAsync(LlmPrompt prompt) {
+        return generateAsync(prompt, chunk -> { }, StopCondition.never());
+    }
+
+    /**
+     * Generates without blocking. Failures are reported as {@link LlmResponse#failed(String)}, never as errors.
+     * Once {@code stopCondition} matches, the exchange is cancelled and the response ends at the stop point.
+     */
+    public Mono<LlmResponse> generateAsync(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        Deadline deadline = Deadline.current();
+        if (deadline.isExpired()) {
+            return Mono.just(LlmResponse.failed(ERROR_DEADLINE));
+        }
+        String requestModel = model;
+        log.info("🚀 Generating with native Ollama model: {}", requestModel);
+
+        return Mono.defer(() -> {
+            long startTime = System.currentTimeMillis();
+            AtomicLong ttft = new AtomicLong(0);
+            StreamAccumulator accumulator = new StreamAccumulator(onChunk, stopCondition);
+            ChatChunk[] last = new ChatChunk[1];
+
+            return chunks(prompt, requestModel, deadline)
+                    .doOnNext(chunk -> {
+                        if (ttft.get() == 0) {
+                            ttft.set(System.currentTimeMillis() - startTime);
+                        }
+                        accumulator.accept(chunk.text());
+                        last[0] = chunk;
+                    })
+                    .takeUntil(chunk -> accumulator.isStopped())
+                    .then(Mono.fromSupplier(() -> {
+                        if (accumulator.isStopped()) {
+                            log.debug("✂️ Stop condition matched. Ollama stream cancelled after {} chars.", accumulator.length());
+                        } else if (last[0] == null || !last[0].done()) {
+                            if (deadline.isExpired()) {
+                                log.warn("⏰ Deadline exceeded. Ollama stream cancelled after {} chars.", accumulator.length());
+                                return LlmResponse.failed(ERROR_DEADLINE);
+                            }
+                            log.warn("⚠️ Ollama stream ended without a final chunk after {} chars.", accumulator.length());
+                        }
+                        return toResponse(prompt, requestModel, accumulator, last[0],
+                                ttft.get(), System.currentTimeMillis() - startTime);
+                    }).subscribeOn(Schedulers.boundedElastic()));
+        }).onErrorResume(e -> {
+            log.error("Failed to generate with native Ollama: {}", e.getMessage());
+            return Mono.just(LlmResponse.failed(e.getMessage()));
+        });
+    }
+
+    @Override
+    @PreDestroy
+    public synchronized void close() {
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().subscribe();
+            connectionProvider = null;
+            webClient = null;
+        }
+    }
+
+    private Flux<ChatChunk> chunks(LlmPrompt prompt, String requestModel, Deadline deadline) {
+        ChatRequest request = new ChatRequest(requestModel, messages(prompt), true, keepAlive);
+
+        Flux<ChatChunk> flux = webClient().post()
+                .uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(ChatChunk.class)
+                .handle((ChatChunk chunk, SynchronousSink<ChatChunk> sink) -> {
+                    if (chunk.error() != null) {
+                        sink.error(new IllegalStateException("Ollama error: " + chunk.error()));
+                    } else {
+                        sink.next(chunk);
+                    }
+                })
+                // the first chunk may take as long as the request deadline allows, later ones only idle-timeout
+                .timeout(Mono.never(), chunk -> Mono.delay(idleTimeout))
+                .onErrorMap(TimeoutException.class,
+                        e -> new IllegalStateException("Ollama stream idle for more than " + idleTimeout.toSeconds() + " s"));
+        // take(remaining) cancels the in-flight exchange once the file's deadline runs out
+        return deadline.isBounded() ? flux.take(deadline.remaining()) : flux;
+    }
+
+    List<Message> messages(LlmPrompt prompt) {
+        Message system = new Message("system", prompt.getSystemDirective().toXml());
+        if (!prefixSession) {
+            return List.of(system, new Message("user", prompt.getUserRequest().toXml()));
+        }
+        return List.of(system,
+                new Message("user", prompt.getUserRequest().contextXml()),
+                new Message("user", prompt.getUserRequest().methodXml()));
+    }
+
+    private LlmResponse toResponse(LlmPrompt prompt, String requestModel, StreamAccumulator accumulator,
+                                   ChatChunk last, long ttftMs, long totalTimeMs) {
+        String systemContent = prompt.getSystemDirective().toXml();
+        String userContent = prompt.getUserRequest().toXml();
+        String content = accumulator.text();
+        // Server counts only arrive with the done chunk; 0 (cancelled stream) is estimated by TokenAccountant
+        int inTokens = last != null && last.promptEvalCount() != null ? last.promptEvalCount() : 0;
+        int outTokens = last != null && last.evalCount() != null ? last.evalCount() : 0;
+
+        logger.logInteraction("OllamaNative:" + requestModel, systemContent + "\n---\n" + userContent, content);
+
+        return LlmResponse.builder()
+                .content(content)
+                .ttftMs(ttftMs)
+                .totalTimeMs(totalTimeMs)
+                .inputTokens(inTokens)
+                .outputTokens(outTokens)
+                .savedTokens(accumulator.savedTokens())
+                .metadata(prefixSession
+                        ? Map.of("model", requestModel, "session", "prefix")
+                        : Map.of("model", requestModel))
+                .build();
+    }
+
+    private static Duration duration(String value, Duration fallback) {
+        return value != null && !value.isBlank() ? DurationStyle.detectAndParse(value) : fallback;
+    }
+
+    private synchronized WebClient webClient() {
+        if (webClient == null) {
+            connectionProvider = ConnectionProvider.builder("ollama-native")
+                    .maxConnections(maxConnections)
+                    .pendingAcquireMaxCount(MAX_PENDING_ACQUIRES)
+                    .pendingAcquireTimeout(PENDING_ACQUIRE_TIMEOUT)
+                    .maxIdleTime(MAX_IDLE_TIME)
+                    .evictInBackground(MAX_IDLE_TIME)
+                    .build();
+            HttpClient httpClient = HttpClient.create(connectionProvider)
+                    .keepAlive(true)
+                    .compress(true)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+
+            WebClient.Builder builder = webClientBuilder.clone()
+                    .baseUrl(baseUrl)
+                    .clientConnector(new ReactorClientHttpConnector(httpClient));
+            if (apiKey != null && !apiKey.isBlank()) {
+                builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey);
+            }
+            webClient = builder.build();
+            log.info("🔌 Ollama connection pool ready: {} (max {} connections)", baseUrl, maxConnections);
+        }
+        return webClient;
+    }
+}
@@ -1,43 +1,48 @@
 package com.example.llama.infrastructure.llm;
 
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
 import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.client.RestClientCustomizer;
 import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
-import java.time.Duration;
-
+/**
+ * HTTP timeouts of the Spring-managed clients (Spring AI Ollama) from {@code llama.timeouts}.
+ * How long a whole generation may take is decided per request by {@link RequestTimeouts}; the sockets only
+ * bound connecting. The silence between two streamed chunks is bounded by {@link CloudOllamaLlmClient} once
+ * the first chunk arrived, since a model may think for longer than that before its first token.
+ */
+@Slf4j
 @Configuration
 public class OllamaConfig {
 
-    // 24 hours in milliseconds - effectively unlimited for this context
-    private static final int UNLIMITED_TIMEOUT_MS = 24 * 60 * 60 * 1000; 
-
     @Bean
-    public RestClientCustomizer restClientCustomizer() {
+    public RestClientCustomizer restClientCustomizer(LlmProviderProperties properties) {
+        LlmProviderProperties.TimeoutConfig timeouts = properties.getTimeouts();
         return restClientBuilder -> {
             SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-            factory.setConnectTimeout(UNLIMITED_TIMEOUT_MS); 
-            factory.setReadTimeout(UNLIMITED_TIMEOUT_MS);
+            factory.setConnectTimeout(timeouts.getConnect());
+            // Blocking calls get no bytes before the answer is complete, so reads may take a whole request
+            factory.setReadTimeout(timeouts.getMaxRequest());
             restClientBuilder.requestFactory(factory);
-            System.out.println("[FACT] RestClientCustomizer: Timeouts set to UNLIMITED (24h).");
+            log.debug("RestClient timeouts: connect {}, read {}", timeouts.getConnect(), timeouts.getMaxRequest());
         };
     }
 
     @Bean
-    public WebClientCustomizer webClientCustomizer() {
+    public WebClientCustomizer webClientCustomizer(LlmProviderProperties properties) {
+        LlmProviderProperties.TimeoutConfig timeouts = properties.getTimeouts();
         return webClientBuilder -> {
             HttpClient httpClient = HttpClient.create()
-                    .responseTimeout(Duration.ofMillis(UNLIMITED_TIMEOUT_MS)) 
-                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, UNLIMITED_TIMEOUT_MS); 
-            
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.getConnect().toMillis());
+
             webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient));
-            System.out.println("[FACT] WebClientCustomizer: Timeouts set to UNLIMITED (24h).");
+            log.debug("WebClient timeouts: connect {}", timeouts.getConnect());
         };
     }
 }
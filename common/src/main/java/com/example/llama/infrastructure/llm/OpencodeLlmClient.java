@@ -1,69 +1,121 @@
 package com.example.llama.infrastructure.llm;
 
-import com.example.llama.domain.model.prompt.LlmClassContext;
-import com.example.llama.domain.model.prompt.LlmPersona;
 import com.example.llama.domain.model.prompt.LlmPrompt;
-import com.example.llama.domain.model.prompt.LlmSystemDirective;
-import com.example.llama.domain.model.prompt.LlmUserRequest;
 import com.example.llama.domain.service.LlmClient;
+import com.example.llama.infrastructure.execution.ChildProcesses;
 import com.example.llama.infrastructure.io.InteractionLogger;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * LLM Client implementation using the OpenCode CLI ({@code opencode run}).
+ * The prompt is written to the CLI's stdin rather than passed as an argument, so its size is not bound by
+ * ARG_MAX, and the output is drained while the process runs, under the current deadline.
+ * With {@code debug-dir} set, each request's prompt and response are saved to their own files in the
+ * background; calls share no state and may run concurrently.
+ */
 @Slf4j
-@Component
-@RequiredArgsConstructor
-public class OpencodeLlmClient implements LlmClient {
+@Component("opencodeLlmClient")
+public class OpencodeLlmClient implements LlmClient, ConfigurableLlmClient {
+
+    private static final List<String> DEFAULT_COMMAND = List.of("opencode", "run");
+    private static final String FLAG_MODEL = "--model";
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(30);
+    private static final DateTimeFormatter DEBUG_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
 
     private final InteractionLogger logger;
+    private final List<String> command;
+    private final String model;
+    private final Path debugDir;
+    private final AtomicInteger sequence = new AtomicInteger();
 
-    @Override
-    public com.example.llama.domain.model.LlmResponse generate(LlmPrompt prompt) {
-        String xmlContent = prompt.toXml();
-        long startTime = System.currentTimeMillis();
+    @Autowired
+    public OpencodeLlmClient(InteractionLogger logger) {
+        this(logger, DEFAULT_COMMAND, null, null);
+    }
 
-        System.out.println("\n" + "=".repeat(40) + " [EXECUTING OPENCODE CLI] " + "=".repeat(40));
-        System.out.println("TOTAL PROMPT SIZE: " + xmlContent.length() + " chars");
-        System.out.println("=".repeat(100) + "\n");
+    private OpencodeLlmClient(InteractionLogger logger, List<String> command, String model, Path debugDir) {
+        this.logger = logger;
+        this.command = List.copyOf(command);
+        this.model = model;
+        this.debugDir = debugDir;
+    }
 
+    @Override
+    public OpencodeLlmClient withSettings(Map<String, String> settings) {
+        String debug = settings.get("debug-dir");
+        return new OpencodeLlmClient(logger,
+                settings.containsKey("command") ? Arrays.asList(settings.get("command").trim().split("\\s+")) : command,
+                settings.getOrDefault("model", model),
+                debug != null ? (debug.isBlank() ? null : Paths.get(debug)) : debugDir);
+    }
+
+    @Override
+    public boolean isHealthy() {
         try {
-            // [DEBUG] Save full prompt for user inspection
-            java.nio.file.Path debugPath = java.nio.file.Paths.get("debug_opencode_prompt.xml");
-            java.nio.file.Files.writeString(debugPath, xmlContent);
-            System.out.println("💾 Saved debug prompt to: " + debugPath.toAbsolutePath());
+            return ChildProcesses.run(new ProcessBuilder(command.get(0), "--version").redirectErrorStream(true),
+                    null, PROBE_TIMEOUT).isSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
-            System.err.println("Failed to save debug prompt: " + e.getMessage());
+            return false;
         }
+    }
+
+    @Override
+    public com.example.llama.domain.model.LlmResponse generate(LlmPrompt prompt) {
+        String xmlContent = prompt.toXml();
+        long startTime = System.currentTimeMillis();
+        String requestId = debugDir != null
+                ? LocalDateTime.now().format(DEBUG_STAMP) + "_" + sequence.incrementAndGet() : null;
+        log.info("🚀 Generating with OpenCode CLI ({} chars over stdin).", xmlContent.length());
+        capture(requestId, "prompt.xml", xmlContent);
 
         try {
-            // opencode --prompt "FULL_PROMPT"
-            ProcessBuilder pb = new ProcessBuilder("opencode", "--prompt", xmlContent);
+            ProcessBuilder pb = new ProcessBuilder(commandLine());
             pb.redirectErrorStream(true);
-            Process process = pb.start();
+            ChildProcesses.Outcome outcome = ChildProcesses.run(pb, xmlContent, TIMEOUT);
+            String output = outcome.output();
+            capture(requestId, "response.txt", output);
 
-            String output;
-            try (InputStream is = process.getInputStream()) {
-                output = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            if (outcome.timedOut()) {
+                log.error("⏰ OpenCode CLI {}.", outcome.deadlineExceeded() ? "hit the file deadline" : "timed out");
+                return com.example.llama.domain.model.LlmResponse.failed(
+                        outcome.deadlineExceeded() ? "Deadline exceeded" : "OpenCode CLI timed out");
             }
-
-            int exitCode = process.waitFor();
+            int exitCode = outcome.exitCode();
             if (exitCode != 0) {
                 log.error("❌ OpenCode CLI Failed (Exit: {}): {}", exitCode, output);
                 return com.example.llama.domain.model.LlmResponse.failed("OpenCode CLI execution failed: " + output);
             }
 
-            // Log interaction
-            logger.logInteraction("OpenCodeCLI", "XML_PROMPT (See debug_opencode_prompt.xml)", output);
-            
+            logger.logInteraction("OpenCodeCLI", xmlContent, output);
+
             return com.example.llama.domain.model.LlmResponse.builder()
                     .content(output)
                     .totalTimeMs(System.currentTimeMillis() - startTime)
+                    .metadata(model != null ? Map.of("model", model) : Map.of())
                     .build();
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return com.example.llama.domain.model.LlmResponse.failed("Interrupted");
         } catch (Exception e) {
             log.error("💥 OpenCode Execution Error", e);
             return com.example.llama.domain.model.LlmResponse.failed(e.getMessage());
@@ -77,4 +129,30 @@ public class OpencodeLlmClient implements LlmClient {
         // I should probably remove this or update it.
         throw new UnsupportedOperationException("Legacy generate is not supported.");
     }
+
+    List<String> commandLine() {
+        List<String> commandLine = new ArrayList<>(command);
+        if (model != null && !model.isBlank()) {
+            commandLine.add(FLAG_MODEL);
+            commandLine.add(model);
+        }
+        return commandLine;
+    }
+
+    /**
+     * Saves one part of a request for inspection, off the calling thread. No-op unless {@code debug-dir} is set.
+     */
+    private void capture(String requestId, String suffix, String content) {
+        if (requestId == null || content == null) return;
+        Path file = debugDir.resolve("opencode_" + requestId + "." + suffix);
+        Thread.ofVirtual().name("opencode-debug").start(() -> {
+            try {
+                Files.createDirectories(debugDir);
+                Files.writeString(file, content);
+                log.debug("💾 Saved OpenCode {} to {}", suffix, file.toAbsolutePath());
+            } catch (IOException e) {
+                log.warn("Failed to save OpenCode debug capture {}: {}", file, e.getMessage());
+            }
+        });
+    }
 }
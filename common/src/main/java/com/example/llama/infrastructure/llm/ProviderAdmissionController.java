@@ -0,0 +1,236 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Deadline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Admits requests per LLM provider through a concurrency limit and a token bucket, both adapted AIMD-style:
+ * a throttling signal (429, quota or rate-limit errors) halves them, every success grows them additively
+ * back towards the configured ceiling. Parallel pipelines therefore settle at the highest rate the
+ * provider currently accepts instead of retrying into the wall.
+ * <p>
+ * The ceiling comes from {@code llama.providers[].max-concurrency}; {@code requests-per-minute} caps the
+ * bucket (0 = unpaced until the first throttle). Waiting for admission never outlasts the current {@link Deadline}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderAdmissionController {
+
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double MIN_RATE_PER_MINUTE = 6;
+    private static final double RATE_STEP_PER_MINUTE = 1;
+    private static final Pattern THROTTLE_SIGNAL = Pattern.compile(
+            "\\b429\\b|too many requests|rate.?limit|quota|resource_exhausted", Pattern.CASE_INSENSITIVE);
+
+    private final LlmProviderProperties properties;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param concurrencyLimit Current in-flight bound (between 1 and {@code maxConcurrency}).
+     * @param ratePerMinute    Current admission rate, or a negative value while unpaced.
+     */
+    public record ProviderLimits(String provider, int concurrencyLimit, int maxConcurrency, int inFlight,
+                                 double ratePerMinute, long admitted, long throttled) {
+        public boolean isPaced() {
+            return ratePerMinute >= 0;
+        }
+    }
+
+    public LlmResponse admit(String providerName, Supplier<LlmResponse> call) {
+        String name = properties.resolveName(providerName);
+        Limiter limiter = limiters.computeIfAbsent(name, this::newLimiter);
+        limiter.acquire(Deadline.current());
+
+        boolean throttled = false;
+        try {
+            LlmResponse response = call.get();
+            throttled = isThrottled(response);
+            return response;
+        } catch (RuntimeException e) {
+            throttled = e.getMessage() != null && THROTTLE_SIGNAL.matcher(e.getMessage()).find();
+            throw e;
+        } finally {
+            limiter.release(throttled);
+        }
+    }
+
+    public List<ProviderLimits> limits() {
+        return limiters.values().stream()
+                .map(Limiter::snapshot)
+                .sorted(Comparator.comparing(ProviderLimits::provider))
+                .toList();
+    }
+
+    static boolean isThrottled(LlmResponse response) {
+        if (response == null) return false;
+        if (response.metadata() != null && Boolean.TRUE.equals(response.metadata().get("throttled"))) return true;
+        String content = response.content();
+        return content != null && content.contains("<status>FAILED</status>") && THROTTLE_SIGNAL.matcher(content).find();
+    }
+
+
+    private Limiter newLimiter(String name) {
+        LlmProviderProperties.ProviderConfig config = properties.getProviders().stream()
+                .filter(p -> p.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+        int maxConcurrency = config != null ? Math.max(1, config.getMaxConcurrency()) : 1;
+        int requestsPerMinute = config != null ? config.getRequestsPerMinute() : 0;
+        log.info("🚦 Provider [{}] admission: up to {} in flight, {}.", name, maxConcurrency,
+                requestsPerMinute > 0 ? requestsPerMinute + " requests/min" : "unpaced");
+        return new Limiter(name, maxConcurrency, requestsPerMinute);
+    }
+
+    /**
+     * Concurrency limit plus token bucket of one provider. A single lock guards both, since the
+     * limits move on every completion and a {@link java.util.concurrent.Semaphore} cannot shrink.
+     */
+    private static final class Limiter {
+
+        private final String name;
+        private final int maxConcurrency;
+        private final double maxRatePerMinute;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition changed = lock.newCondition();
+
+        private double concurrencyLimit;
+        private double ratePerMinute;
+        private double tokens;
+        private long refilledAtNanos = System.nanoTime();
+        private long lastAdmitNanos;
+        private double meanIntervalNanos;
+        private int inFlight;
+        private long admitted;
+        private long throttled;
+
+        Limiter(String name, int maxConcurrency, int requestsPerMinute) {
+            this.name = name;
+            this.maxConcurrency = maxConcurrency;
+            this.maxRatePerMinute = requestsPerMinute > 0 ? requestsPerMinute : Double.POSITIVE_INFINITY;
+            this.concurrencyLimit = maxConcurrency;
+            this.ratePerMinute = maxRatePerMinute;
+            this.tokens = maxConcurrency;
+        }
+
+        void acquire(Deadline deadline) {
+            lock.lock();
+            try {
+                while (true) {
+                    refill();
+                    if (inFlight < (int) concurrencyLimit && tokens >= 1) {
+                        tokens -= 1;
+                        inFlight++;
+                        admitted++;
+                        observeAdmission();
+                        return;
+                    }
+                    long waitNanos = inFlight < (int) concurrencyLimit
+                            ? (long) ((1 - tokens) / ratePerMinute * TimeUnit.MINUTES.toNanos(1))
+                            : Long.MAX_VALUE;
+                    if (deadline.isBounded()) {
+                        long remaining = deadline.remaining().toNanos();
+                        if (remaining <= 0) {
+                            throw new IllegalStateException("Deadline exceeded while waiting for a [" + name + "] permit");
+                        }
+                        waitNanos = Math.min(waitNanos, remaining);
+                    }
+                    if (waitNanos == Long.MAX_VALUE) {
+                        changed.await();
+                    } else {
+                        changed.awaitNanos(Math.max(1, waitNanos));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a [" + name + "] permit", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(boolean throttledResponse) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (throttledResponse) {
+                    decrease();
+                } else {
+                    increase();
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        ProviderLimits snapshot() {
+            lock.lock();
+            try {
+                return new ProviderLimits(name, (int) concurrencyLimit, maxConcurrency, inFlight,
+                        Double.isInfinite(ratePerMinute) ? -1 : ratePerMinute, admitted, throttled);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void decrease() {
+            throttled++;
+            concurrencyLimit = Math.max(1, concurrencyLimit * DECREASE_FACTOR);
+            // Unpaced until now: start from the rate that was just rejected
+            double current = Double.isInfinite(ratePerMinute) ? observedRatePerMinute() : ratePerMinute;
+            ratePerMinute = Math.max(MIN_RATE_PER_MINUTE, current * DECREASE_FACTOR);
+            tokens = Math.min(tokens, 0);
+            log.warn("🐢 Provider [{}] throttled: backing off to {} in flight, {} requests/min.",
+                    name, (int) concurrencyLimit, String.format("%.1f", ratePerMinute));
+        }
+
+        private void increase() {
+            // +1 per window of successful requests, the TCP-style additive step
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+            if (!Double.isInfinite(ratePerMinute)) {
+                ratePerMinute = Math.min(maxRatePerMinute, ratePerMinute + RATE_STEP_PER_MINUTE);
+            }
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            if (Double.isInfinite(ratePerMinute)) {
+                tokens = maxConcurrency;
+            } else {
+                double perNano = ratePerMinute / TimeUnit.MINUTES.toNanos(1);
+                tokens = Math.min(maxConcurrency, tokens + (now - refilledAtNanos) * perNano);
+            }
+            refilledAtNanos = now;
+        }
+
+        private void observeAdmission() {
+            long now = System.nanoTime();
+            if (lastAdmitNanos != 0) {
+                long interval = Math.max(1, now - lastAdmitNanos);
+                meanIntervalNanos = meanIntervalNanos == 0 ? interval : 0.8 * meanIntervalNanos + 0.2 * interval;
+            }
+            lastAdmitNanos = now;
+        }
+
+        private double observedRatePerMinute() {
+            return meanIntervalNanos > 0
+                    ? TimeUnit.MINUTES.toNanos(1) / meanIntervalNanos
+                    : MIN_RATE_PER_MINUTE * 2;
+        }
+    }
+}
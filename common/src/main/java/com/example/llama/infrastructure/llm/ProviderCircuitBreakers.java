@@ -0,0 +1,50 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per provider ({@code llama.resilience}). {@link RoutingLlmClient} consults it
+ * before every call and skips to the next configured provider while a circuit is open, so a dead
+ * provider costs nothing instead of a timeout per request.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderCircuitBreakers {
+
+    private final LlmProviderProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreaker of(String provider) {
+        String name = properties.resolveName(provider);
+        LlmProviderProperties.ResilienceConfig config = properties.getResilience();
+        return breakers.computeIfAbsent(name,
+                n -> new CircuitBreaker(n, config.getFailureThreshold(), config.getOpenDuration()));
+    }
+
+    /**
+     * Claims the first configured provider other than {@code unavailable} whose circuit admits a request.
+     *
+     * @return Its name, or null when every circuit is open.
+     */
+    public String acquireAlternative(String unavailable) {
+        String skipped = properties.resolveName(unavailable);
+        return properties.getProviders().stream()
+                .map(p -> p.getName().toLowerCase())
+                .filter(name -> !name.equals(skipped))
+                .filter(name -> of(name).tryAcquire())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public Map<String, CircuitBreaker.State> states() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        properties.getProviders().forEach(p -> states.put(p.getName().toLowerCase(), of(p.getName()).state()));
+        return states;
+    }
+}
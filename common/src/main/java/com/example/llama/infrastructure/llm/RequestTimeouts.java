@@ -0,0 +1,123 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-request timeouts of {@link RoutingLlmClient} ({@code llama.timeouts}), learned from each provider's
+ * completed calls: the slow-tail TTFT plus the expected answer size (p90 of observed output tokens) at the
+ * slow-tail generation speed, times {@code safety-factor}, within {@code min-request}..{@code max-request}.
+ * Until {@code min-samples} calls completed, {@code max-request} applies.
+ * <p>
+ * A timed-out call is answered with {@link #timedOut} (a client failure that counts against the circuit), so
+ * hedging and {@link #retryTargetFor retry} take over instead of a dead connection holding the worker.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTimeouts {
+
+    private static final int WINDOW = 200;
+    private static final double OUTPUT_QUANTILE = 0.9;
+    private static final String TIMEOUT = "timeout";
+
+    private final LlmProviderProperties properties;
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    private static final class Samples {
+        final SampleWindow ttftMs = new SampleWindow(WINDOW);
+        final SampleWindow tokensPerSecond = new SampleWindow(WINDOW);
+        final SampleWindow outputTokens = new SampleWindow(WINDOW);
+        final SampleWindow totalMs = new SampleWindow(WINDOW);
+        final AtomicLong timeouts = new AtomicLong();
+    }
+
+    /**
+     * @return How long one call to {@code provider} may take, zero when {@code max-request} is 0 (no limit).
+     */
+    public Duration timeoutFor(String provider) {
+        LlmProviderProperties.TimeoutConfig config = properties.getTimeouts();
+        if (config.getMaxRequest().isZero() || config.getMaxRequest().isNegative()) {
+            return Duration.ZERO;
+        }
+        Samples observed = samples.get(properties.resolveName(provider));
+        if (observed == null || observed.totalMs.size() < config.getMinSamples()) {
+            return config.getMaxRequest();
+        }
+
+        double expectedMs;
+        if (observed.tokensPerSecond.size() > 0) {
+            double outputTokens = observed.outputTokens.size() > 0
+                    ? observed.outputTokens.quantile(OUTPUT_QUANTILE) : config.getExpectedOutputTokens();
+            double slowTps = Math.max(observed.tokensPerSecond.quantile(1 - config.getQuantile()), 0.1);
+            expectedMs = observed.ttftMs.quantile(config.getQuantile()) + outputTokens / slowTps * 1000;
+        } else {
+            expectedMs = observed.totalMs.quantile(config.getQuantile());
+        }
+        long timeoutMs = (long) (expectedMs * config.getSafetyFactor());
+        return Duration.ofMillis(Math.max(config.getMinRequest().toMillis(),
+                Math.min(config.getMaxRequest().toMillis(), timeoutMs)));
+    }
+
+    /**
+     * Learns from a completed call; client failures and responses without timings are ignored.
+     */
+    public void record(String provider, LlmResponse response) {
+        if (response == null || response.isClientFailure() || response.totalTimeMs() <= 0) {
+            return;
+        }
+        Samples observed = samples.computeIfAbsent(properties.resolveName(provider), p -> new Samples());
+        observed.totalMs.add(response.totalTimeMs());
+        observed.ttftMs.add(response.ttftMs());
+        if (response.outputTokens() > 0) {
+            observed.outputTokens.add(response.outputTokens());
+            long generationMs = response.totalTimeMs() - response.ttftMs();
+            if (generationMs > 0) {
+                observed.tokensPerSecond.add(response.outputTokens() * 1000.0 / generationMs);
+            }
+        }
+    }
+
+    /**
+     * The failure a call to {@code provider} ends with once {@code timeout} has passed.
+     */
+    public LlmResponse timedOut(String provider, Duration timeout) {
+        String name = properties.resolveName(provider);
+        samples.computeIfAbsent(name, p -> new Samples()).timeouts.incrementAndGet();
+        String error = "Request timed out after %d s on [%s]".formatted(timeout.toSeconds(), name);
+        LlmResponse failed = LlmResponse.failed(error);
+        return new LlmResponse(failed.content(), 0, timeout.toMillis(), 0, 0, 0,
+                Map.of("error", error, TIMEOUT, name));
+    }
+
+    /**
+     * @param pinned The caller chose the provider explicitly ({@link LlmContextHolder#isProviderPinned()}).
+     * @return Where a timed-out response is re-sent: the same provider when pinned, else the first other
+     * configured provider, else the same one; null when {@code response} did not time out or retries are off.
+     */
+    public String retryTargetFor(LlmResponse response, boolean pinned) {
+        if (!properties.getTimeouts().isRetryOnTimeout() || response == null || response.metadata() == null
+                || !(response.metadata().get(TIMEOUT) instanceof String timedOut)) {
+            return null;
+        }
+        if (pinned) {
+            return timedOut;
+        }
+        return properties.getProviders().stream()
+                .map(p -> p.getName().toLowerCase())
+                .filter(name -> !name.equals(timedOut))
+                .findFirst()
+                .orElse(timedOut);
+    }
+
+    public long timeouts(String provider) {
+        Samples observed = samples.get(properties.resolveName(provider));
+        return observed != null ? observed.timeouts.get() : 0;
+    }
+}
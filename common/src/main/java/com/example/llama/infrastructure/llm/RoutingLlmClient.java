@@ -1,24 +1,357 @@
 package com.example.llama.infrastructure.llm;
 
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
 import com.example.llama.domain.model.prompt.LlmPrompt;
 import com.example.llama.domain.service.LlmClient;
+import com.example.llama.utils.ContextPropagator;
+import com.example.llama.utils.Deadline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Sends each prompt to the provider from {@link LlmContextHolder}, within its admission limits.
+ * Without an explicit provider, the {@link ModelRoutingTable} picks one by the prompt's agent and component type.
+ * With {@code llama.hedge.enabled}, a primary that has not produced a first token within the
+ * {@link HedgingPolicy} threshold is hedged on a secondary provider: the first successful response
+ * wins and the other request is cancelled. Once hedged, the caller receives the winner as one chunk.
+ * A provider whose circuit is open ({@link ProviderCircuitBreakers}) is skipped for the next configured one.
+ * Prompts are fitted to the target's context window and token counts completed by {@link TokenAccountant}.
+ * Each call runs under its provider's adaptive {@link RequestTimeouts timeout}; a timed-out call that has not
+ * streamed anything yet is re-sent once (to the same provider when it is pinned).
+ * Answers that come from another provider than the requested one are tagged ({@code hedgedTo},
+ * {@code retriedOn}, {@code reroutedTo}) so they are not cached under the requested provider's key.
+ */
 @Slf4j
 @Component
-@Primary
 @RequiredArgsConstructor
 public class RoutingLlmClient implements LlmClient {
 
+    private static final String ERROR_DEADLINE = "Deadline exceeded";
+    private static final String STATUS_FAILED = "<status>FAILED</status>";
+
     private final LlmProviderFactory providerFactory;
+    private final ProviderAdmissionController admissionController;
+    private final HedgingPolicy hedgingPolicy;
+    private final ModelRoutingTable routingTable;
+    private final ProviderCircuitBreakers circuitBreakers;
+    private final TokenAccountant tokenAccountant;
+    private final RequestTimeouts requestTimeouts;
+
+    private record Attempt(String provider, boolean hedge, LlmResponse response) {
+        boolean succeeded() {
+            return response != null && response.content() != null && !response.content().contains(STATUS_FAILED);
+        }
+    }
 
     @Override
-    public com.example.llama.domain.model.LlmResponse generate(com.example.llama.domain.model.prompt.LlmPrompt prompt) {
+    public LlmResponse generate(LlmPrompt prompt) {
+        return route(prompt, null, StopCondition.never());
+    }
+
+    @Override
+    public LlmResponse generate(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        return route(prompt, onChunk, stopCondition);
+    }
+
+    /**
+     * @param onChunk Null when the caller does not stream.
+     */
+    private LlmResponse route(LlmPrompt prompt, Consumer<String> onChunk, StopCondition stopCondition) {
+        if (Deadline.current().isExpired()) {
+            return LlmResponse.failed(ERROR_DEADLINE);
+        }
+        String provider = resolveProvider(prompt);
+        String secondary = hedgingPolicy.secondaryFor(provider);
+        if (secondary == null) {
+            return retriedOnTimeout(provider, prompt, onChunk, stopCondition);
+        }
+        return hedged(provider, secondary, prompt, onChunk, stopCondition);
+    }
+
+    /**
+     * Re-sends a timed-out call once, unless the caller already received part of its answer.
+     */
+    private LlmResponse retriedOnTimeout(String provider, LlmPrompt prompt, Consumer<String> onChunk,
+                                         StopCondition stopCondition) {
+        boolean[] streamed = {false};
+        BiFunction<LlmClient, LlmPrompt, LlmResponse> call = onChunk == null
+                ? LlmClient::generate
+                : (delegate, fitted) -> delegate.generate(fitted, chunk -> {
+                    streamed[0] = true;
+                    onChunk.accept(chunk);
+                }, stopCondition);
+
+        LlmResponse response = admitted(provider, prompt, call);
+        String retryTarget = streamed[0] ? null
+                : requestTimeouts.retryTargetFor(response, LlmContextHolder.isProviderPinned());
+        if (retryTarget == null || Deadline.current().isExpired()) {
+            return response;
+        }
+        log.info("🔁 Re-sending timed-out request to [{}].", retryTarget);
+        LlmResponse retried = admitted(retryTarget, prompt, call);
+        return retryTarget.equals(response.metadata().get("timeout")) ? retried : tagged(retried, "retriedOn", retryTarget);
+    }
+
+    /**
+     * @return The provider a prompt goes to: the explicit one, else its route, else null (the default provider).
+     */
+    public String resolveProvider(LlmPrompt prompt) {
         String provider = LlmContextHolder.getProvider();
-        LlmClient delegate = providerFactory.getClient(provider);
-        return delegate.generate(prompt);
+        if (provider != null && !provider.isBlank()) {
+            return provider;
+        }
+        return routingTable.providerFor(prompt.getAgentType(), prompt.getComponentType()).orElse(null);
+    }
+
+    /**
+     * @param call Receives the prompt as fitted to the target provider's context window.
+     */
+    private LlmResponse admitted(String provider, LlmPrompt prompt, BiFunction<LlmClient, LlmPrompt, LlmResponse> call) {
+        String target = provider;
+        boolean rerouted = false;
+        CircuitBreaker breaker = circuitBreakers.of(provider);
+        if (!breaker.tryAcquire()) {
+            target = circuitBreakers.acquireAlternative(provider);
+            if (target == null) {
+                return LlmResponse.failed("No provider available (circuit of [%s] is open)".formatted(breaker.name()));
+            }
+            log.info("⏭️ Circuit of [{}] is open. Routing to [{}].", breaker.name(), target);
+            breaker = circuitBreakers.of(target);
+            rerouted = true;
+        }
+
+        Optional<LlmPrompt> fitted = tokenAccountant.fit(target, prompt);
+        if (fitted.isEmpty()) {
+            breaker.onIgnored();
+            return LlmResponse.failed("Prompt exceeds the context window of [%s]".formatted(target));
+        }
+
+        LlmClient delegate = providerFactory.getClient(target);
+        String admittedTarget = target;
+        LlmResponse response;
+        try {
+            response = admissionController.admit(target,
+                    () -> timed(admittedTarget, () -> call.apply(delegate, fitted.get())));
+        } catch (IllegalStateException e) {
+            if (!Deadline.current().isExpired()) {
+                breaker.onFailure();
+                throw e;
+            }
+            breaker.onIgnored();
+            log.warn("⏰ {}", e.getMessage());
+            return LlmResponse.failed(ERROR_DEADLINE);
+        } catch (RuntimeException e) {
+            breaker.onFailure();
+            throw e;
+        }
+        record(breaker, response);
+        requestTimeouts.record(target, response);
+        LlmResponse accounted = tokenAccountant.account(fitted.get(), response);
+        return rerouted ? tagged(accounted, "reroutedTo", target) : accounted;
+    }
+
+    /**
+     * Runs {@code call} under the provider's request timeout, bound as the current {@link Deadline} when it
+     * is shorter than the time left. Only the call itself is timed, not the wait for admission.
+     */
+    private LlmResponse timed(String provider, Supplier<LlmResponse> call) {
+        Deadline outer = Deadline.current();
+        Duration timeout = requestTimeouts.timeoutFor(provider);
+        if (timeout.isZero() || outer.remaining().compareTo(timeout) <= 0) {
+            return call.get();
+        }
+        Deadline request = Deadline.after(timeout);
+        Deadline.bind(request);
+        try {
+            LlmResponse response = call.get();
+            if (request.isExpired() && (response == null || response.isClientFailure())) {
+                log.warn("⏱️ No answer from [{}] within {} s.", provider, timeout.toSeconds());
+                return requestTimeouts.timedOut(provider, timeout);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            if (!request.isExpired()) throw e;
+            log.warn("⏱️ [{}] failed after its {} s timeout: {}", provider, timeout.toSeconds(), e.getMessage());
+            return requestTimeouts.timedOut(provider, timeout);
+        } finally {
+            Deadline.bind(outer);
+        }
+    }
+
+    /**
+     * Only failures of the call itself count against the circuit; a FAILED answer of the model, throttling
+     * (left to admission control), an expired deadline and a cancelled hedge loser say nothing about the
+     * provider being down.
+     */
+    private void record(CircuitBreaker breaker, LlmResponse response) {
+        if (response != null && !response.isClientFailure()) {
+            breaker.onSuccess();
+        } else if (response != null && ProviderAdmissionController.isThrottled(response)
+                || Deadline.current().isExpired() || Thread.currentThread().isInterrupted()) {
+            breaker.onIgnored();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    private LlmResponse hedged(String primary, String secondary, LlmPrompt prompt,
+                               Consumer<String> onChunk, StopCondition stopCondition) {
+        hedgingPolicy.recordRequest();
+        Object gate = new Object();
+        boolean[] streaming = {false};
+        boolean[] hedgeSent = {false};
+        CountDownLatch firstToken = new CountDownLatch(1);
+        long startNanos = System.nanoTime();
+
+        // Chunks reach the caller live until a hedge is sent; a primary that already streams is never hedged
+        Consumer<String> primaryChunks = chunk -> {
+            if (firstToken.getCount() > 0) {
+                hedgingPolicy.recordTtft(primary, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                firstToken.countDown();
+            }
+            synchronized (gate) {
+                if (!hedgeSent[0]) {
+                    streaming[0] = true;
+                    if (onChunk != null) onChunk.accept(chunk);
+                }
+            }
+        };
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<Attempt> completion = new ExecutorCompletionService<>(executor);
+        try {
+            Future<Attempt> primaryFuture = completion.submit(attempt(primary, false, () -> {
+                try {
+                    return admitted(primary, prompt,
+                            (delegate, fitted) -> delegate.generate(fitted, primaryChunks, stopCondition));
+                } finally {
+                    firstToken.countDown();
+                }
+            }));
+
+            Optional<Duration> threshold = hedgingPolicy.threshold(primary);
+            if (threshold.isEmpty() || awaitFirstToken(firstToken, threshold.get())) {
+                return unwrap(primaryFuture).response();
+            }
+            synchronized (gate) {
+                hedgeSent[0] = !streaming[0] && !primaryFuture.isDone() && hedgingPolicy.tryHedge();
+            }
+            if (!hedgeSent[0]) {
+                return unwrap(primaryFuture).response();
+            }
+
+            log.info("🪝 No first token from [{}] after {} ms. Hedging on [{}].", primary, threshold.get().toMillis(), secondary);
+            completion.submit(attempt(secondary, true, () -> {
+                LlmContextHolder.setProvider(secondary);
+                return admitted(secondary, prompt,
+                        (delegate, fitted) -> delegate.generate(fitted, chunk -> { }, stopCondition));
+            }));
+
+            Attempt winner = firstSuccessful(completion);
+            if (winner.hedge()) {
+                hedgingPolicy.recordHedgeWin();
+                log.info("🥇 Hedge on [{}] finished first. Cancelling [{}].", secondary, primary);
+            }
+            if (onChunk != null && winner.response() != null && winner.response().content() != null) {
+                onChunk.accept(winner.response().content());
+            }
+            return winner.hedge() ? markHedged(winner) : winner.response();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Attempt> attempt(String provider, boolean hedge, Supplier<LlmResponse> call) {
+        Supplier<Attempt> task = ContextPropagator.wrap(() -> new Attempt(provider, hedge, call.get()));
+        return task::get;
+    }
+
+    private boolean awaitFirstToken(CountDownLatch firstToken, Duration threshold) {
+        try {
+            return firstToken.await(Deadline.current().clamp(threshold).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the first token", e);
+        }
+    }
+
+    /**
+     * The first attempt that succeeds; when both fail, the primary's failure.
+     */
+    private Attempt firstSuccessful(CompletionService<Attempt> completion) {
+        Attempt primaryFailure = null;
+        Attempt anyFailure = null;
+        for (int received = 0; received < 2; received++) {
+            Attempt attempt;
+            try {
+                attempt = completion.take().get();
+            } catch (ExecutionException e) {
+                log.warn("⚠️ Hedged attempt failed: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a hedged response", e);
+            }
+            if (attempt.succeeded()) {
+                return attempt;
+            }
+            anyFailure = attempt;
+            if (!attempt.hedge()) {
+                primaryFailure = attempt;
+            }
+        }
+        if (primaryFailure != null) return primaryFailure;
+        if (anyFailure != null) return anyFailure;
+        return new Attempt(null, false, LlmResponse.failed("All hedged attempts failed"));
+    }
+
+    private Attempt unwrap(Future<Attempt> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for the LLM response", e);
+        }
+    }
+
+    /**
+     * Tags the hedge's answer with the provider that produced it, so it is not cached as the primary's.
+     */
+    private LlmResponse markHedged(Attempt winner) {
+        return tagged(winner.response(), "hedgedTo", winner.provider());
+    }
+
+    /**
+     * @return {@code response} with {@code key} naming the provider that answered instead of the requested one.
+     */
+    private static LlmResponse tagged(LlmResponse response, String key, String provider) {
+        if (response == null) return null;
+        Map<String, Object> metadata = new HashMap<>(response.metadata() != null ? response.metadata() : Map.of());
+        metadata.put(key, provider);
+        return new LlmResponse(response.content(), response.ttftMs(), response.totalTimeMs(), response.inputTokens(),
+                response.outputTokens(), response.savedTokens(), metadata);
     }
 }
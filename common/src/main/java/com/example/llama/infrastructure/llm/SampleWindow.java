@@ -0,0 +1,38 @@
+package com.example.llama.infrastructure.llm;
+
+import java.util.Arrays;
+
+/**
+ * The latest {@code capacity} samples of one measurement (TTFT, tokens per second, ...) with their quantiles.
+ */
+final class SampleWindow {
+
+    private final double[] samples;
+    private int next;
+    private int size;
+
+    SampleWindow(int capacity) {
+        this.samples = new double[capacity];
+    }
+
+    synchronized void add(double sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return The smallest sample with at least {@code q} of all samples at or below it, 0 when empty.
+     */
+    synchronized double quantile(double q) {
+        if (size == 0) return 0;
+        double[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.StopCondition;
+
+import java.util.function.Consumer;
+
+/**
+ * Collects a streamed response chunk by chunk, forwards the kept text to the caller and notices
+ * when the {@link StopCondition} matches, so the client can cancel its upstream right away.
+ * Not thread-safe: a reactive stream delivers one chunk at a time.
+ */
+final class StreamAccumulator {
+
+    private final StringBuilder text = new StringBuilder();
+    private final Consumer<String> onChunk;
+    private final StopCondition stopCondition;
+    private boolean stopped;
+    private int discardedChars;
+
+    StreamAccumulator(Consumer<String> onChunk, StopCondition stopCondition) {
+        this.onChunk = onChunk;
+        this.stopCondition = stopCondition;
+    }
+
+    void accept(String chunk) {
+        if (stopped || chunk == null || chunk.isEmpty()) return;
+
+        int from = text.length();
+        text.append(chunk);
+        int keep = stopCondition.stopAt(text, from);
+        if (keep < 0) {
+            onChunk.accept(chunk);
+            return;
+        }
+
+        stopped = true;
+        discardedChars = text.length() - keep;
+        if (keep > from) {
+            onChunk.accept(text.substring(from, keep));
+        }
+        text.setLength(keep);
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    int length() {
+        return text.length();
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    int savedTokens() {
+        return discardedChars / 4;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.TokenEstimator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Token bookkeeping around every routed call.
+ * <p>
+ * Before sending, {@link #fit} holds a prompt to the provider's {@code context-window} minus
+ * {@code reserved-output-tokens}: reference classes are dropped (last first), then the library info and
+ * the class structure; a prompt whose task and target method alone do not fit is rejected.
+ * <p>
+ * After the call, {@link #account} keeps the counts the provider reported (Ollama {@code prompt_eval_count}/
+ * {@code eval_count}, Gemini CLI stats) and fills the missing ones with {@link TokenEstimator}; the
+ * {@code tokens} metadata entry says which it was.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenAccountant {
+
+    private static final String OMITTED = "Omitted to fit the model context window.";
+
+    private final LlmProviderProperties properties;
+
+    /**
+     * @return The prompt, trimmed when needed; empty when it cannot fit the provider's context window.
+     */
+    public Optional<LlmPrompt> fit(String provider, LlmPrompt prompt) {
+        int budget = budgetOf(provider);
+        if (budget <= 0) {
+            return Optional.of(prompt);
+        }
+        int tokens = TokenEstimator.estimate(prompt.toXml());
+        if (tokens <= budget) {
+            return Optional.of(prompt);
+        }
+
+        LlmPrompt trimmed = prompt;
+        LlmClassContext context = prompt.getUserRequest().getClassContext();
+        for (int keep = context.getReferences().size() - 1; keep >= 0 && tokens > budget; keep--) {
+            trimmed = withContext(trimmed, context.toBuilder()
+                    .clearReferences()
+                    .references(context.getReferences().subList(0, keep))
+                    .build());
+            tokens = TokenEstimator.estimate(trimmed.toXml());
+        }
+        if (tokens > budget) {
+            trimmed = trimmed.toBuilder()
+                    .userRequest(trimmed.getUserRequest().toBuilder().libraryInfo(OMITTED).build())
+                    .build();
+            tokens = TokenEstimator.estimate(trimmed.toXml());
+        }
+        if (tokens > budget) {
+            trimmed = withContext(trimmed, trimmed.getUserRequest().getClassContext().toBuilder()
+                    .classStructure(OMITTED)
+                    .build());
+            tokens = TokenEstimator.estimate(trimmed.toXml());
+        }
+        if (tokens > budget) {
+            log.warn("📏 Prompt of ~{} tokens does not fit provider [{}] ({} tokens for the prompt).", tokens, provider, budget);
+            return Optional.empty();
+        }
+        log.info("✂️ Prompt trimmed to ~{} tokens for provider [{}].", tokens, provider);
+        return Optional.of(trimmed);
+    }
+
+    /**
+     * @return {@code response} with both token counts set, reported ones kept.
+     */
+    public LlmResponse account(LlmPrompt prompt, LlmResponse response) {
+        if (response == null || response.isClientFailure()) {
+            return response;
+        }
+        boolean reported = response.inputTokens() > 0 && response.outputTokens() > 0;
+        int inputTokens = response.inputTokens() > 0 ? response.inputTokens() : TokenEstimator.estimate(prompt.toXml());
+        int outputTokens = response.outputTokens() > 0 ? response.outputTokens() : TokenEstimator.estimate(response.content());
+
+        Map<String, Object> metadata = new HashMap<>(response.metadata() != null ? response.metadata() : Map.of());
+        metadata.put("tokens", reported ? "reported" : "estimated");
+        return new LlmResponse(response.content(), response.ttftMs(), response.totalTimeMs(), inputTokens,
+                outputTokens, response.savedTokens(), metadata);
+    }
+
+    private int budgetOf(String provider) {
+        String name = properties.resolveName(provider);
+        return properties.getProviders().stream()
+                .filter(p -> p.getName().equalsIgnoreCase(name))
+                .filter(p -> p.getContextWindow() > 0)
+                .findFirst()
+                .map(p -> Math.max(1, p.getContextWindow() - p.getReservedOutputTokens()))
+                .orElse(0);
+    }
+
+    private static LlmPrompt withContext(LlmPrompt prompt, LlmClassContext context) {
+        return prompt.toBuilder()
+                .userRequest(prompt.getUserRequest().toBuilder().classContext(context).build())
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.llama.infrastructure.llm.cache;
+
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmCollaborator;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.parser.JavaParsers;
+import com.example.llama.utils.Hashing;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Fingerprints prompts for response reuse, so prompts that differ only in comments, formatting,
+ * import order or masked literals ({@code [AUTO_SECURED]}, {@code [SECURED_VALUE]}) share a cache entry.
+ * <p>
+ * Code in the class context and collaborators is parsed and re-printed without comments. The target
+ * method is the part the answer depends on most: it is only canonicalized through its AST, and when it
+ * does not parse the exact text is used, so reuse always implies a structurally identical method.
+ */
+@Component
+public class PromptCanonicalizer {
+
+    private static final String MASK = "[MASKED]";
+    private static final Pattern MASKED_VALUE = Pattern.compile("\\[(AUTO_SECURED|SECURED_VALUE|SECURED: LOGIC REDACTED)]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public String fingerprint(LlmPrompt prompt) {
+        LlmUserRequest request = prompt.getUserRequest();
+        LlmClassContext context = request.getClassContext();
+
+        String imports = context.getImports().lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining("\n"));
+        String references = context.getReferences().stream()
+                .sorted(Comparator.comparing(LlmCollaborator::getName))
+                .map(ref -> ref.getName() + "\n" + canonicalCode(ref.getStructure()) + "\n" + canonicalCode(ref.getMethods()))
+                .collect(Collectors.joining("\n"));
+
+        return Hashing.sha256(
+                prompt.getSystemDirective().toXml(),
+                canonicalText(request.getTask()),
+                canonicalText(request.getLibraryInfo()),
+                context.getPackageName().trim(),
+                imports,
+                references,
+                canonicalCode(context.getClassStructure()),
+                canonicalMethod(context.getTargetMethodSource()));
+    }
+
+    /**
+     * A compilation unit or member re-printed from its AST; plain text (e.g. signature summaries) is
+     * only whitespace- and mask-normalized.
+     */
+    String canonicalCode(String code) {
+        if (code == null || code.isBlank()) return "";
+        try {
+            return print(JavaParsers.parse(code));
+        } catch (Exception notAUnit) {
+            try {
+                return print(JavaParsers.parseBodyDeclaration(code));
+            } catch (Exception notAMember) {
+                return canonicalText(code);
+            }
+        }
+    }
+
+    String canonicalMethod(String method) {
+        if (method == null || method.isBlank()) return "";
+        try {
+            return print(JavaParsers.parseBodyDeclaration(method));
+        } catch (Exception e) {
+            return method;
+        }
+    }
+
+    private String print(Node node) {
+        Node copy = node.clone();
+        copy.getAllContainedComments().forEach(Comment::remove);
+        copy.removeComment();
+        copy.findAll(StringLiteralExpr.class).stream()
+                .filter(literal -> MASKED_VALUE.matcher(literal.getValue()).matches())
+                .forEach(literal -> literal.setValue(MASK));
+        return copy.toString();
+    }
+
+    private String canonicalText(String text) {
+        if (text == null) return "";
+        String masked = MASKED_VALUE.matcher(text).replaceAll(Matcher.quoteReplacement(MASK));
+        return WHITESPACE.matcher(masked).replaceAll(" ").trim();
+    }
+}
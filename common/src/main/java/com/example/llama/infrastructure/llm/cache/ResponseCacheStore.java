@@ -0,0 +1,232 @@
+package com.example.llama.infrastructure.llm.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed on-disk store of LLM responses.
+ * Records are appended to a single data file as {@code key(32) | length(4) | payload}. The index
+ * (key to record position) is kept in memory in LRU order and rebuilt from the record headers on open,
+ * so a crash loses at most the record that was being written.
+ * <p>
+ * Evicted and replaced records stay in the file as garbage until it grows past twice the size limit
+ * or the store is closed; then the live records are compacted into a fresh file, least recently used
+ * first. Compacting on close keeps evicted records from coming back on the next open and carries the
+ * LRU order (hits included) across restarts; after a crash the file order stands in for it.
+ */
+@Slf4j
+public class ResponseCacheStore implements Closeable {
+
+    static final String DATA_FILE = "responses.dat";
+    private static final int KEY_BYTES = 32;
+    private static final int HEADER_BYTES = KEY_BYTES + Integer.BYTES;
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * @param totalTimeMs Latency of the original call, i.e. what a hit saves.
+     */
+    public record CachedResponse(String content, int inputTokens, int outputTokens, long totalTimeMs) {
+    }
+
+    public record StoreStats(int entries, long liveBytes, long fileBytes, long evictions) {
+    }
+
+    private record Slot(long offset, int length) {
+    }
+
+    private final Path dataFile;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Slot> index = new LinkedHashMap<>(256, 0.75f, true);
+    private FileChannel channel;
+    private long liveBytes;
+    private long evictions;
+    private boolean reordered; // a hit moved a record away from its file position
+
+    private ResponseCacheStore(Path directory, long maxBytes) {
+        this.dataFile = directory.resolve(DATA_FILE);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param maxBytes Upper bound of live record bytes; least recently used records beyond it are evicted.
+     */
+    public static ResponseCacheStore open(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        ResponseCacheStore store = new ResponseCacheStore(directory, maxBytes);
+        store.channel = FileChannel.open(store.dataFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        store.rebuildIndex();
+        return store;
+    }
+
+    /**
+     * @param key Hex SHA-256 of the request.
+     */
+    public synchronized Optional<CachedResponse> get(String key) throws IOException {
+        Slot slot = index.get(key);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        reordered = true;
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length() - HEADER_BYTES);
+        readFully(buffer, slot.offset() + HEADER_BYTES);
+        buffer.flip();
+        return Optional.of(decode(buffer));
+    }
+
+    public synchronized void put(String key, CachedResponse response) throws IOException {
+        ByteBuffer record = encode(key, response);
+        int length = record.remaining();
+        if (length > maxBytes) {
+            log.debug("Response of {} bytes exceeds the cache size limit, not stored.", length);
+            return;
+        }
+
+        long offset = channel.size();
+        while (record.hasRemaining()) {
+            channel.write(record, offset + (length - record.remaining()));
+        }
+        Slot previous = index.put(key, new Slot(offset, length));
+        liveBytes += length - (previous != null ? previous.length() : 0);
+
+        evictOverflow();
+        if (channel.size() > 2 * maxBytes) {
+            compact();
+        }
+    }
+
+    public synchronized void clear() throws IOException {
+        index.clear();
+        liveBytes = 0;
+        channel.truncate(0);
+    }
+
+    public synchronized StoreStats stats() throws IOException {
+        return new StoreStats(index.size(), liveBytes, channel.size(), evictions);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (reordered || channel.size() > liveBytes) {
+                compact();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        byte[] key = new byte[KEY_BYTES];
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            header.get(key);
+            int payload = header.getInt();
+            int length = HEADER_BYTES + payload;
+            if (payload < 0 || position + length > size) {
+                break;
+            }
+            Slot previous = index.put(HEX.formatHex(key), new Slot(position, length));
+            liveBytes += length - (previous != null ? previous.length() : 0);
+            position += length;
+        }
+        if (position < size) {
+            log.warn("⚠️ LLM cache ends with a torn record. Truncating {} bytes.", size - position);
+            channel.truncate(position);
+        }
+        evictOverflow();
+        log.debug("LLM cache opened: {} entries, {} bytes.", index.size(), liveBytes);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Slot>> eldest = index.entrySet().iterator();
+        while (liveBytes > maxBytes && eldest.hasNext()) {
+            liveBytes -= eldest.next().getValue().length();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temp = dataFile.resolveSibling(DATA_FILE + ".compact");
+        LinkedHashMap<String, Slot> compacted = new LinkedHashMap<>(256, 0.75f, true);
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<String, Slot> entry : index.entrySet()) {
+                Slot slot = entry.getValue();
+                long copied = 0;
+                while (copied < slot.length()) {
+                    copied += channel.transferTo(slot.offset() + copied, slot.length() - copied, target);
+                }
+                compacted.put(entry.getKey(), new Slot(position, slot.length()));
+                position += slot.length();
+            }
+            target.force(false);
+        }
+
+        channel.close();
+        try {
+            Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(compacted);
+        reordered = false;
+        log.debug("LLM cache compacted to {} bytes.", channel.size());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long start = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, start + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of LLM cache file at " + (start + buffer.position()));
+            }
+        }
+    }
+
+    private static ByteBuffer encode(String key, CachedResponse response) {
+        byte[] content = response.content().getBytes(StandardCharsets.UTF_8);
+        int payload = 2 * Integer.BYTES + Long.BYTES + content.length;
+        return ByteBuffer.allocate(HEADER_BYTES + payload)
+                .put(HEX.parseHex(key))
+                .putInt(payload)
+                .putInt(response.inputTokens())
+                .putInt(response.outputTokens())
+                .putLong(response.totalTimeMs())
+                .put(content)
+                .flip();
+    }
+
+    private static CachedResponse decode(ByteBuffer payload) {
+        int inputTokens = payload.getInt();
+        int outputTokens = payload.getInt();
+        long totalTimeMs = payload.getLong();
+        byte[] content = new byte[payload.remaining()];
+        payload.get(content);
+        return new CachedResponse(new String(content, StandardCharsets.UTF_8), inputTokens, outputTokens, totalTimeMs);
+    }
+}
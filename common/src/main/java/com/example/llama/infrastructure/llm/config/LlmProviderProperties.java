@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -17,12 +18,90 @@ public class LlmProviderProperties {
 
     private String defaultProvider = "gemini";
     private List<ProviderConfig> providers = new ArrayList<>();
+    private CacheConfig cache = new CacheConfig();
+    private HedgeConfig hedge = new HedgeConfig();
+    private RoutingConfig routing = new RoutingConfig();
+    private ResilienceConfig resilience = new ResilienceConfig();
+    private TimeoutConfig timeouts = new TimeoutConfig();
+
+    /**
+     * @return The lower-case name per-provider state is keyed by; null or blank means the default provider.
+     */
+    public String resolveName(String provider) {
+        return (provider != null && !provider.isBlank() ? provider : defaultProvider).toLowerCase();
+    }
 
     @Getter
     @Setter
     public static class ProviderConfig {
         private String name;
         private String type; // e.g., "gemini", "ollama", "codex", "opencode"
+        private int maxConcurrency = 4; // Upper bound of in-flight requests against this provider
+        private int requestsPerMinute = 0; // Admission rate ceiling, 0 = unpaced until the provider throttles
+        private int contextWindow = 0; // Model context window in tokens, 0 = prompts are not checked
+        private int reservedOutputTokens = 4096; // Part of the window kept free for the answer
         private Map<String, String> settings;
     }
+
+    @Getter
+    @Setter
+    public static class CacheConfig {
+        private boolean enabled = false; // Opt-in: replayed answers are not re-verified against changed code
+        private String directory = ".test-hea-llama/cache/llm";
+        private long maxSizeMb = 256; // Live response bytes kept before LRU eviction
+        private boolean coalesce = true; // Identical in-flight prompts share one upstream call
+    }
+
+    @Getter
+    @Setter
+    public static class HedgeConfig {
+        private boolean enabled = false;
+        private String secondary = ""; // Provider that receives the hedge, empty = first other configured provider
+        private double quantile = 0.9; // TTFT quantile of the primary after which the hedge is sent
+        private int minSamples = 20; // TTFT samples needed before hedging starts
+        private Duration minDelay = Duration.ofSeconds(1); // Never hedge earlier than this
+        private double maxRate = 0.1; // Upper bound of hedged / routed requests
+    }
+
+    @Getter
+    @Setter
+    public static class RoutingConfig {
+        private boolean enabled = false;
+        private String tableFile = ".test-hea-llama/routing.json"; // Routes learned from the last benchmark
+        private List<RouteConfig> routes = new ArrayList<>(); // Explicit routes, override learned ones
+    }
+
+    /**
+     * Sends one role (agent type or workload) on one component type to a provider.
+     */
+    @Getter
+    @Setter
+    public static class RouteConfig {
+        private String agent; // AgentType name, or empty to match by workload
+        private String workload; // CLASSIFY, REVIEW, PLAN or GENERATE
+        private String component = "*"; // ComponentType name, * = any
+        private String provider;
+    }
+
+    @Getter
+    @Setter
+    public static class ResilienceConfig {
+        private int failureThreshold = 5; // Consecutive failed calls before a provider's circuit opens
+        private Duration openDuration = Duration.ofSeconds(30); // Time before a half-open probe request is let through
+        private Duration healthInterval = Duration.ofSeconds(60); // Background health probe period, 0 = off
+    }
+
+    @Getter
+    @Setter
+    public static class TimeoutConfig {
+        private Duration connect = Duration.ofSeconds(10); // TCP connect timeout of the HTTP clients
+        private Duration idle = Duration.ofMinutes(2); // Longest silence between streamed chunks before a stream is dropped
+        private Duration minRequest = Duration.ofMinutes(1); // Floor of the adaptive per-request timeout
+        private Duration maxRequest = Duration.ofMinutes(20); // Ceiling, and the timeout until min-samples were seen; 0 = no per-request timeout
+        private int minSamples = 5; // Completed calls of a provider before its timeout adapts
+        private double quantile = 0.95; // Slow-tail quantile: TTFT at q, tokens per second at 1 - q
+        private double safetyFactor = 2.0; // Multiplier on the expected duration
+        private int expectedOutputTokens = 4096; // Answer size assumed until output sizes were observed
+        private boolean retryOnTimeout = true; // Re-send a timed-out, not yet streamed request once (next provider first)
+    }
 }
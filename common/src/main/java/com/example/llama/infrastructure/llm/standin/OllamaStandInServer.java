@@ -0,0 +1,188 @@
+package com.example.llama.infrastructure.llm.standin;
+
+import com.example.llama.utils.TokenEstimator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server that speaks enough of Ollama's API ({@code POST /api/chat}, streamed as NDJSON or
+ * not, and {@code GET /api/version}) to stand in for a real model in load tests. Answers are canned
+ * ({@link StandInProfile#responses()}) and paced by the profile's TTFT and tokens per second; errors and
+ * 429s are injected at the configured rates. Point an {@code ollamaNative} provider's {@code base-url}
+ * (or {@code spring.ai.ollama.base-url}) at it to measure the pipeline's throughput and backpressure
+ * without spending quota.
+ */
+@Slf4j
+public final class OllamaStandInServer implements AutoCloseable {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final StandInProfile profile;
+    private final DisposableServer server;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    /**
+     * @param peakInFlight Most requests served at once, i.e. the concurrency the pipeline actually reached.
+     */
+    public record StandInStats(long requests, long completed, long failed, long throttled, int inFlight, int peakInFlight) {
+    }
+
+    private OllamaStandInServer(StandInProfile profile, int port) {
+        this.profile = profile;
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(port)
+                .route(routes -> routes
+                        .get("/api/version", (request, response) -> json(response, HttpResponseStatus.OK,
+                                Map.of("version", "0.0.0-standin")))
+                        .post("/api/chat", this::chat))
+                .bindNow();
+        log.info("🧪 Ollama stand-in listening on http://localhost:{} (ttft {} ms, {} tok/s, errors {}%, 429s {}%)",
+                port(), profile.ttft().toMillis(), profile.tokensPerSecond(),
+                profile.errorRate() * 100, profile.throttleRate() * 100);
+    }
+
+    /**
+     * @param port 0 picks a free port, see {@link #port()}.
+     */
+    public static OllamaStandInServer start(StandInProfile profile, int port) {
+        return new OllamaStandInServer(profile, port);
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port();
+    }
+
+    public StandInStats stats() {
+        return new StandInStats(requests.get(), completed.get(), failed.get(), throttled.get(),
+                inFlight.get(), peakInFlight.get());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> chat(HttpServerRequest request, HttpServerResponse response) {
+        long index = requests.getAndIncrement();
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("{}")
+                .flatMap(body -> Mono.from(answer(index, body, response)))
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private Publisher<Void> answer(long index, String body, HttpServerResponse response) {
+        JsonNode chat;
+        try {
+            chat = JSON.readTree(body);
+        } catch (JsonProcessingException e) {
+            failed.incrementAndGet();
+            return json(response, HttpResponseStatus.BAD_REQUEST, Map.of("error", "invalid request body"));
+        }
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < profile.throttleRate()) {
+            throttled.incrementAndGet();
+            return json(response, HttpResponseStatus.TOO_MANY_REQUESTS, Map.of("error", "rate limit exceeded (stand-in)"));
+        }
+        if (roll < profile.throttleRate() + profile.errorRate()) {
+            failed.incrementAndGet();
+            return json(response, HttpResponseStatus.INTERNAL_SERVER_ERROR, Map.of("error", "injected failure (stand-in)"));
+        }
+
+        String model = chat.path("model").asText("standin");
+        String content = profile.responses().get((int) (index % profile.responses().size()));
+        List<String> tokens = split(content);
+        int promptTokens = 0;
+        for (JsonNode message : chat.path("messages")) {
+            promptTokens += TokenEstimator.estimate(message.path("content").asText(""));
+        }
+        boolean stream = chat.path("stream").asBoolean(true);
+        Map<String, Object> done = chunk(model, stream ? "" : content, true);
+        done.put("done_reason", "stop");
+        done.put("prompt_eval_count", promptTokens);
+        done.put("eval_count", tokens.size());
+
+        if (!stream) {
+            Duration generation = profile.chunkInterval().multipliedBy(tokens.size());
+            return Mono.delay(profile.ttft().plus(generation))
+                    .then(Mono.defer(() -> Mono.from(json(response, HttpResponseStatus.OK, done))))
+                    .doOnSuccess(ignored -> completed.incrementAndGet());
+        }
+
+        Flux<String> lines = Flux.range(0, tokens.size())
+                .concatMap(i -> Mono.just(line(chunk(model, tokens.get(i), false)))
+                        .delayElement(i == 0 ? profile.ttft() : profile.chunkInterval()))
+                .concatWith(Mono.fromSupplier(() -> line(done)))
+                .doOnComplete(completed::incrementAndGet);
+        return response.status(HttpResponseStatus.OK)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/x-ndjson")
+                .sendString(lines, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> chunk(String model, String text, boolean done) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("model", model);
+        chunk.put("created_at", Instant.now().toString());
+        chunk.put("message", Map.of("role", "assistant", "content", text));
+        chunk.put("done", done);
+        return chunk;
+    }
+
+    private static List<String> split(String content) {
+        List<String> tokens = new ArrayList<>();
+        for (int start = 0; start < content.length(); start += CHARS_PER_TOKEN) {
+            tokens.add(content.substring(start, Math.min(content.length(), start + CHARS_PER_TOKEN)));
+        }
+        return tokens;
+    }
+
+    private static String line(Map<String, Object> chunk) {
+        try {
+            return JSON.writeValueAsString(chunk) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Publisher<Void> json(HttpServerResponse response, HttpResponseStatus status, Map<String, Object> body) {
+        return response.status(status)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just(line(body)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.llama.infrastructure.llm.standin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * How the {@link OllamaStandInServer} behaves.
+ *
+ * @param ttft            Delay before the first streamed chunk.
+ * @param tokensPerSecond Pace of the following chunks (one token each), 0 = as fast as possible.
+ * @param errorRate       Share of requests answered with HTTP 500.
+ * @param throttleRate    Share of requests answered with HTTP 429.
+ * @param responses       Canned answers, replayed round-robin.
+ */
+public record StandInProfile(Duration ttft, double tokensPerSecond, double errorRate, double throttleRate,
+                             List<String> responses) {
+
+    static final String DEFAULT_RESPONSE = """
+            <response>
+                <status>SUCCESS</status>
+                <thought>Stand-in answer.</thought>
+                <code><![CDATA[
+            import org.junit.jupiter.api.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+
+            class StandInTest {
+
+                @Test
+                void shouldAnswer() {
+                    assertThat(1 + 1).isEqualTo(2);
+                }
+            }
+                ]]></code>
+            </response>""";
+
+    public StandInProfile {
+        if (responses == null || responses.isEmpty()) {
+            responses = List.of(DEFAULT_RESPONSE);
+        }
+        responses = List.copyOf(responses);
+    }
+
+    public static StandInProfile instant() {
+        return new StandInProfile(Duration.ZERO, 0, 0, 0, List.of());
+    }
+
+    /**
+     * @return The canned answers in {@code directory} (one per file, in file name order).
+     */
+    public static List<String> responsesFrom(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> sorted = files.filter(Files::isRegularFile).sorted().toList();
+            List<String> responses = new ArrayList<>();
+            for (Path file : sorted) {
+                responses.add(Files.readString(file));
+            }
+            return responses;
+        }
+    }
+
+    Duration chunkInterval() {
+        return tokensPerSecond > 0 ? Duration.ofNanos((long) (1_000_000_000L / tokensPerSecond)) : Duration.ZERO;
+    }
+}
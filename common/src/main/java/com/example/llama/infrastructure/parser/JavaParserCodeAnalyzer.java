@@ -2,17 +2,23 @@ package com.example.llama.infrastructure.parser;
 
 import com.example.llama.domain.model.Intelligence;
 import com.example.llama.domain.service.CodeAnalyzer;
-import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
+import com.example.llama.utils.Hashing;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.RecordDeclaration; // Add support for Records
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.expr.MethodCallExpr;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -21,13 +27,9 @@ import java.util.stream.Collectors;
 @Component
 public class JavaParserCodeAnalyzer implements CodeAnalyzer {
 
-    static {
-        StaticJavaParser.getParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
-    }
-
     @Override
     public Intelligence extractIntelligence(String sourceCode, String filePath) {
-        CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+        CompilationUnit cu = JavaParsers.parse(sourceCode);
 
         String packageName = cu.getPackageDeclaration()
                 .map(pd -> pd.getNameAsString())
@@ -151,7 +153,7 @@ public class JavaParserCodeAnalyzer implements CodeAnalyzer {
     @Override
     public String getMethodBody(String sourceCode, String methodName) {
         try {
-            CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+            CompilationUnit cu = JavaParsers.parse(sourceCode);
             return cu.findAll(MethodDeclaration.class).stream()
                     .filter(m -> m.getNameAsString().equals(methodName))
                     .map(MethodDeclaration::toString)
@@ -161,4 +163,39 @@ public class JavaParserCodeAnalyzer implements CodeAnalyzer {
             return "// Error parsing code: " + e.getMessage();
         }
     }
+
+    @Override
+    public Map<String, String> fingerprintMethods(String sourceCode) {
+        CompilationUnit cu = JavaParsers.parse(sourceCode);
+        List<MethodDeclaration> allMethods = cu.findAll(MethodDeclaration.class);
+
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (MethodDeclaration method : allMethods) {
+            if (method.isPrivate()) continue;
+
+            // Private helpers reached from the method are part of its behavior
+            StringBuilder normalized = new StringBuilder();
+            appendNormalized(method, allMethods, normalized, Collections.newSetFromMap(new IdentityHashMap<>()));
+            fingerprints.put(method.getDeclarationAsString(), Hashing.sha256(normalized.toString()));
+        }
+        return fingerprints;
+    }
+
+    private void appendNormalized(MethodDeclaration method, List<MethodDeclaration> allMethods,
+                                  StringBuilder out, Set<MethodDeclaration> visited) {
+        if (!visited.add(method)) return;
+
+        MethodDeclaration copy = method.clone();
+        copy.getAllContainedComments().forEach(Comment::remove);
+        copy.removeComment();
+        out.append(copy).append('\n');
+
+        Set<String> calledNames = method.findAll(MethodCallExpr.class).stream()
+                .map(MethodCallExpr::getNameAsString)
+                .collect(Collectors.toSet());
+        allMethods.stream()
+                .filter(MethodDeclaration::isPrivate)
+                .filter(m -> calledNames.contains(m.getNameAsString()))
+                .forEach(helper -> appendNormalized(helper, allMethods, out, visited));
+    }
 }
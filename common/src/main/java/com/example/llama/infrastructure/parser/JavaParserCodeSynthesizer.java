@@ -3,6 +3,7 @@ package com.example.llama.infrastructure.parser;
 import com.example.llama.domain.model.GeneratedCode;
 import com.example.llama.domain.model.Intelligence;
 import com.example.llama.domain.service.CodeSynthesizer;
+import com.example.llama.domain.service.TestClassAssembly;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
@@ -15,19 +16,29 @@ import com.github.javaparser.ast.expr.StringLiteralExpr;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
 @Component
 public class JavaParserCodeSynthesizer implements CodeSynthesizer {
 
-    private final JavaParser parser;
+    private final ParserConfiguration config;
 
     public JavaParserCodeSynthesizer() {
-        ParserConfiguration config = new ParserConfiguration();
-        config.setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
-        this.parser = new JavaParser(config);
+        this.config = new ParserConfiguration();
+        this.config.setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
+    }
+
+    /**
+     * JavaParser instances reuse their token manager and are not thread-safe,
+     * so each call gets its own parser (the configuration is shared).
+     */
+    private JavaParser parser() {
+        return new JavaParser(config);
     }
 
     @Override
@@ -90,7 +101,7 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
         String className = "";
 
         try {
-            ParseResult<CompilationUnit> result = parser.parse(clean);
+            ParseResult<CompilationUnit> result = parser().parse(clean);
             if (result.isSuccessful() && result.getResult().isPresent()) {
                 CompilationUnit cu = result.getResult().get();
                 packageName = cu.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
@@ -99,7 +110,7 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
                 codeOnly.append(cu.toString());
             } else {
                 String wrapped = "class DummyFragment { " + clean + " }";
-                ParseResult<CompilationUnit> fragmentResult = parser.parse(wrapped);
+                ParseResult<CompilationUnit> fragmentResult = parser().parse(wrapped);
                 if (fragmentResult.isSuccessful() && fragmentResult.getResult().isPresent()) {
                     CompilationUnit cu = fragmentResult.getResult().get();
                     cu.getClassByName("DummyFragment").ifPresent(c -> {
@@ -142,23 +153,23 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
         if (code == null || code.isBlank())
             return false;
         try {
-            ParseResult<BodyDeclaration<?>> result = parser.parseBodyDeclaration(code);
+            ParseResult<BodyDeclaration<?>> result = parser().parseBodyDeclaration(code);
             if (result.isSuccessful())
                 return true;
 
-            ParseResult<CompilationUnit> cuResult = parser.parse(code);
+            ParseResult<CompilationUnit> cuResult = parser().parse(code);
             if (cuResult.isSuccessful())
                 return true;
 
-            ParseResult<com.github.javaparser.ast.stmt.Statement> stmtResult = parser.parseStatement(code);
+            ParseResult<com.github.javaparser.ast.stmt.Statement> stmtResult = parser().parseStatement(code);
             if (stmtResult.isSuccessful())
                 return true;
 
-            ParseResult<com.github.javaparser.ast.expr.Expression> exprResult = parser.parseExpression(code);
+            ParseResult<com.github.javaparser.ast.expr.Expression> exprResult = parser().parseExpression(code);
             if (exprResult.isSuccessful())
                 return true;
 
-            ParseResult<com.github.javaparser.ast.stmt.BlockStmt> blockResult = parser.parseBlock("{" + code + "}");
+            ParseResult<com.github.javaparser.ast.stmt.BlockStmt> blockResult = parser().parseBlock("{" + code + "}");
             return blockResult.isSuccessful();
         } catch (Exception e) {
             return false;
@@ -170,7 +181,7 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
         if (code == null || code.isBlank())
             return java.util.Collections.emptyList();
         try {
-            ParseResult<CompilationUnit> result = parser.parse(code);
+            ParseResult<CompilationUnit> result = parser().parse(code);
             if (result.isSuccessful() && result.getResult().isPresent()) {
                 return result.getResult().get()
                         .findAll(MethodDeclaration.class).stream()
@@ -213,7 +224,7 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
         if (existingSource == null || existingSource.isBlank())
             return "";
         try {
-            ParseResult<CompilationUnit> result = parser.parse(existingSource.trim());
+            ParseResult<CompilationUnit> result = parser().parse(existingSource.trim());
             if (!result.isSuccessful()) {
                 log.error("Parsing failed: {}", result.getProblems());
                 throw new RuntimeException("Syntax error in existing source.");
@@ -236,12 +247,93 @@ public class JavaParserCodeSynthesizer implements CodeSynthesizer {
         }
     }
 
+    @Override
+    public String removeTestBlocks(String existingSource, java.util.Collection<String> blockNames) {
+        if (existingSource == null || existingSource.isBlank() || blockNames.isEmpty())
+            return existingSource;
+        ParseResult<CompilationUnit> result = parser().parse(existingSource.trim());
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            log.error("Parsing failed: {}", result.getProblems());
+            throw new RuntimeException("Syntax error in existing source.");
+        }
+
+        CompilationUnit cu = result.getResult().get();
+        ClassOrInterfaceDeclaration mainClass = cu.findFirst(ClassOrInterfaceDeclaration.class)
+                .orElseThrow(() -> new RuntimeException("No class found."));
+        mainClass.getMembers().removeIf(m -> m instanceof ClassOrInterfaceDeclaration c
+                && blockNames.contains(c.getNameAsString()));
+        return cu.toString();
+    }
+
+    @Override
+    public TestClassAssembly openAssembly() {
+        return new StreamingAssembly();
+    }
+
+    /**
+     * Keeps the test class AST in memory and grafts each block as soon as it arrives.
+     * Blocks that arrive before the skeleton are buffered and grafted once it is installed.
+     */
+    private class StreamingAssembly implements TestClassAssembly {
+
+        private final List<String> pending = new ArrayList<>();
+        private CompilationUnit cu;
+        private ClassOrInterfaceDeclaration testClass;
+
+        @Override
+        public synchronized Optional<String> start(String skeletonSource, Collection<String> extraImports,
+                                                   boolean dropPlaceholders) {
+            if (skeletonSource == null || skeletonSource.isBlank())
+                return Optional.empty();
+            ParseResult<CompilationUnit> result = parser().parse(skeletonSource.trim());
+            if (!result.isSuccessful() || result.getResult().isEmpty()) {
+                log.warn("Streaming assembly: skeleton does not parse, waiting for final assembly.");
+                return Optional.empty();
+            }
+
+            CompilationUnit parsed = result.getResult().get();
+            Optional<ClassOrInterfaceDeclaration> mainClass = parsed.findFirst(ClassOrInterfaceDeclaration.class);
+            if (mainClass.isEmpty())
+                return Optional.empty();
+
+            if (dropPlaceholders) {
+                mainClass.get().getMembers().removeIf(m -> m instanceof ClassOrInterfaceDeclaration c
+                        && c.getNameAsString().startsWith("Describe_"));
+            }
+            for (String imp : extraImports) {
+                if (imp.startsWith("static ")) {
+                    parsed.addImport(imp.substring(7), true, false);
+                } else {
+                    parsed.addImport(imp);
+                }
+            }
+
+            cu = parsed;
+            testClass = mainClass.get();
+            pending.forEach(block -> addAsMemberSafely(testClass, block));
+            pending.clear();
+            return Optional.of(cu.toString());
+        }
+
+        @Override
+        public synchronized Optional<String> graft(String block) {
+            if (block == null || block.isBlank())
+                return Optional.empty();
+            if (testClass == null) {
+                pending.add(block);
+                return Optional.empty();
+            }
+            addAsMemberSafely(testClass, block);
+            return Optional.of(cu.toString());
+        }
+    }
+
     private void addAsMemberSafely(ClassOrInterfaceDeclaration target, String body) {
         if (body == null || body.isBlank())
             return;
         try {
             String wrapped = "class Wrapper { " + body + " }";
-            ParseResult<CompilationUnit> result = parser.parse(wrapped);
+            ParseResult<CompilationUnit> result = parser().parse(wrapped);
             if (result.isSuccessful() && result.getResult().isPresent()) {
                 result.getResult().get().getClassByName("Wrapper").ifPresent(wrapper -> {
                     wrapper.getMembers().forEach(member -> addMemberWithDeduplication(target, member));
@@ -0,0 +1,45 @@
+package com.example.llama.infrastructure.parser;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
+
+/**
+ * Thread-independent replacement for {@code StaticJavaParser.parse}.
+ * StaticJavaParser keeps its configuration per thread, so a language level set on one thread
+ * is silently lost on pipeline worker threads. Every call here uses a fresh parser
+ * with the shared Java 21 configuration.
+ */
+public final class JavaParsers {
+
+    private static final ParserConfiguration CONFIG = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
+
+    private JavaParsers() {
+    }
+
+    /**
+     * Parses a compilation unit, throwing {@link ParseProblemException} like StaticJavaParser does.
+     */
+    public static CompilationUnit parse(String sourceCode) {
+        ParseResult<CompilationUnit> result = new JavaParser(CONFIG).parse(sourceCode);
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            return result.getResult().get();
+        }
+        throw new ParseProblemException(result.getProblems());
+    }
+
+    /**
+     * Parses a single member (e.g. a method with its body) outside of a class.
+     */
+    public static BodyDeclaration<?> parseBodyDeclaration(String source) {
+        ParseResult<BodyDeclaration<?>> result = new JavaParser(CONFIG).parseBodyDeclaration(source);
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            return result.getResult().get();
+        }
+        throw new ParseProblemException(result.getProblems());
+    }
+}
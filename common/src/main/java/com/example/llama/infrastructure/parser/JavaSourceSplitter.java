@@ -1,6 +1,5 @@
 package com.example.llama.infrastructure.parser;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -22,7 +21,7 @@ public class JavaSourceSplitter {
         }
 
         public SplitResult split(String sourceCode, String targetMethodName) {
-                CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+                CompilationUnit cu = JavaParsers.parse(sourceCode);
                 String packageName = cu.getPackageDeclaration().map(p -> p.toString().trim()).orElse("");
                 String imports = cu.getImports().stream()
                                 .map(i -> i.toString().trim())
@@ -77,7 +76,7 @@ public class JavaSourceSplitter {
         }
 
         public SplitResult createSkeletonOnly(String sourceCode) {
-                CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+                CompilationUnit cu = JavaParsers.parse(sourceCode);
                 String packageName = cu.getPackageDeclaration().map(p -> p.toString().trim()).orElse("");
                 String imports = cu.getImports().stream()
                                 .map(i -> i.toString().trim())
@@ -95,7 +94,7 @@ public class JavaSourceSplitter {
         }
 
         public SplitResult createReferenceContext(String sourceCode) {
-                CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+                CompilationUnit cu = JavaParsers.parse(sourceCode);
 
                 // 1. ref_class_structure = Simplified: class name + fields only (no
                 // annotations)
@@ -1,6 +1,6 @@
 package com.example.llama.infrastructure.security;
 
-import com.github.javaparser.StaticJavaParser;
+import com.example.llama.infrastructure.parser.JavaParsers;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.FieldDeclaration;
@@ -39,7 +39,7 @@ public class SecurityMasker {
         if (sourceCode == null || sourceCode.isBlank())
             return sourceCode;
 
-        CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+        CompilationUnit cu = JavaParsers.parse(sourceCode);
 
         // 1. Process SEC:DROP (Remove entire nodes)
         processDrops(cu);
@@ -0,0 +1,134 @@
+package com.example.llama.interfaces.shell;
+
+import com.example.llama.application.BatchGenerationService;
+import com.example.llama.application.BatchGenerationService.BatchReport;
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+import com.example.llama.application.GenerationOptions;
+import com.example.llama.application.ScheduleReport;
+import com.example.llama.application.SchedulingPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+import org.springframework.shell.table.ArrayTableModel;
+import org.springframework.shell.table.BorderStyle;
+import org.springframework.shell.table.TableBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Project-wide generation in a single JVM (replaces one-JVM-per-file batch scripts).
+ */
+@Slf4j
+@ShellComponent
+@RequiredArgsConstructor
+public class BatchGenerateCommand {
+
+    private final BatchGenerationService batchGenerationService;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @ShellMethod(key = "generate-all", value = "Generate tests for every matching source file under a project or source root.")
+    public void generateAll(
+            @ShellOption(value = "--root") String root,
+            @ShellOption(value = "--glob", defaultValue = "**/*.java") String glob,
+            @ShellOption(value = "--exclude", defaultValue = "**/*Application.java") String exclude,
+            @ShellOption(value = "--output-project", defaultValue = "AUTO_DETECT") String outputProject,
+            @ShellOption(value = "--parallelism", defaultValue = "2") int parallelism,
+            @ShellOption(value = "--schedule", defaultValue = "longest-first", help = "longest-first | shortest-first | file-order") String schedule,
+            @ShellOption(value = "--churn", defaultValue = "false", help = "Weigh cost estimates by git churn") boolean churn,
+            @ShellOption(value = "--provider", defaultValue = ShellOption.NULL) String provider,
+            @ShellOption(value = "--candidates", defaultValue = "0", help = "Repair candidates raced per round (0 = config)") int candidates,
+            @ShellOption(value = "--candidate-providers", defaultValue = ShellOption.NULL, help = "Comma-separated providers for candidates") String candidateProviders,
+            @ShellOption(value = "--resume", defaultValue = "false", help = "Continue from the last checkpoint") boolean resume,
+            @ShellOption(value = "--deadline", defaultValue = ShellOption.NULL, help = "Time budget per file, e.g. 20m (0 = unbounded)") String deadline,
+            @ShellOption(value = "--no-cache", defaultValue = "false", help = "Always call the LLM (responses still refresh the cache)") boolean noCache) {
+
+        if (provider != null) {
+            com.example.llama.infrastructure.llm.LlmContextHolder.setProvider(provider);
+            log.info("🎯 LLM Provider override: {}", provider);
+        }
+        com.example.llama.infrastructure.llm.LlmContextHolder.setCacheBypass(noCache);
+
+        try {
+            SchedulingPolicy policy = SchedulingPolicy.parse(schedule);
+            GenerationOptions options = new GenerationOptions(candidates, GenerationOptions.parseList(candidateProviders),
+                    resume, GenerationOptions.parseDuration(deadline));
+            Path rootPath = Paths.get(root).toAbsolutePath().normalize();
+            Path outputRoot = "AUTO_DETECT".equals(outputProject)
+                    ? null : Paths.get(outputProject).toAbsolutePath().normalize();
+
+            List<Path> targets = batchGenerationService.collectTargets(rootPath, glob, exclude);
+            if (targets.isEmpty()) {
+                log.warn("⚠️ No files matched '{}' under {}", glob, rootPath);
+                return;
+            }
+
+            BatchReport report = batchGenerationService.generateAll(rootPath, targets, outputRoot, parallelism,
+                    policy, churn, options);
+            renderReport(report);
+            saveReport(report);
+        } catch (IllegalArgumentException e) {
+            // Invalid --schedule or --deadline: report it instead of a stack trace, nothing has run yet
+            log.error("❌ {}", e.getMessage());
+        } catch (IOException e) {
+            log.error("💥 Failed to scan {}", root, e);
+        } finally {
+            com.example.llama.infrastructure.llm.LlmContextHolder.clear();
+        }
+    }
+
+    private void renderReport(BatchReport report) {
+        List<FileGenerationResult> results = report.results();
+        String[][] data = new String[results.size() + 1][5];
+        data[0] = new String[]{"File", "Status", "Repairs", "Time(ms)", "Tokens"};
+
+        for (int i = 0; i < results.size(); i++) {
+            FileGenerationResult r = results.get(i);
+            data[i + 1] = new String[]{
+                    report.root().relativize(r.sourcePath()).toString(),
+                    r.passed() ? "✅" : "❌",
+                    String.valueOf(r.repairAttempts()),
+                    String.valueOf(r.durationMs()),
+                    String.valueOf(r.totalTokens())
+            };
+        }
+
+        TableBuilder tableBuilder = new TableBuilder(new ArrayTableModel(data));
+        tableBuilder.addFullBorder(BorderStyle.fancy_light);
+
+        System.out.println("\n📦 BATCH GENERATION REPORT");
+        System.out.println(tableBuilder.build().render(120));
+        System.out.printf("Files: %d | Passed: %d | Pass rate: %.1f%% | Workers: %d%n",
+                report.totalFiles(), report.passedFiles(), report.passRate() * 100, report.parallelism());
+        System.out.printf("Wall clock: %d ms | Throughput: %.2f files/min, %.0f tokens/min%n",
+                report.wallClockMs(), report.filesPerMinute(), report.tokensPerMinute());
+        ScheduleReport schedule = report.schedule();
+        System.out.printf("Schedule: %s | Estimate rank correlation: %.2f | Mean abs error: %.0f%%%n%n",
+                schedule.policy(), schedule.rankCorrelation(), schedule.meanAbsPercentError() * 100);
+    }
+
+    private void saveReport(BatchReport report) {
+        try {
+            Path reportDir = Paths.get(".test-hea-llama", "reports");
+            Files.createDirectories(reportDir);
+            String date = report.startedAt().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            Path filePath = reportDir.resolve("batch_report_" + date + ".json");
+            objectMapper.writeValue(filePath.toFile(), report);
+            log.info("📄 Batch report saved: {}", filePath.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to save batch report", e);
+        }
+    }
+}
@@ -23,9 +23,8 @@ public class BenchmarkCommand {
     @ShellMethod(key = "benchmark", value = "Run performance benchmarks for LLM providers.")
     public void benchmark() {
         log.info("🚀 Starting LLM optimization benchmark suite...");
-        
         List<BenchmarkResult> results = modelOptimizer.optimizeAll();
-        
+
         if (results.isEmpty()) {
             log.warn("⚠️ No providers configured for benchmark.");
             return;
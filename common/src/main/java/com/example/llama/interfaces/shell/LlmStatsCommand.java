@@ -0,0 +1,114 @@
+package com.example.llama.interfaces.shell;
+
+import com.example.llama.infrastructure.llm.CachingLlmClient;
+import com.example.llama.infrastructure.llm.CachingLlmClient.CacheStats;
+import com.example.llama.infrastructure.llm.HedgingPolicy;
+import com.example.llama.infrastructure.llm.HedgingPolicy.HedgeStats;
+import com.example.llama.infrastructure.llm.ProviderAdmissionController;
+import com.example.llama.infrastructure.llm.ProviderAdmissionController.ProviderLimits;
+import com.example.llama.infrastructure.llm.ProviderCircuitBreakers;
+import com.example.llama.infrastructure.llm.RequestTimeouts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+import org.springframework.shell.table.ArrayTableModel;
+import org.springframework.shell.table.BorderStyle;
+import org.springframework.shell.table.TableBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@ShellComponent
+@RequiredArgsConstructor
+public class LlmStatsCommand {
+
+    private final CachingLlmClient cachingLlmClient;
+    private final ProviderAdmissionController admissionController;
+    private final HedgingPolicy hedgingPolicy;
+    private final ProviderCircuitBreakers circuitBreakers;
+    private final RequestTimeouts requestTimeouts;
+
+    @ShellMethod(key = "llm-stats", value = "Show LLM response cache statistics, current provider limits and hedging.")
+    public void llmStats(
+            @ShellOption(value = "--clear", defaultValue = "false", help = "Drop every cached response") boolean clear) {
+        if (clear) {
+            try {
+                cachingLlmClient.clear();
+                log.info("🧹 LLM response cache cleared.");
+            } catch (IOException e) {
+                log.error("💥 Failed to clear the LLM response cache", e);
+            }
+        }
+
+        CacheStats stats = cachingLlmClient.stats();
+        String[][] data = {
+                {"Metric", "Value"},
+                {"Enabled", stats.enabled() ? "✅" : "❌"},
+                {"Hits / Misses", stats.hits() + " / " + stats.misses()},
+                {"Hit rate", String.format("%.1f%%", stats.hitRate() * 100)},
+                {"Saved tokens", String.valueOf(stats.savedTokens())},
+                {"Saved time(ms)", String.valueOf(stats.savedMs())},
+                {"Entries", String.valueOf(stats.entries())},
+                {"Live / File (KB)", stats.liveBytes() / 1024 + " / " + stats.fileBytes() / 1024},
+                {"Evictions", String.valueOf(stats.evictions())},
+                {"Coalesced calls", stats.coalesced() + " (" + stats.coalescedTokens() + " tokens)"}
+        };
+
+        TableBuilder tableBuilder = new TableBuilder(new ArrayTableModel(data));
+        tableBuilder.addFullBorder(BorderStyle.fancy_light);
+
+        System.out.println("\n💾 LLM CACHE");
+        System.out.println(tableBuilder.build().render(80));
+
+        printProviderLimits();
+        printHedging();
+    }
+
+    private void printHedging() {
+        HedgeStats stats = hedgingPolicy.stats();
+        if (!stats.enabled()) return;
+
+        String[][] data = {
+                {"Metric", "Value"},
+                {"Routed requests", String.valueOf(stats.requests())},
+                {"Hedged", stats.hedged() + String.format(" (%.1f%% of max %.1f%%)", stats.hedgeRate() * 100, stats.maxRate() * 100)},
+                {"Hedge wins", String.valueOf(stats.hedgeWins())}
+        };
+
+        TableBuilder tableBuilder = new TableBuilder(new ArrayTableModel(data));
+        tableBuilder.addFullBorder(BorderStyle.fancy_light);
+
+        System.out.println("\n🪝 HEDGED REQUESTS");
+        System.out.println(tableBuilder.build().render(80));
+    }
+
+    private void printProviderLimits() {
+        List<ProviderLimits> limits = admissionController.limits();
+        if (limits.isEmpty()) return;
+
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Provider", "Limit / Max", "In flight", "Rate(req/min)", "Admitted", "Throttled", "Circuit", "Timeout(s) / Hit"});
+        for (ProviderLimits l : limits) {
+            rows.add(new String[]{
+                    l.provider(),
+                    l.concurrencyLimit() + " / " + l.maxConcurrency(),
+                    String.valueOf(l.inFlight()),
+                    l.isPaced() ? String.format("%.1f", l.ratePerMinute()) : "unpaced",
+                    String.valueOf(l.admitted()),
+                    String.valueOf(l.throttled()),
+                    circuitBreakers.of(l.provider()).state().name(),
+                    requestTimeouts.timeoutFor(l.provider()).toSeconds() + " / " + requestTimeouts.timeouts(l.provider())
+            });
+        }
+
+        TableBuilder tableBuilder = new TableBuilder(new ArrayTableModel(rows.toArray(String[][]::new)));
+        tableBuilder.addFullBorder(BorderStyle.fancy_light);
+
+        System.out.println("\n🚦 PROVIDER ADMISSION");
+        System.out.println(tableBuilder.build().render(120));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.llama.interfaces.shell;
+
+import com.example.llama.infrastructure.llm.standin.OllamaStandInServer;
+import com.example.llama.infrastructure.llm.standin.OllamaStandInServer.StandInStats;
+import com.example.llama.infrastructure.llm.standin.StandInProfile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+import org.springframework.shell.table.ArrayTableModel;
+import org.springframework.shell.table.BorderStyle;
+import org.springframework.shell.table.TableBuilder;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Starts and stops the {@link OllamaStandInServer} for offline load tests of the pipeline.
+ */
+@Slf4j
+@ShellComponent
+public class StandInCommand {
+
+    private OllamaStandInServer server;
+
+    @ShellMethod(key = "ollama-standin", value = "Start (or stop) a local Ollama-compatible stand-in server for load tests.")
+    public synchronized void standIn(
+            @ShellOption(value = "--port", defaultValue = "11435") int port,
+            @ShellOption(value = "--ttft", defaultValue = "800ms", help = "Delay before the first token") String ttft,
+            @ShellOption(value = "--tps", defaultValue = "40", help = "Tokens per second after the first (0 = unpaced)") double tokensPerSecond,
+            @ShellOption(value = "--error-rate", defaultValue = "0", help = "Share of requests failed with HTTP 500") double errorRate,
+            @ShellOption(value = "--throttle-rate", defaultValue = "0", help = "Share of requests rejected with HTTP 429") double throttleRate,
+            @ShellOption(value = "--responses", defaultValue = ShellOption.NULL, help = "Directory of canned answers, one per file") String responses,
+            @ShellOption(value = "--stop", defaultValue = "false", help = "Stop the running stand-in and print its counters") boolean stop) {
+        if (server != null) {
+            printStats(server.stats());
+            server.close();
+            server = null;
+            log.info("🛑 Ollama stand-in stopped.");
+        }
+        if (stop) {
+            return;
+        }
+
+        try {
+            List<String> answers = responses != null ? StandInProfile.responsesFrom(Paths.get(responses)) : List.of();
+            server = OllamaStandInServer.start(new StandInProfile(DurationStyle.detectAndParse(ttft), tokensPerSecond,
+                    errorRate, throttleRate, answers), port);
+            log.info("👉 Point an ollamaNative provider's base-url (or spring.ai.ollama.base-url) at {}", server.baseUrl());
+        } catch (IOException e) {
+            log.error("💥 Cannot read canned responses from {}: {}", responses, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    private void printStats(StandInStats stats) {
+        String[][] data = {
+                {"Metric", "Value"},
+                {"Requests", String.valueOf(stats.requests())},
+                {"Completed", String.valueOf(stats.completed())},
+                {"Failed (500)", String.valueOf(stats.failed())},
+                {"Throttled (429)", String.valueOf(stats.throttled())},
+                {"Peak in flight", String.valueOf(stats.peakInFlight())}
+        };
+
+        TableBuilder tableBuilder = new TableBuilder(new ArrayTableModel(data));
+        tableBuilder.addFullBorder(BorderStyle.fancy_light);
+
+        System.out.println("\n🧪 OLLAMA STAND-IN");
+        System.out.println(tableBuilder.build().render(80));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.llama.utils;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Carries the caller's thread-bound state (provider override, cache bypass, metric collection, deadline)
+ * into tasks that run on other threads, e.g. virtual-thread workers.
+ * Always wrap on the caller thread: dependent stages of a CompletableFuture run
+ * after the upstream task has already restored its worker's state.
+ */
+public final class ContextPropagator {
+
+    private ContextPropagator() {
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        String provider = LlmContextHolder.getProvider();
+        boolean cacheBypass = LlmContextHolder.isCacheBypassed();
+        List<LlmResponse> metrics = MetricCollector.current();
+        Deadline deadline = Deadline.current();
+
+        return () -> runWith(provider, cacheBypass, metrics, deadline, task);
+    }
+
+    public static <T, R> Function<T, R> wrap(Function<T, R> task) {
+        String provider = LlmContextHolder.getProvider();
+        boolean cacheBypass = LlmContextHolder.isCacheBypassed();
+        List<LlmResponse> metrics = MetricCollector.current();
+        Deadline deadline = Deadline.current();
+
+        return input -> runWith(provider, cacheBypass, metrics, deadline, () -> task.apply(input));
+    }
+
+    private static <T> T runWith(String provider, boolean cacheBypass, List<LlmResponse> metrics, Deadline deadline,
+                                 Supplier<T> task) {
+        String previousProvider = LlmContextHolder.getProvider();
+        boolean previousCacheBypass = LlmContextHolder.isCacheBypassed();
+        List<LlmResponse> previousMetrics = MetricCollector.current();
+        Deadline previousDeadline = Deadline.current();
+        LlmContextHolder.setProvider(provider);
+        LlmContextHolder.setCacheBypass(cacheBypass);
+        MetricCollector.attach(metrics);
+        Deadline.bind(deadline);
+        try {
+            return task.get();
+        } finally {
+            LlmContextHolder.setProvider(previousProvider);
+            LlmContextHolder.setCacheBypass(previousCacheBypass);
+            MetricCollector.attach(previousMetrics);
+            Deadline.bind(previousDeadline);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.llama.utils;
+
+import java.time.Duration;
+
+/**
+ * Time budget of one unit of work (one source file), bound to the current thread.
+ * Blocking calls clamp their own timeouts with {@link #clamp(Duration)} and give up
+ * cooperatively once the budget is spent. {@link ContextPropagator} hands it to worker threads.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> currentDeadline = new ThreadLocal<>();
+    private static final Deadline NONE = new Deadline(0, null);
+
+    private final long expiresAtNanos;
+    private final Duration budget;
+
+    private Deadline(long expiresAtNanos, Duration budget) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.budget = budget;
+    }
+
+    /**
+     * @param budget Time allowed from now on. Null, zero or negative means unbounded.
+     */
+    public static Deadline after(Duration budget) {
+        if (budget == null || budget.isZero() || budget.isNegative()) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + budget.toNanos(), budget);
+    }
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return budget != null;
+    }
+
+    public boolean isExpired() {
+        return isBounded() && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Time left, never negative. Unbounded deadlines report {@code Long.MAX_VALUE} millis.
+     */
+    public Duration remaining() {
+        if (!isBounded()) {
+            return Duration.ofMillis(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * The shorter of a call's own timeout and the time left.
+     */
+    public Duration clamp(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    public Duration budget() {
+        return budget;
+    }
+
+    /**
+     * The deadline bound to the current thread, or an unbounded one.
+     */
+    public static Deadline current() {
+        Deadline deadline = currentDeadline.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    public static void bind(Deadline deadline) {
+        if (deadline == null || deadline == NONE) {
+            currentDeadline.remove();
+        } else {
+            currentDeadline.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        currentDeadline.remove();
+    }
+
+    @Override
+    public String toString() {
+        return isBounded() ? "Deadline[" + budget + ", remaining=" + remaining() + "]" : "Deadline[none]";
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.llama.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stable content hashes, e.g. the normalized method fingerprints of the generation manifest.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * @return Hex SHA-256 over all parts, each length-prefixed so part boundaries matter; null counts as "".
+     */
+    public static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                byte[] bytes = (part == null ? "" : part).getBytes(StandardCharsets.UTF_8);
+                // Length prefix keeps ("ab","c") and ("a","bc") apart
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,13 +2,14 @@ package com.example.llama.utils;
 
 import com.example.llama.domain.model.LlmResponse;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MetricCollector {
     private static final ThreadLocal<List<LlmResponse>> currentMetrics = new ThreadLocal<>();
 
     public static void start() {
-        currentMetrics.set(new ArrayList<>());
+        currentMetrics.set(Collections.synchronizedList(new ArrayList<>()));
     }
 
     public static void record(LlmResponse response) {
@@ -24,4 +25,20 @@ public class MetricCollector {
         currentMetrics.remove();
         return wrapper.get(0);
     }
+
+    /**
+     * Returns the collection bound to the current thread (may be null).
+     * Used to hand the same collection over to worker threads.
+     */
+    static List<LlmResponse> current() {
+        return currentMetrics.get();
+    }
+
+    static void attach(List<LlmResponse> metrics) {
+        if (metrics == null) {
+            currentMetrics.remove();
+        } else {
+            currentMetrics.set(metrics);
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.llama.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local token count estimate for when a provider reports none. Text is pre-tokenized the way BPE
+ * tokenizers split it (words with their leading space, digit runs, punctuation runs, whitespace runs)
+ * and each piece is priced by what a code-trained vocabulary typically merges it into: a short word is one
+ * token, identifiers split at camelCase/snake_case boundaries, digits in groups of three, punctuation
+ * in pairs, non-Latin script roughly per character.
+ * <p>
+ * Unlike a flat {@code length / 4}, this follows what drives real token counts in prompts: identifier
+ * density, indentation and markup.
+ */
+public final class TokenEstimator {
+
+    private static final Pattern PIECES = Pattern.compile(
+            " ?[\\p{IsLatin}]+| ?\\p{N}+| ?[^\\s\\p{L}\\p{N}]+|\\s+|\\p{L}");
+    private static final Pattern SUB_WORDS = Pattern.compile("[A-Z]?[a-z]+|[A-Z]+(?![a-z])|[a-z]+");
+    private static final int MERGED_WORD_CHARS = 6;
+    private static final int CHARS_PER_LONG_WORD_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int tokens = 0;
+        Matcher pieces = PIECES.matcher(text);
+        while (pieces.find()) {
+            tokens += price(pieces.group());
+        }
+        return tokens;
+    }
+
+    private static int price(String piece) {
+        char first = piece.charAt(0);
+        String body = first == ' ' && piece.length() > 1 ? piece.substring(1) : piece;
+        char head = body.charAt(0);
+        if (Character.isWhitespace(head)) {
+            return 1; // Indentation and blank lines merge into a single token
+        }
+        if (Character.isDigit(head)) {
+            return (body.length() + 2) / 3;
+        }
+        if (Character.isLetter(head)) {
+            if (Character.UnicodeScript.of(head) != Character.UnicodeScript.LATIN) {
+                return 1;
+            }
+            return priceWord(body);
+        }
+        return (body.length() + 1) / 2;
+    }
+
+    private static int priceWord(String word) {
+        int tokens = 0;
+        Matcher subWords = SUB_WORDS.matcher(word);
+        while (subWords.find()) {
+            int length = subWords.group().length();
+            tokens += length <= MERGED_WORD_CHARS ? 1 : (length + CHARS_PER_LONG_WORD_TOKEN - 1) / CHARS_PER_LONG_WORD_TOKEN;
+        }
+        return Math.max(1, tokens);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.llama.application;
+
+import com.example.llama.application.BatchGenerationService.BatchReport;
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+import com.example.llama.application.config.PipelineProperties;
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.service.CodeWriter;
+import com.example.llama.domain.service.TestRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class BatchGenerationServiceTest {
+
+    private static final Path ROOT = Paths.get("/project").toAbsolutePath();
+
+    @Mock
+    private FileGenerationService fileGenerationService;
+    @Mock
+    private FileCostEstimator costEstimator;
+
+    private BatchGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchGenerationService(fileGenerationService, costEstimator);
+        given(costEstimator.estimate(any(), eq(ROOT), anyBoolean())).willAnswer(invocation -> {
+            Path path = invocation.getArgument(0);
+            return new FileCostEstimator.FileCost(path, 1, 100, 0, 0, 1.0);
+        });
+    }
+
+    @Test
+    void shouldRunFilesOnParallelWorkers() {
+        // given
+        List<Path> targets = List.of(ROOT.resolve("A.java"), ROOT.resolve("B.java"));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        AtomicInteger overlapping = new AtomicInteger();
+        given(fileGenerationService.generate(any(), any(), any())).willAnswer(invocation -> {
+            Path path = invocation.getArgument(0);
+            bothRunning.countDown();
+            // Only returns early when the other file is in flight at the same time
+            if (bothRunning.await(5, TimeUnit.SECONDS)) {
+                overlapping.incrementAndGet();
+            }
+            return new FileGenerationResult(path, true, 0, 10, 100, 50, null);
+        });
+
+        // when
+        BatchReport report = service.generateAll(ROOT, targets, null, 2, SchedulingPolicy.FILE_ORDER, false,
+                GenerationOptions.defaults());
+
+        // then
+        assertThat(overlapping.get()).isEqualTo(2);
+        assertThat(report.parallelism()).isEqualTo(2);
+        assertThat(report.passedFiles()).isEqualTo(2);
+        assertThat(report.totalTokens()).isEqualTo(300);
+    }
+
+    @Test
+    void shouldReportFailedFileAndKeepGeneratingTheRest() {
+        // given
+        Path broken = ROOT.resolve("Broken.java");
+        List<Path> targets = List.of(broken, ROOT.resolve("C.java"), ROOT.resolve("D.java"));
+        given(fileGenerationService.generate(any(), any(), any())).willAnswer(invocation -> {
+            Path path = invocation.getArgument(0);
+            if (path.equals(broken)) {
+                throw new IllegalStateException("analyzer crashed");
+            }
+            return new FileGenerationResult(path, true, 0, 10, 0, 0, null);
+        });
+
+        // when
+        BatchReport report = service.generateAll(ROOT, targets, null, 1, SchedulingPolicy.FILE_ORDER, false,
+                GenerationOptions.defaults());
+
+        // then
+        assertThat(report.results()).hasSize(3);
+        assertThat(report.passedFiles()).isEqualTo(2);
+        assertThat(report.results()).filteredOn(r -> r.sourcePath().equals(broken))
+                .singleElement()
+                .satisfies(r -> {
+                    assertThat(r.passed()).isFalse();
+                    assertThat(r.errorMessage()).isEqualTo("analyzer crashed");
+                });
+    }
+
+    @Test
+    void shouldNeverVerifyTwoFilesOfTheSameProjectAtOnce(@TempDir Path outputProject) throws IOException {
+        // given
+        BureaucracyOrchestrator orchestrator = mock(BureaucracyOrchestrator.class);
+        TestRunner testRunner = mock(TestRunner.class);
+        FileGenerationService realService = new FileGenerationService(orchestrator, mock(CodeWriter.class), testRunner,
+                mock(CandidateRace.class), new VerificationLocks(), new PipelineProperties());
+        BatchGenerationService batch = new BatchGenerationService(realService, costEstimator);
+
+        Path first = Files.writeString(outputProject.resolve("A.java"), "package com.example;\n\nclass A {}\n");
+        Path second = Files.writeString(outputProject.resolve("B.java"), "package com.example;\n\nclass B {}\n");
+        CountDownLatch bothGenerating = new CountDownLatch(2);
+        given(orchestrator.orchestrate(anyString(), any(), any(), any())).willAnswer(invocation -> {
+            Path path = invocation.getArgument(1);
+            // Both workers finish generating together, so both reach verification at the same moment
+            bothGenerating.countDown();
+            bothGenerating.await(5, TimeUnit.SECONDS);
+            String className = path.getFileName().toString().replace(".java", "Test");
+            return new GeneratedCode("com.example", className, Set.of(), "class " + className + " {}");
+        });
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        given(testRunner.runTest(eq(outputProject), anyString())).willAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            running.decrementAndGet();
+            return new TestRunner.TestExecutionResult(true, "OK", null);
+        });
+
+        // when
+        BatchReport report = batch.generateAll(ROOT, List.of(first, second), outputProject, 2,
+                SchedulingPolicy.FILE_ORDER, false, GenerationOptions.defaults());
+
+        // then
+        assertThat(bothGenerating.getCount()).isZero();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(report.passedFiles()).isEqualTo(2);
+    }
+}
@@ -55,14 +55,14 @@ class BureaucracyOrchestratorTest {
         Path path = Paths.get("MyService.java");
         GeneratedCode expected = new GeneratedCode(Collections.emptySet(), "// generated");
 
-        given(serviceOrchestrator.orchestrate(eq(source), eq(path))).willReturn(expected);
+        given(serviceOrchestrator.orchestrate(eq(source), eq(path), any(GenerationOptions.class))).willReturn(expected);
 
         // When
         GeneratedCode result = orchestrator.orchestrate(source, path, Intelligence.ComponentType.SERVICE);
 
         // Then
         assertThat(result).isEqualTo(expected);
-        verify(serviceOrchestrator).orchestrate(source, path);
+        verify(serviceOrchestrator).orchestrate(source, path, GenerationOptions.defaults());
     }
 
     @Test
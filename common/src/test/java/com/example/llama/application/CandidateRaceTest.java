@@ -0,0 +1,121 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.service.CodeSynthesizer;
+import com.example.llama.domain.service.TestRunner.TestExecutionResult;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Candidate Race Test")
+class CandidateRaceTest {
+
+    @Mock
+    CodeSynthesizer codeSynthesizer;
+
+    @Test
+    @DisplayName("should verify candidates in arrival order and cancel the rest once one passes")
+    void shouldPickFirstPassingCandidate() throws InterruptedException {
+        // given
+        given(codeSynthesizer.validateSyntax(anyString())).willReturn(true);
+        CandidateRace race = new CandidateRace(codeSynthesizer);
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+        List<String> verified = new CopyOnWriteArrayList<>();
+
+        List<CandidateRace.Candidate> candidates = List.of(
+                new CandidateRace.Candidate("slow", () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        slowInterrupted.countDown();
+                    }
+                    return code("slow");
+                }),
+                new CandidateRace.Candidate("bad", () -> code("bad")),
+                new CandidateRace.Candidate("good", () -> sleepThen(200, code("good"))));
+
+        // when
+        CandidateRace.RaceOutcome outcome = race.race(candidates, candidate -> {
+            verified.add(candidate.body());
+            return new TestExecutionResult(candidate.body().equals("good"), "", null);
+        });
+
+        // then
+        assertThat(outcome.passed()).isTrue();
+        assertThat(outcome.code().body()).isEqualTo("good");
+        assertThat(outcome.provider()).isEqualTo("good");
+        assertThat(verified).containsExactly("bad", "good");
+        assertThat(slowInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should skip empty or unparsable candidates and report the last verified failure")
+    void shouldReportLastFailureWhenNonePasses() {
+        // given
+        given(codeSynthesizer.validateSyntax("broken")).willReturn(false);
+        given(codeSynthesizer.validateSyntax("compiles")).willReturn(true);
+        CandidateRace race = new CandidateRace(codeSynthesizer);
+
+        List<CandidateRace.Candidate> candidates = List.of(
+                new CandidateRace.Candidate(null, () -> code("")),
+                new CandidateRace.Candidate(null, () -> sleepThen(50, code("broken"))),
+                new CandidateRace.Candidate(null, () -> sleepThen(100, code("compiles"))));
+
+        // when
+        CandidateRace.RaceOutcome outcome = race.race(candidates,
+                candidate -> new TestExecutionResult(false, "assertion failed", "Exit code: 1"));
+
+        // then
+        assertThat(outcome.passed()).isFalse();
+        assertThat(outcome.verified()).isEqualTo(1);
+        assertThat(outcome.code().body()).isEqualTo("compiles");
+    }
+
+    @Test
+    @DisplayName("should assign providers round-robin and run each candidate under its provider")
+    void shouldRunCandidatesUnderAssignedProvider() {
+        // given
+        given(codeSynthesizer.validateSyntax(anyString())).willReturn(true);
+        CandidateRace race = new CandidateRace(codeSynthesizer);
+        List<String> seenProviders = new CopyOnWriteArrayList<>();
+
+        List<CandidateRace.Candidate> candidates = CandidateRace.fanOut(3, List.of("gemini", "ollama"), () -> {
+            seenProviders.add(LlmContextHolder.getProvider());
+            return code("x");
+        });
+
+        // when
+        race.race(candidates, candidate -> new TestExecutionResult(false, "", null));
+
+        // then
+        assertThat(candidates).extracting(CandidateRace.Candidate::provider).containsExactly("gemini", "ollama", "gemini");
+        assertThat(seenProviders).containsExactlyInAnyOrder("gemini", "ollama", "gemini");
+    }
+
+    private static GeneratedCode code(String body) {
+        return new GeneratedCode("com.test", "FooTest", Set.of(), body);
+    }
+
+    private static GeneratedCode sleepThen(long millis, GeneratedCode code) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return code;
+    }
+}
@@ -2,7 +2,9 @@ package com.example.llama.application;
 
 import com.example.llama.domain.model.benchmark.BenchmarkResult;
 import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
 import com.example.llama.infrastructure.llm.LlmProviderFactory;
+import com.example.llama.infrastructure.llm.ModelRoutingTable;
 import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +20,7 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,12 +32,14 @@ class DefaultModelOptimizerTest {
     private LlmProviderProperties properties;
     @Mock
     private BureaucracyOrchestrator orchestrator;
+    @Mock
+    private ModelRoutingTable routingTable;
 
     private DefaultModelOptimizer optimizer;
 
     @BeforeEach
     void setUp() {
-        optimizer = new DefaultModelOptimizer(providerFactory, properties, orchestrator);
+        optimizer = new DefaultModelOptimizer(providerFactory, properties, orchestrator, routingTable);
     }
 
     @Test
@@ -69,5 +75,24 @@ class DefaultModelOptimizerTest {
         // Then
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getProvider()).isEqualTo("ollama");
+        verify(routingTable).learn(any());
+    }
+
+    @Test
+    void shouldBypassCacheWhileBenchmarking() {
+        // Given
+        List<Boolean> bypassed = new ArrayList<>();
+        GeneratedCode mockCode = new GeneratedCode("pkg", "Test", Collections.emptySet(), "body");
+        when(orchestrator.orchestrate(any(), any(), any())).thenAnswer(invocation -> {
+            bypassed.add(LlmContextHolder.isCacheBypassed());
+            return mockCode;
+        });
+
+        // When
+        optimizer.benchmark("gemini", "pro");
+
+        // Then
+        assertThat(bypassed).isNotEmpty().containsOnly(true);
+        assertThat(LlmContextHolder.isCacheBypassed()).isFalse();
     }
 }
\ No newline at end of file
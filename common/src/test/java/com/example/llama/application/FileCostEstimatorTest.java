@@ -0,0 +1,89 @@
+package com.example.llama.application;
+
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.service.CodeAnalyzer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("File Cost Estimator Test")
+class FileCostEstimatorTest {
+
+    @Mock
+    CodeAnalyzer codeAnalyzer;
+
+    @Test
+    @DisplayName("should rate files with more methods and project collaborators as more expensive")
+    void shouldEstimateFromMethodsAndCollaborators(@TempDir Path root) throws IOException {
+        // given
+        Path sourceRoot = root.resolve("src/main/java/com/test");
+        Files.createDirectories(sourceRoot);
+        Files.writeString(sourceRoot.resolve("Repo.java"), "package com.test; class Repo {}");
+        Path small = Files.writeString(sourceRoot.resolve("Small.java"), "class Small {}");
+        Path big = Files.writeString(sourceRoot.resolve("Big.java"), "class Big {}");
+
+        given(codeAnalyzer.extractIntelligence(anyString(), contains("Small")))
+                .willReturn(intelligence(List.of("public void a()"), List.of()));
+        given(codeAnalyzer.extractIntelligence(anyString(), contains("Big")))
+                .willReturn(intelligence(List.of("public void a()", "public void b()", "public String toString()"),
+                        List.of("import com.test.Repo;", "import java.util.List;")));
+        FileCostEstimator estimator = new FileCostEstimator(codeAnalyzer);
+
+        // when
+        FileCostEstimator.FileCost smallCost = estimator.estimate(small, root, false);
+        FileCostEstimator.FileCost bigCost = estimator.estimate(big, root, false);
+
+        // then
+        assertThat(bigCost.methods()).isEqualTo(2);
+        assertThat(bigCost.collaborators()).isEqualTo(1);
+        assertThat(bigCost.units()).isGreaterThan(smallCost.units());
+        assertThat(SchedulingPolicy.LONGEST_FIRST.order(List.of(smallCost, bigCost)))
+                .extracting(FileCostEstimator.FileCost::path).containsExactly(big, small);
+        assertThat(SchedulingPolicy.SHORTEST_FIRST.order(List.of(bigCost, smallCost)))
+                .extracting(FileCostEstimator.FileCost::path).containsExactly(small, big);
+    }
+
+    @Test
+    @DisplayName("should report estimate accuracy against measured durations")
+    void shouldReportEstimateAccuracy() {
+        // given
+        List<FileCostEstimator.FileCost> costs = List.of(
+                new FileCostEstimator.FileCost(Path.of("A.java"), 1, 100, 0, 0, 1.0),
+                new FileCostEstimator.FileCost(Path.of("B.java"), 3, 100, 0, 0, 3.0),
+                new FileCostEstimator.FileCost(Path.of("C.java"), 2, 100, 0, 0, 2.0));
+        List<FileGenerationResult> results = List.of(
+                new FileGenerationResult(Path.of("A.java"), true, 0, 1000, 0, 0, null),
+                new FileGenerationResult(Path.of("B.java"), true, 0, 3000, 0, 0, null),
+                new FileGenerationResult(Path.of("C.java"), true, 0, 2000, 0, 0, null));
+
+        // when
+        ScheduleReport report = ScheduleReport.of(SchedulingPolicy.LONGEST_FIRST, costs, results);
+
+        // then
+        assertThat(report.msPerUnit()).isCloseTo(1000.0, within(0.001));
+        assertThat(report.meanAbsPercentError()).isCloseTo(0.0, within(0.001));
+        assertThat(report.rankCorrelation()).isCloseTo(1.0, within(0.001));
+        assertThat(SchedulingPolicy.parse("shortest-first")).isEqualTo(SchedulingPolicy.SHORTEST_FIRST);
+    }
+
+    private Intelligence intelligence(List<String> methods, List<String> imports) {
+        return new Intelligence("com.test", "Cut", List.of(), methods, Intelligence.ComponentType.SERVICE,
+                imports, List.of(), "", List.of());
+    }
+}
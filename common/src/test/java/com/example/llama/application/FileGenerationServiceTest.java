@@ -0,0 +1,91 @@
+package com.example.llama.application;
+
+import com.example.llama.application.FileGenerationService.FileGenerationResult;
+import com.example.llama.application.config.PipelineProperties;
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.service.CodeWriter;
+import com.example.llama.domain.service.TestRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FileGenerationServiceTest {
+
+    @TempDir
+    Path projectRoot;
+
+    @Mock
+    private BureaucracyOrchestrator orchestrator;
+    @Mock
+    private CodeWriter codeWriter;
+    @Mock
+    private TestRunner testRunner;
+    @Mock
+    private CandidateRace candidateRace;
+
+    private FileGenerationService service;
+    private Path sourcePath;
+    private final GeneratedCode generated = new GeneratedCode("com.example", "OrderServiceTest", Set.of(), "class OrderServiceTest {}");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new FileGenerationService(orchestrator, codeWriter, testRunner, candidateRace,
+                new VerificationLocks(), new PipelineProperties());
+        sourcePath = projectRoot.resolve("OrderService.java");
+        Files.writeString(sourcePath, "package com.example;\n\npublic class OrderService {}\n");
+        given(orchestrator.orchestrate(anyString(), eq(sourcePath), eq(Intelligence.ComponentType.SERVICE), any()))
+                .willReturn(generated);
+    }
+
+    @Test
+    void shouldSaveAndVerifyOnceWhenFirstResultPasses() {
+        // given
+        given(testRunner.runTest(projectRoot, "com.example.OrderServiceTest"))
+                .willReturn(new TestRunner.TestExecutionResult(true, "OK", null));
+
+        // when
+        FileGenerationResult result = service.generate(sourcePath, projectRoot);
+
+        // then
+        assertThat(result.passed()).isTrue();
+        assertThat(result.repairAttempts()).isZero();
+        assertThat(result.errorMessage()).isNull();
+        verify(codeWriter).save(generated, projectRoot, "com.example", "OrderServiceTest");
+    }
+
+    @Test
+    void shouldStopRepairingAfterRetryLimit() {
+        // given
+        given(testRunner.runTest(projectRoot, "com.example.OrderServiceTest"))
+                .willReturn(new TestRunner.TestExecutionResult(false, "expected:<1> but was:<2>", "assertion"));
+        given(orchestrator.repair(any(), anyString(), anyString(), eq(sourcePath), eq(Intelligence.ComponentType.SERVICE)))
+                .willReturn(generated);
+
+        // when
+        FileGenerationResult result = service.generate(sourcePath, projectRoot);
+
+        // then
+        assertThat(result.passed()).isFalse();
+        assertThat(result.repairAttempts()).isEqualTo(3);
+        assertThat(result.errorMessage()).isEqualTo("Verification failed after 3 repair attempt(s)");
+        verify(testRunner, times(4)).runTest(projectRoot, "com.example.OrderServiceTest");
+    }
+}
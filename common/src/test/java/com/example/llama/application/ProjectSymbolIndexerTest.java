@@ -0,0 +1,37 @@
+package com.example.llama.application;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectSymbolIndexerTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shouldWalkEachRootOnceUntilInvalidated() throws IOException {
+        // given
+        Path pkg = Files.createDirectories(root.resolve("src/main/java/com/example/order"));
+        Files.writeString(pkg.resolve("OrderService.java"), "package com.example.order;\n\npublic class OrderService {}\n");
+        ProjectSymbolIndexer indexer = new ProjectSymbolIndexer();
+        indexer.indexProject(root);
+
+        // when
+        Files.writeString(pkg.resolve("OrderRepository.java"), "package com.example.order;\n\npublic interface OrderRepository {}\n");
+        indexer.indexProject(root);
+        String beforeInvalidate = indexer.resolve(root, "OrderRepository");
+        indexer.invalidate(root);
+        indexer.indexProject(root);
+
+        // then
+        assertThat(indexer.resolve(root, "OrderService")).isEqualTo("com.example.order.OrderService");
+        assertThat(beforeInvalidate).isNull();
+        assertThat(indexer.resolve(root, "OrderRepository")).isEqualTo("com.example.order.OrderRepository");
+    }
+}
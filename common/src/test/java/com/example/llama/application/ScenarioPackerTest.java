@@ -0,0 +1,74 @@
+package com.example.llama.application;
+
+import com.example.llama.domain.model.Scenario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Scenario Packer Test")
+class ScenarioPackerTest {
+
+    @Test
+    @DisplayName("should group scenarios by target method in first-appearance order")
+    void shouldGroupByTargetMethod() {
+        // given
+        List<Scenario> scenarios = List.of(
+                new Scenario("save", "saves a user"),
+                new Scenario("find", "finds a user"),
+                new Scenario("save", "rejects a duplicate user"));
+
+        // when
+        List<ScenarioPacker.Pack> packs = ScenarioPacker.pack(scenarios, 10_000, 8);
+
+        // then
+        assertThat(packs).extracting(ScenarioPacker.Pack::targetMethodName).containsExactly("save", "find");
+        assertThat(packs.get(0).entries()).extracting(ScenarioPacker.Entry::id).containsExactly("s1", "s3");
+        assertThat(packs.get(0).entries()).extracting(ScenarioPacker.Entry::index).containsExactly(0, 2);
+        assertThat(packs.get(1).entries()).extracting(ScenarioPacker.Entry::id).containsExactly("s2");
+    }
+
+    @Test
+    @DisplayName("should split a method's scenarios by max size and token budget")
+    void shouldSplitByLimits() {
+        // given
+        List<Scenario> scenarios = List.of(
+                new Scenario("save", "case one"),
+                new Scenario("save", "case two"),
+                new Scenario("save", "case three"));
+
+        // when
+        List<ScenarioPacker.Pack> bySize = ScenarioPacker.pack(scenarios, 10_000, 2);
+        List<ScenarioPacker.Pack> byBudget = ScenarioPacker.pack(scenarios,
+                ScenarioPacker.OUTPUT_TOKENS_PER_SCENARIO + 10, 8);
+
+        // then
+        assertThat(bySize).extracting(ScenarioPacker.Pack::size).containsExactly(2, 1);
+        assertThat(byBudget).extracting(ScenarioPacker.Pack::size).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("should split tagged sections and drop empty ones")
+    void shouldUnpackTaggedSections() {
+        // given
+        String raw = """
+                Here you go:
+                <code id="s1">
+                @Test void a() {}
+                </code>
+                <code id='s3'>   </code>
+                <code id="s2">@Test void b() {}</code>
+                """;
+
+        // when
+        Map<String, String> sections = ScenarioPacker.unpack(raw);
+
+        // then
+        assertThat(sections).containsOnlyKeys("s1", "s2");
+        assertThat(sections.get("s1")).isEqualTo("@Test void a() {}");
+        assertThat(sections.get("s2")).isEqualTo("@Test void b() {}");
+    }
+}
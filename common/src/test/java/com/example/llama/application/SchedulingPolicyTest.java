@@ -0,0 +1,27 @@
+package com.example.llama.application;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchedulingPolicyTest {
+
+    @Test
+    void shouldParseShellSpellingAndNameValidValuesOnTypo() {
+        // given
+        String shellSpelling = "shortest-first";
+        String typo = "longest";
+
+        // when
+        SchedulingPolicy parsed = SchedulingPolicy.parse(shellSpelling);
+
+        // then
+        assertThat(parsed).isEqualTo(SchedulingPolicy.SHORTEST_FIRST);
+        assertThat(SchedulingPolicy.parse(" ")).isEqualTo(SchedulingPolicy.LONGEST_FIRST);
+        assertThatThrownBy(() -> SchedulingPolicy.parse(typo))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'longest'")
+                .hasMessageContaining("longest-first, shortest-first, file-order");
+    }
+}
@@ -48,6 +48,10 @@ class AbstractPipelineOrchestratorTest {
     com.example.llama.infrastructure.parser.JavaSourceSplitter javaSourceSplitter;
     @Mock
     com.example.llama.domain.service.RepairService repairService;
+    @Mock
+    com.example.llama.domain.service.ManifestStore manifestStore;
+    @Mock
+    com.example.llama.domain.service.CheckpointStore checkpointStore;
 
     // Concrete implementation for testing
     class TestOrchestrator extends AbstractPipelineOrchestrator {
@@ -55,8 +59,10 @@ class AbstractPipelineOrchestratorTest {
                 com.example.llama.infrastructure.security.SecurityMasker sm,
                 com.example.llama.infrastructure.analysis.SimpleDependencyAnalyzer da,
                 com.example.llama.infrastructure.parser.JavaSourceSplitter jss,
-                com.example.llama.domain.service.RepairService rs) {
-            super(af, cs, ca, sm, da, jss, rs);
+                com.example.llama.domain.service.RepairService rs,
+                com.example.llama.domain.service.ManifestStore ms,
+                com.example.llama.domain.service.CheckpointStore cps) {
+            super(af, cs, ca, sm, da, jss, rs, ms, cps);
         }
 
         @Override
@@ -88,7 +94,8 @@ class AbstractPipelineOrchestratorTest {
     @BeforeEach
     void setUp() {
         orchestrator = new TestOrchestrator(agentFactory, codeSynthesizer, codeAnalyzer, securityMasker,
-                dependencyAnalyzer, javaSourceSplitter, repairService);
+                dependencyAnalyzer, javaSourceSplitter, repairService, manifestStore,
+                checkpointStore);
     }
 
     @Test
@@ -179,4 +186,238 @@ class AbstractPipelineOrchestratorTest {
         assertThat(capturedContextXml).contains("@Builder"); // Check for content from the related DTO file
 
     }
+
+    @Test
+    @DisplayName("should keep declaration order when method tests complete out of order")
+    void shouldKeepMethodOrderWhenGeneratedConcurrently(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createFile(tempDir.resolve("build.gradle"));
+        Path targetSource = tempDir.resolve("TargetService.java");
+
+        Intelligence intel = new Intelligence("com.test", "TargetService", List.of(),
+                List.of("public void alpha()", "public void beta()", "public void gamma()"),
+                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+
+        given(codeAnalyzer.extractIntelligence(any(), any())).willReturn(intel);
+        given(securityMasker.mask(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(dependencyAnalyzer.analyze(any())).willReturn(Collections.emptyList());
+        given(javaSourceSplitter.createSkeletonOnly(anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class Skeleton {}", ""));
+        given(javaSourceSplitter.split(anyString(), anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class TargetService {}", "void target() {}"));
+
+        Agent coderAgent = org.mockito.Mockito.mock(Agent.class);
+        given(agentFactory.create(any(), any())).willReturn(coderAgent);
+        given(coderAgent.act(any(LlmUserRequest.class))).willAnswer(invocation -> {
+            String task = invocation.<LlmUserRequest>getArgument(0).getTask();
+            if (task.contains("Test Class Skeleton")) {
+                return "public class TargetServiceTest {}";
+            }
+            // alpha answers last, gamma first
+            String method = task.contains("alpha") ? "alpha" : task.contains("beta") ? "beta" : "gamma";
+            Thread.sleep(method.equals("alpha") ? 200 : method.equals("beta") ? 100 : 0);
+            return "void test_" + method + "() {}";
+        });
+        given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                .willAnswer(invocation -> new GeneratedCode(Set.of(), invocation.getArgument(0)));
+
+        // when
+        GeneratedCode result = orchestrator.orchestrate("source code", targetSource);
+
+        // then
+        String body = result.body();
+        assertThat(body.indexOf("test_alpha")).isPositive();
+        assertThat(body.indexOf("test_alpha")).isLessThan(body.indexOf("test_beta"));
+        assertThat(body.indexOf("test_beta")).isLessThan(body.indexOf("test_gamma"));
+    }
+
+    @Test
+    @DisplayName("should run setup generation concurrently with the method phase")
+    void shouldOverlapSetupAndMethodPhases(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createFile(tempDir.resolve("build.gradle"));
+        Path targetSource = tempDir.resolve("TargetService.java");
+
+        Intelligence intel = new Intelligence("com.test", "TargetService", List.of(),
+                List.of("public void alpha()"), Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+
+        given(codeAnalyzer.extractIntelligence(any(), any())).willReturn(intel);
+        given(securityMasker.mask(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(dependencyAnalyzer.analyze(any())).willReturn(Collections.emptyList());
+        given(javaSourceSplitter.createSkeletonOnly(anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class Skeleton {}", ""));
+        given(javaSourceSplitter.split(anyString(), anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class TargetService {}", "void alpha() {}"));
+
+        java.util.concurrent.CountDownLatch methodStarted = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicBoolean overlapped = new java.util.concurrent.atomic.AtomicBoolean();
+        Agent coderAgent = org.mockito.Mockito.mock(Agent.class);
+        given(agentFactory.create(any(), any())).willReturn(coderAgent);
+        given(coderAgent.act(any(LlmUserRequest.class))).willAnswer(invocation -> {
+            if (invocation.<LlmUserRequest>getArgument(0).getTask().contains("Test Class Skeleton")) {
+                // Sequential phases would never see the method call while setup is still running
+                overlapped.set(methodStarted.await(5, java.util.concurrent.TimeUnit.SECONDS));
+                return "public class TargetServiceTest {}";
+            }
+            methodStarted.countDown();
+            return "void test_alpha() {}";
+        });
+        given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                .willAnswer(invocation -> new GeneratedCode(Set.of(), invocation.getArgument(0)));
+
+        // when
+        GeneratedCode result = orchestrator.orchestrate("source code", targetSource);
+
+        // then
+        assertThat(overlapped).isTrue();
+        assertThat(result.body()).contains("test_alpha");
+    }
+
+    @Test
+    @DisplayName("should flush the partial class after each grafted method while later methods are still generating")
+    void shouldStreamPartialResults(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createFile(tempDir.resolve("build.gradle"));
+        Path targetSource = tempDir.resolve("TargetService.java");
+
+        Intelligence intel = new Intelligence("com.test", "TargetService", List.of(),
+                List.of("public void alpha()", "public void beta()"),
+                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+
+        given(codeAnalyzer.extractIntelligence(any(), any())).willReturn(intel);
+        given(securityMasker.mask(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(dependencyAnalyzer.analyze(any())).willReturn(Collections.emptyList());
+        given(javaSourceSplitter.createSkeletonOnly(anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class Skeleton {}", ""));
+        given(javaSourceSplitter.split(anyString(), anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class TargetService {}", "void target() {}"));
+        given(codeSynthesizer.openAssembly())
+                .willReturn(new com.example.llama.infrastructure.parser.JavaParserCodeSynthesizer().openAssembly());
+        given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                .willAnswer(invocation -> new GeneratedCode(Set.of(), invocation.getArgument(0)));
+
+        List<String> flushed = new java.util.concurrent.CopyOnWriteArrayList<>();
+        java.util.concurrent.CountDownLatch alphaFlushed = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicBoolean streamedEarly = new java.util.concurrent.atomic.AtomicBoolean();
+        Agent coderAgent = org.mockito.Mockito.mock(Agent.class);
+        given(agentFactory.create(any(), any())).willReturn(coderAgent);
+        given(coderAgent.act(any(LlmUserRequest.class))).willAnswer(invocation -> {
+            String task = invocation.<LlmUserRequest>getArgument(0).getTask();
+            if (task.contains("Test Class Skeleton")) {
+                return "public class TargetServiceTest {}";
+            }
+            if (task.contains("beta")) {
+                // beta is still generating when alpha reaches the sink
+                streamedEarly.set(alphaFlushed.await(5, java.util.concurrent.TimeUnit.SECONDS));
+                return "class Describe_beta { @Test void test_beta() {} }";
+            }
+            return "class Describe_alpha { @Test void test_alpha() {} }";
+        });
+
+        // when
+        orchestrator.orchestrate("source code", targetSource,
+                com.example.llama.application.GenerationOptions.defaults().withPartialResultSink(partial -> {
+                    flushed.add(partial.body());
+                    if (partial.body().contains("test_alpha")) alphaFlushed.countDown();
+                }));
+
+        // then
+        assertThat(streamedEarly).isTrue();
+        assertThat(flushed.get(flushed.size() - 1)).contains("TargetServiceTest", "Describe_alpha", "Describe_beta");
+    }
+
+    @Test
+    @DisplayName("should resume from checkpoint and generate only unfinished methods")
+    void shouldResumeFromCheckpoint(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createFile(tempDir.resolve("build.gradle"));
+        Path targetSource = tempDir.resolve("TargetService.java");
+
+        Intelligence intel = new Intelligence("com.test", "TargetService", List.of(),
+                List.of("public void alpha()", "public void beta()"),
+                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+        com.example.llama.domain.model.PipelineCheckpoint checkpoint =
+                com.example.llama.domain.model.PipelineCheckpoint.start("key", "TargetService.java")
+                        .withIntelligence(intel)
+                        .withSetup(new com.example.llama.domain.model.PipelineCheckpoint.SetupSnapshot(
+                                "com.test", "TargetServiceTest", Set.of(), "public class TargetServiceTest {}"))
+                        .withMethod("public void alpha()", "void test_alpha() {}");
+
+        given(checkpointStore.keyFor(anyString())).willReturn("key");
+        given(checkpointStore.load(tempDir, "key")).willReturn(java.util.Optional.of(checkpoint));
+        given(securityMasker.mask(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(dependencyAnalyzer.analyze(any())).willReturn(Collections.emptyList());
+        given(javaSourceSplitter.split(anyString(), anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class TargetService {}", "void beta() {}"));
+
+        Agent coderAgent = org.mockito.Mockito.mock(Agent.class);
+        given(agentFactory.create(any(), any())).willReturn(coderAgent);
+        given(coderAgent.act(any(LlmUserRequest.class))).willReturn("void test_beta() {}");
+        given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                .willAnswer(invocation -> new GeneratedCode(Set.of(), invocation.getArgument(0)));
+
+        // when
+        GeneratedCode result = orchestrator.orchestrate("source code", targetSource,
+                new com.example.llama.application.GenerationOptions(0, List.of(), true, null));
+
+        // then
+        ArgumentCaptor<LlmUserRequest> requests = ArgumentCaptor.forClass(LlmUserRequest.class);
+        verify(coderAgent).act(requests.capture());
+        assertThat(requests.getValue().getTask()).contains("beta");
+        verify(codeAnalyzer, org.mockito.Mockito.never()).extractIntelligence(any(), any());
+        assertThat(result.body()).contains("test_alpha", "test_beta");
+        verify(checkpointStore).delete(tempDir, "key");
+    }
+
+    @Test
+    @DisplayName("should regenerate only changed methods and splice them into the existing test")
+    void shouldRegenerateOnlyChangedMethods(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createFile(tempDir.resolve("build.gradle"));
+        Path targetSource = tempDir.resolve("src/main/java/com/test/TargetService.java");
+        Path existingTest = tempDir.resolve("src/test/java/com/test/TargetServiceTest.java");
+        Files.createDirectories(existingTest.getParent());
+        Files.writeString(existingTest, "class TargetServiceTest { class Describe_alpha {} class Describe_beta {} }");
+
+        Intelligence intel = new Intelligence("com.test", "TargetService", List.of(),
+                List.of("public void alpha()", "public void beta()"),
+                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+        given(codeAnalyzer.extractIntelligence(any(), any())).willReturn(intel);
+        given(codeAnalyzer.fingerprintMethods(any()))
+                .willReturn(java.util.Map.of("public void alpha()", "h-alpha", "public void beta()", "h-beta-changed"));
+        given(securityMasker.mask(anyString())).willAnswer(invocation -> invocation.getArgument(0));
+        given(dependencyAnalyzer.analyze(any())).willReturn(Collections.emptyList());
+        given(javaSourceSplitter.split(anyString(), anyString()))
+                .willReturn(new com.example.llama.infrastructure.parser.JavaSourceSplitter.SplitResult("com.test", "", "class TargetService {}", "void beta() {}"));
+        given(manifestStore.load(any(), eq("src/main/java/com/test/TargetService.java")))
+                .willReturn(java.util.Optional.of(new com.example.llama.domain.model.GenerationManifest(
+                        "src/main/java/com/test/TargetService.java", "TargetServiceTest", java.util.Map.of(
+                        "public void alpha()", new com.example.llama.domain.model.GenerationManifest.MethodEntry("h-alpha", "class Describe_alpha {}"),
+                        "public void beta()", new com.example.llama.domain.model.GenerationManifest.MethodEntry("h-beta", "class Describe_beta {}")))));
+
+        Agent coderAgent = org.mockito.Mockito.mock(Agent.class);
+        given(agentFactory.create(any(), any())).willReturn(coderAgent);
+        given(coderAgent.act(any(LlmUserRequest.class))).willReturn("class Describe_beta { void newTest() {} }");
+        given(codeSynthesizer.validateSyntax(anyString())).willReturn(true);
+        given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                .willAnswer(invocation -> new GeneratedCode(Set.of(), invocation.getArgument(0)));
+        given(codeSynthesizer.removeTestBlocks(anyString(), any())).willReturn("pruned");
+        given(codeSynthesizer.mergeTestClass(eq("pruned"), any(GeneratedCode[].class))).willReturn("merged");
+
+        // when
+        GeneratedCode result = orchestrator.orchestrate("source code", targetSource);
+
+        // then
+        assertThat(result.body()).isEqualTo("merged");
+        ArgumentCaptor<LlmUserRequest> requests = ArgumentCaptor.forClass(LlmUserRequest.class);
+        verify(coderAgent).act(requests.capture());
+        assertThat(requests.getValue().getTask()).contains("beta").doesNotContain("alpha");
+        verify(codeSynthesizer).removeTestBlocks(anyString(), eq(List.of("Describe_beta")));
+
+        ArgumentCaptor<com.example.llama.domain.model.GenerationManifest> saved =
+                ArgumentCaptor.forClass(com.example.llama.domain.model.GenerationManifest.class);
+        verify(manifestStore).save(eq(tempDir), saved.capture());
+        assertThat(saved.getValue().methods().get("public void beta()").hash()).isEqualTo("h-beta-changed");
+        assertThat(saved.getValue().methods().get("public void alpha()").block()).isEqualTo("class Describe_alpha {}");
+    }
 }
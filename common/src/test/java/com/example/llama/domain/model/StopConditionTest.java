@@ -0,0 +1,50 @@
+package com.example.llama.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Stop Condition Test")
+class StopConditionTest {
+
+    @Test
+    @DisplayName("should stop right after a closing tag split across chunks")
+    void shouldStopAfterClosingTagAcrossChunks() {
+        // given
+        StopCondition condition = StopCondition.responseComplete();
+        StringBuilder text = new StringBuilder("<response><code>x</code></resp");
+
+        // when
+        int beforeTag = condition.stopAt(text, 0);
+        int from = text.length();
+        text.append("onse> trailing chatter");
+        int afterTag = condition.stopAt(text, from);
+
+        // then
+        assertThat(beforeTag).isEqualTo(-1);
+        assertThat(text.substring(0, afterTag)).isEqualTo("<response><code>x</code></response>");
+    }
+
+    @Test
+    @DisplayName("should stop on a failed status and only truncate the tail of complete responses")
+    void shouldStopOnFailedStatus() {
+        // given
+        StopCondition condition = StopCondition.responseComplete();
+        String failing = "<response><status>FAILED</status><thought>I cannot";
+
+        // when
+        int keep = condition.stopAt(failing, 0);
+        LlmResponse local = LlmResponse.failed("boom");
+        LlmResponse truncated = LlmResponse.builder().content("<response>OK</response>" + "x".repeat(40))
+                .outputTokens(20).build().truncatedTo(condition.stopAt("<response>OK</response>" + "x".repeat(40), 0));
+
+        // then
+        assertThat(keep).isEqualTo(failing.length());
+        assertThat(condition.stopAt(local.content(), 0)).isEqualTo(local.content().length());
+        assertThat(truncated.content()).isEqualTo("<response>OK</response>");
+        assertThat(truncated.savedTokens()).isEqualTo(10);
+        assertThat(truncated.outputTokens()).isEqualTo(10);
+        assertThat(StopCondition.never().stopAt(failing, 0)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.llama.domain.model.prompt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmPromptLayoutTest {
+
+    @Test
+    void shouldShareByteIdenticalPrefixAcrossMethodsOfOneClass() {
+        // given
+        LlmPrompt first = promptFor("void save() {}", "Generate tests for save");
+        LlmPrompt second = promptFor("void delete() {}", "Generate tests for delete");
+
+        // when
+        String firstXml = first.toXml();
+        String secondXml = second.toXml();
+
+        // then
+        assertThat(first.stablePrefix()).isEqualTo(second.stablePrefix());
+        assertThat(firstXml).isEqualTo(first.stablePrefix() + first.suffix());
+        assertThat(firstXml).startsWith(first.stablePrefix());
+        assertThat(secondXml).startsWith(first.stablePrefix());
+        assertThat(first.stablePrefix()).doesNotContain("Generate tests for save").doesNotContain("<task>");
+        assertThat(first.suffix()).contains("void save() {}").contains("Generate tests for save");
+        assertThat(first.getUserRequest().contextXml()).isEqualTo(second.getUserRequest().contextXml());
+    }
+
+    @Test
+    void shouldOrderClassSkeletonBeforeReferences() {
+        // given
+        LlmPrompt prompt = promptFor("void save() {}", "Task");
+
+        // when
+        String xml = prompt.toXml();
+
+        // then
+        assertThat(xml.indexOf("<class_structure>")).isLessThan(xml.indexOf("<references>"));
+        assertThat(xml.indexOf("<references>")).isLessThan(xml.indexOf("<target_method>"));
+        assertThat(xml.indexOf("<target_method>")).isLessThan(xml.indexOf("<task>"));
+    }
+
+    private LlmPrompt promptFor(String targetMethod, String task) {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task(task)
+                        .libraryInfo("junit-jupiter")
+                        .classContext(LlmClassContext.builder()
+                                .packageName("com.example")
+                                .imports("import java.util.List;")
+                                .reference(LlmCollaborator.builder().name("Repo").structure("class Repo {}").methods("void persist();").build())
+                                .classStructure("class Service { void save() {} void delete() {} }")
+                                .targetMethodSource(targetMethod)
+                                .build())
+                        .build())
+                .build();
+    }
+}
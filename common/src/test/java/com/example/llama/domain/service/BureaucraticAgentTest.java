@@ -1,5 +1,6 @@
 package com.example.llama.domain.service;
 
+import com.example.llama.domain.model.StopCondition;
 import com.example.llama.domain.model.prompt.LlmClassContext;
 import com.example.llama.domain.model.prompt.LlmPersona;
 import com.example.llama.domain.model.prompt.LlmPrompt;
@@ -63,7 +64,7 @@ class BureaucraticAgentTest {
                 .build();
 
         // Use any(LlmPrompt.class) because the agent constructs the full prompt
-        given(llmClient.generate(any(LlmPrompt.class))).willReturn(com.example.llama.domain.model.LlmResponse.builder().content("Result").build());
+        given(llmClient.generate(any(LlmPrompt.class), any(), any(StopCondition.class))).willReturn(com.example.llama.domain.model.LlmResponse.builder().content("Result").build());
 
         // when
         String result = agent.act(userRequest);
@@ -73,7 +74,7 @@ class BureaucraticAgentTest {
 
         // Verify that context and instruction are wrapped in XML tags
         ArgumentCaptor<LlmPrompt> promptCaptor = ArgumentCaptor.forClass(LlmPrompt.class);
-        verify(llmClient).generate(promptCaptor.capture());
+        verify(llmClient).generate(promptCaptor.capture(), any(), any(StopCondition.class));
 
         LlmPrompt capturedLlmPrompt = promptCaptor.getValue();
         String capturedPromptXml = capturedLlmPrompt.toXml();
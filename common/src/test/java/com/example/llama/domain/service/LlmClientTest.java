@@ -0,0 +1,27 @@
+package com.example.llama.domain.service;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmClientTest {
+
+    @Test
+    void shouldReturnNonStreamingResponseUntouched() {
+        // given
+        String content = "<response><status>SUCCESS</status></response>\n<!-- MODEL_USED: gemini-2.0-flash -->";
+        LlmClient client = prompt -> LlmResponse.builder().content(content).outputTokens(40).build();
+        StringBuilder chunks = new StringBuilder();
+
+        // when
+        LlmResponse response = client.generate(null, chunks::append, StopCondition.responseComplete());
+
+        // then
+        assertThat(response.content()).isEqualTo(content);
+        assertThat(response.outputTokens()).isEqualTo(40);
+        assertThat(response.savedTokens()).isZero();
+        assertThat(chunks.toString()).isEqualTo(content);
+    }
+}
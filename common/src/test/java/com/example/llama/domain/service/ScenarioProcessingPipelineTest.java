@@ -14,6 +14,10 @@ import com.example.llama.application.TestPlanner;
 import com.example.llama.application.EnsembleRetrievalService;
 import com.example.llama.application.ProjectSymbolIndexer;
 import com.example.llama.application.KnowledgeAcquisitionService;
+import com.example.llama.application.CandidateRace;
+import com.example.llama.application.VerificationLocks;
+import com.example.llama.application.GenerationOptions;
+import com.example.llama.application.config.PipelineProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -34,6 +38,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -70,10 +75,14 @@ class ScenarioProcessingPipelineTest {
         @Mock
         private KnowledgeAcquisitionService knowledgeService;
 
+        private PipelineProperties pipelineProperties;
+
         @BeforeEach
         void setUp() {
+                pipelineProperties = new PipelineProperties();
                 pipeline = new ScenarioProcessingPipeline(orchestrator, codeAnalyzer, codeSynthesizer, testPlanner,
-                                symbolIndexer, retrievalService, dispatcher, testRunner, codeWriter, knowledgeService);
+                                symbolIndexer, retrievalService, dispatcher, testRunner, codeWriter, knowledgeService,
+                                new CandidateRace(codeSynthesizer), new VerificationLocks(), pipelineProperties);
         }
 
         @Test
@@ -135,9 +144,87 @@ class ScenarioProcessingPipelineTest {
                                 .willReturn(new TestRunner.TestExecutionResult(false, "Compilation Failed", "Error"))
                                 .willReturn(new TestRunner.TestExecutionResult(true, "All passed", null));
 
-                GeneratedCode result = pipeline.process(sourceCode, projectRoot, null, sourcePath);
+                GeneratedCode result = pipeline.process(sourceCode, projectRoot, null, sourcePath, options);
 
                 assertThat(result.body()).isEqualTo("fixed code");
                 verify(repairAgent).act(anyString(), anyString());
         }
+
+        @Test
+        @DisplayName("should race the requested repair candidates and keep the first one that passes")
+        void testSelfHealingRace() {
+                String sourceCode = "public class MyService {}";
+                Path projectRoot = Paths.get(".");
+                Path sourcePath = Paths.get("src/main/java/MyService.java");
+                Intelligence intel = new Intelligence("com.example", "MyService", List.of(), List.of(),
+                                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+                // The configured default stays serial, the per-run option asks for a race
+                GenerationOptions options = new GenerationOptions(3, List.of(), false, null);
+
+                given(codeAnalyzer.extractIntelligence(anyString(), anyString())).willReturn(intel);
+                given(testPlanner.planScenarios(any(), anyString(), any())).willReturn(List.of());
+                given(codeSynthesizer.assembleStructuralTestClass(anyString(), any(), any())).willReturn("broken code");
+                given(retrievalService.findRelevantFiles(any(), any())).willReturn(List.of());
+                given(orchestrator.getLeaderFor(any())).willReturn(teamLeader);
+                given(orchestrator.getExpertFor(any()))
+                                .willReturn(mock(com.example.llama.domain.expert.DomainExpert.class));
+
+                Agent repairAgent = mock(Agent.class);
+                given(orchestrator.requestSpecialist(any(), any())).willReturn(repairAgent);
+                given(repairAgent.act(anyString(), anyString())).willReturn("fixed code");
+                given(codeSynthesizer.sanitizeAndExtract(anyString()))
+                                .willReturn(new GeneratedCode(new java.util.HashSet<>(), "fixed code"));
+                given(codeSynthesizer.validateSyntax(anyString())).willReturn(true);
+
+                // Initial code fails, the first verified candidate passes
+                given(testRunner.runTest(any(), anyString()))
+                                .willReturn(new TestRunner.TestExecutionResult(false, "Compilation Failed", "Error"))
+                                .willReturn(new TestRunner.TestExecutionResult(true, "All passed", null));
+
+                GeneratedCode result = pipeline.process(sourceCode, projectRoot, null, sourcePath);
+
+                assertThat(result.body()).isEqualTo("fixed code");
+                verify(testRunner, org.mockito.Mockito.times(2)).runTest(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("should pack scenarios of one method and retry only the missing section")
+        void testScenarioPacking() {
+                String sourceCode = "public class MyService {}";
+                Path projectRoot = Paths.get(".");
+                Path sourcePath = Paths.get("src/main/java/MyService.java");
+                Intelligence intel = new Intelligence("com.example", "MyService", List.of(), List.of(),
+                                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+
+                given(codeAnalyzer.extractIntelligence(anyString(), anyString())).willReturn(intel);
+                given(testPlanner.planScenarios(any(), anyString(), any())).willReturn(List.of(
+                                new Scenario("save", "saves a user"),
+                                new Scenario("save", "rejects a duplicate user"),
+                                new Scenario("save", "rejects a null user")));
+                given(codeSynthesizer.assembleStructuralTestClass(anyString(), any(), any())).willReturn("test code");
+                given(retrievalService.findRelevantFiles(any(), any())).willReturn(List.of());
+                given(orchestrator.getLeaderFor(any())).willReturn(teamLeader);
+                given(orchestrator.getExpertFor(any()))
+                                .willReturn(mock(com.example.llama.domain.expert.DomainExpert.class));
+                given(orchestrator.requestSpecialist(any(), any())).willReturn(mockAgent);
+
+                // The packed response drops s2, which is then requested on its own
+                given(mockAgent.act(contains("EACH of the following scenarios"), anyString()))
+                                .willReturn("<code id=\"s1\">void one() {}</code><code id=\"s3\">void three() {}</code>");
+                given(mockAgent.act(contains("Scenario Description: rejects a duplicate user"), anyString()))
+                                .willReturn("void two() {}");
+                given(codeSynthesizer.sanitizeAndExtract(anyString())).willAnswer(inv -> new GeneratedCode(
+                                new java.util.HashSet<>(),
+                                inv.getArgument(0, String.class).replace("<code>", "").replace("</code>", "")));
+                given(testRunner.runTest(any(), anyString()))
+                                .willReturn(new TestRunner.TestExecutionResult(true, "All passed", null));
+
+                pipeline.process(sourceCode, projectRoot, null, sourcePath);
+
+                verify(mockAgent, times(2)).act(anyString(), anyString());
+                org.mockito.ArgumentCaptor<GeneratedCode[]> snippets = org.mockito.ArgumentCaptor.forClass(GeneratedCode[].class);
+                verify(codeSynthesizer).assembleStructuralTestClass(anyString(), any(), snippets.capture());
+                assertThat(snippets.getValue()).extracting(GeneratedCode::body)
+                                .containsExactly("void one() {}", "void two() {}", "void three() {}");
+        }
 }
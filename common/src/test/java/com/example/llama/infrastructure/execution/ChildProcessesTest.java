@@ -0,0 +1,91 @@
+package com.example.llama.infrastructure.execution;
+
+import com.example.llama.utils.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChildProcessesTest {
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    void shouldFeedStdinAndCaptureOutput() throws Exception {
+        // given
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", "cat").redirectErrorStream(true);
+
+        // when
+        ChildProcesses.Outcome outcome = ChildProcesses.run(pb, "hello", Duration.ofSeconds(30));
+
+        // then
+        assertThat(outcome.isSuccess()).isTrue();
+        assertThat(outcome.output()).isEqualTo("hello");
+    }
+
+    @Test
+    void shouldFeedInputLargerThanArgMaxOverStdin() throws Exception {
+        // given
+        String prompt = "x".repeat(4 * 1024 * 1024);
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", "wc -c").redirectErrorStream(true);
+
+        // when
+        ChildProcesses.Outcome outcome = ChildProcesses.run(pb, prompt, Duration.ofSeconds(30));
+
+        // then
+        assertThat(outcome.isSuccess()).isTrue();
+        assertThat(outcome.output().trim()).isEqualTo(String.valueOf(prompt.length()));
+    }
+
+    @Test
+    void shouldTimeOutWhenChildStopsReadingLargeInput() throws Exception {
+        // given
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", "sleep 30").redirectErrorStream(true);
+        long start = System.currentTimeMillis();
+
+        // when
+        ChildProcesses.Outcome outcome = ChildProcesses.run(pb, "x".repeat(1024 * 1024), Duration.ofMillis(300));
+
+        // then
+        assertThat(System.currentTimeMillis() - start).isLessThan(10_000);
+        assertThat(outcome.timedOut()).isTrue();
+        assertThat(outcome.deadlineExceeded()).isFalse();
+    }
+
+    @Test
+    void shouldKillProcessTreeWhenDeadlineExpires() throws Exception {
+        // given
+        Deadline.bind(Deadline.after(Duration.ofMillis(300)));
+        ProcessBuilder pb = new ProcessBuilder("bash", "-c", "echo started; sleep 30").redirectErrorStream(true);
+        long start = System.currentTimeMillis();
+
+        // when
+        ChildProcesses.Outcome outcome = ChildProcesses.run(pb, null, Duration.ofMinutes(5));
+
+        // then
+        assertThat(System.currentTimeMillis() - start).isLessThan(10_000);
+        assertThat(outcome.timedOut()).isTrue();
+        assertThat(outcome.deadlineExceeded()).isTrue();
+        assertThat(outcome.isSuccess()).isFalse();
+    }
+
+    @Test
+    void shouldNotStartWhenDeadlineAlreadyExpired() throws Exception {
+        // given
+        Deadline.bind(Deadline.after(Duration.ofNanos(1)));
+        Thread.sleep(5);
+
+        // when
+        ChildProcesses.Outcome outcome = ChildProcesses.run(new ProcessBuilder("bash", "-c", "echo never"), null,
+                Duration.ofMinutes(5));
+
+        // then
+        assertThat(outcome.deadlineExceeded()).isTrue();
+        assertThat(outcome.output()).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.llama.infrastructure.io;
+
+import com.example.llama.domain.model.GeneratedCode;
+import com.example.llama.domain.model.Intelligence;
+import com.example.llama.domain.model.PipelineCheckpoint;
+import com.example.llama.infrastructure.llm.LlmContextHolder;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("File System Checkpoint Store Test")
+class FileSystemCheckpointStoreTest {
+
+    @TempDir
+    Path projectRoot;
+
+    private final FileSystemCheckpointStore store = new FileSystemCheckpointStore(new LlmProviderProperties());
+
+    @AfterEach
+    void tearDown() {
+        LlmContextHolder.clear();
+    }
+
+    @Test
+    @DisplayName("should round-trip a checkpoint and forget it once deleted")
+    void shouldRoundTripCheckpoint() {
+        // given
+        String key = store.keyFor("public class OrderService {}");
+        Intelligence intelligence = new Intelligence("com.example", "OrderService", List.of(), List.of("void save()"),
+                Intelligence.ComponentType.SERVICE, List.of(), List.of(), "", List.of());
+        PipelineCheckpoint checkpoint = PipelineCheckpoint.start(key, "OrderService.java")
+                .withIntelligence(intelligence)
+                .withSetup(PipelineCheckpoint.SetupSnapshot.of(
+                        new GeneratedCode("com.example", "OrderServiceTest", Set.of("org.junit.jupiter.api.Test"), "class OrderServiceTest {}")))
+                .withMethod("void save()", "@Test void save() {}");
+
+        // when
+        store.save(projectRoot, checkpoint);
+
+        // then
+        assertThat(store.load(projectRoot, key)).contains(checkpoint);
+        store.delete(projectRoot, key);
+        assertThat(store.load(projectRoot, key)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should ignore a corrupt checkpoint file and overwrite it on the next save")
+    void shouldIgnoreCorruptCheckpoint() throws IOException {
+        // given
+        String key = store.keyFor("public class OrderService {}");
+        Path file = projectRoot.resolve(".test-hea-llama/checkpoints").resolve(key + ".json");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "{\"key\": \"" + key + "\", \"methodBlocks\": {");
+
+        // when
+        boolean loadedCorrupt = store.load(projectRoot, key).isPresent();
+        store.save(projectRoot, PipelineCheckpoint.start(key, "OrderService.java"));
+
+        // then
+        assertThat(loadedCorrupt).isFalse();
+        assertThat(store.load(projectRoot, key)).hasValueSatisfying(loaded ->
+                assertThat(loaded.sourceFile()).isEqualTo("OrderService.java"));
+    }
+
+    @Test
+    @DisplayName("should key checkpoints by source and provider")
+    void shouldKeyBySourceAndProvider() {
+        // given
+        String source = "public class OrderService {}";
+        String defaultKey = store.keyFor(source);
+
+        // when
+        LlmContextHolder.setProvider("ollama");
+        String ollamaKey = store.keyFor(source);
+
+        // then
+        assertThat(ollamaKey).isNotEqualTo(defaultKey);
+        assertThat(store.keyFor(source)).isEqualTo(ollamaKey);
+        assertThat(store.keyFor("public class Other {}")).isNotEqualTo(ollamaKey);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.llm.cache.PromptCanonicalizer;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.MetricCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CachingLlmClientTest {
+
+    @Mock
+    private RoutingLlmClient routingClient;
+
+    @TempDir
+    Path cacheDir;
+
+    private CachingLlmClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        properties.getCache().setEnabled(true);
+        properties.getCache().setDirectory(cacheDir.toString());
+        cachingClient = new CachingLlmClient(routingClient, properties, new PromptCanonicalizer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cachingClient.close();
+        LlmContextHolder.clear();
+    }
+
+    @Test
+    void shouldReplayIdenticalPromptFromCache() {
+        // Given
+        LlmPrompt prompt = prompt("Task");
+        given(routingClient.generate(prompt)).willReturn(LlmResponse.builder()
+                .content("<response>OK</response>").inputTokens(10).outputTokens(5).totalTimeMs(900).build());
+
+        // When
+        cachingClient.generate(prompt);
+        LlmResponse replayed = cachingClient.generate(prompt("Task"));
+
+        // Then
+        assertThat(replayed.content()).isEqualTo("<response>OK</response>");
+        assertThat(replayed.metadata()).containsEntry("cache", "hit");
+        verify(routingClient, times(1)).generate(prompt);
+        assertThat(cachingClient.stats().hits()).isEqualTo(1);
+        assertThat(cachingClient.stats().savedTokens()).isEqualTo(15);
+    }
+
+    @Test
+    void shouldNotCacheFailuresOrReplayWhenBypassed() {
+        // Given
+        LlmPrompt failing = prompt("Failing");
+        given(routingClient.generate(failing)).willReturn(LlmResponse.failed("boom"));
+        LlmPrompt bypassed = prompt("Bypassed");
+        given(routingClient.generate(bypassed)).willReturn(LlmResponse.builder().content("<response>OK</response>").build());
+
+        // When
+        cachingClient.generate(failing);
+        cachingClient.generate(failing);
+        LlmContextHolder.setCacheBypass(true);
+        cachingClient.generate(bypassed);
+        cachingClient.generate(bypassed);
+
+        // Then
+        verify(routingClient, times(2)).generate(failing);
+        verify(routingClient, times(2)).generate(bypassed);
+        assertThat(cachingClient.stats().hits()).isZero();
+        assertThat(cachingClient.stats().entries()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheResponsesCutByStopCondition() {
+        // Given
+        LlmPrompt prompt = prompt("Task");
+        StopCondition stop = StopCondition.responseComplete();
+        given(routingClient.generate(any(LlmPrompt.class), any(), any(StopCondition.class))).willReturn(LlmResponse.builder()
+                .content("<response>OK</response>").outputTokens(5).savedTokens(12).build());
+        given(routingClient.generate(prompt)).willReturn(LlmResponse.builder()
+                .content("<response>OK</response> and the rest").outputTokens(17).build());
+
+        // When
+        cachingClient.generate(prompt, chunk -> { }, stop);
+        LlmResponse full = cachingClient.generate(prompt);
+
+        // Then
+        assertThat(full.content()).isEqualTo("<response>OK</response> and the rest");
+        assertThat(cachingClient.stats().hits()).isZero();
+    }
+
+    @Test
+    void shouldShareInFlightCallWithIdenticalPrompt() throws Exception {
+        // Given
+        LlmProviderProperties properties = new LlmProviderProperties();
+        properties.getCache().setEnabled(false);
+        CachingLlmClient coalescingClient = new CachingLlmClient(routingClient, properties, new PromptCanonicalizer());
+        LlmPrompt prompt = prompt("Task");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(routingClient.generate(prompt)).willAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return LlmResponse.builder().content("<response>OK</response>").inputTokens(10).outputTokens(5).build();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<LlmResponse> leader = executor.submit(() -> coalescingClient.generate(prompt));
+        entered.await(5, TimeUnit.SECONDS);
+        Future<LlmResponse> follower = executor.submit(() -> coalescingClient.generate(prompt("Task")));
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS).content()).isEqualTo("<response>OK</response>");
+        assertThat(follower.get(5, TimeUnit.SECONDS).metadata()).containsEntry("coalesced", true);
+        verify(routingClient, times(1)).generate(prompt);
+        assertThat(coalescingClient.stats().coalesced()).isEqualTo(1);
+        assertThat(coalescingClient.stats().coalescedTokens()).isEqualTo(15);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCountCoalescedCallTokensOnceAcrossFiles() throws Exception {
+        // Given
+        LlmProviderProperties properties = new LlmProviderProperties();
+        properties.getCache().setEnabled(false);
+        CachingLlmClient coalescingClient = new CachingLlmClient(routingClient, properties, new PromptCanonicalizer());
+        LlmPrompt prompt = prompt("Task");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(routingClient.generate(prompt)).willAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return LlmResponse.builder().content("<response>OK</response>").inputTokens(10).outputTokens(5).build();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        // One batch worker per file: each collects its own metrics, the report sums them
+        java.util.concurrent.Callable<Integer> fileTokens = () -> {
+            MetricCollector.start();
+            MetricCollector.record(coalescingClient.generate(prompt("Task")));
+            List<LlmResponse> metrics = MetricCollector.stop();
+            return metrics.stream().mapToInt(r -> r.inputTokens() + r.outputTokens()).sum();
+        };
+
+        // When
+        Future<Integer> leader = executor.submit(fileTokens);
+        entered.await(5, TimeUnit.SECONDS);
+        Future<Integer> firstWaiter = executor.submit(fileTokens);
+        Future<Integer> secondWaiter = executor.submit(fileTokens);
+        Thread.sleep(200);
+        release.countDown();
+        int batchTokens = leader.get(5, TimeUnit.SECONDS) + firstWaiter.get(5, TimeUnit.SECONDS)
+                + secondWaiter.get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(routingClient, times(1)).generate(prompt);
+        assertThat(batchTokens).isEqualTo(15);
+        assertThat(coalescingClient.stats().coalesced()).isEqualTo(2);
+        assertThat(coalescingClient.stats().coalescedTokens()).isEqualTo(30);
+        executor.shutdownNow();
+    }
+
+    private LlmPrompt prompt(String task) {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task(task)
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.llama.infrastructure.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker("gemini", 3, Duration.ofMinutes(1));
+
+        // When
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        boolean closedAfterReset = breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(closedAfterReset).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldLetOneProbeThroughWhenHalfOpen() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker("ollama", 1, Duration.ofMillis(10));
+        breaker.onFailure();
+        Thread.sleep(20);
+
+        // When
+        boolean probe = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+        breaker.onSuccess();
+
+        // Then
+        assertThat(probe).isTrue();
+        assertThat(second).isFalse();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldCountFailedHealthProbesTowardThreshold() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker("ollama", 3, Duration.ofMinutes(1));
+
+        // When
+        breaker.onProbe(false);
+        breaker.onProbe(false);
+        CircuitBreaker.State afterTwoProbes = breaker.state();
+        breaker.onFailure();
+
+        // Then
+        assertThat(afterTwoProbes).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker("ollama", 1, Duration.ofMillis(10));
+        breaker.onProbe(false);
+        Thread.sleep(20);
+
+        // When
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -2,17 +2,22 @@ package com.example.llama.infrastructure.llm;
 
 import com.example.llama.domain.model.prompt.*;
 import com.example.llama.infrastructure.io.InteractionLogger;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaOptions;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,7 +43,7 @@ class CloudOllamaLlmClientTest {
     @BeforeEach
     void setUp() {
         given(chatModelProvider.getIfAvailable()).willReturn(chatModel);
-        client = new CloudOllamaLlmClient(chatModelProvider, logger);
+        client = new CloudOllamaLlmClient(chatModelProvider, logger, new LlmProviderProperties());
     }
 
     @Test
@@ -64,7 +69,7 @@ class CloudOllamaLlmClientTest {
 
         // Then
         assertThat(result.content()).isEqualTo("<response>Success</response>");
-        verify(logger).logInteraction(eq("Ollama:qwen3-coder:480b-cloud"), anyString(), contains("<response>Success</response>"));
+        verify(logger).logInteraction(eq("Ollama:default"), anyString(), contains("<response>Success</response>"));
     }
 
     @Test
@@ -90,4 +95,69 @@ class CloudOllamaLlmClientTest {
         assertThat(result.content()).contains("<status>FAILED</status>");
         assertThat(result.content()).contains("API Error");
     }
+
+    @Test
+    void shouldApplyIdleTimeoutOnlyAfterFirstChunk() {
+        // Given
+        LlmProviderProperties properties = new LlmProviderProperties();
+        properties.getTimeouts().setIdle(java.time.Duration.ofMillis(100));
+        CloudOllamaLlmClient idleClient = new CloudOllamaLlmClient(chatModelProvider, logger, properties);
+        LlmPrompt prompt = LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Task")
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+
+        given(chatModel.stream(any(Prompt.class)))
+                .willReturn(reactor.core.publisher.Flux.just(chatResponse).delaySubscription(java.time.Duration.ofMillis(300)))
+                .willReturn(reactor.core.publisher.Flux.concat(reactor.core.publisher.Flux.just(chatResponse),
+                        reactor.core.publisher.Flux.just(chatResponse).delaySubscription(java.time.Duration.ofMillis(300))));
+        given(chatResponse.getResult()).willReturn(generation);
+        given(generation.getOutput()).willReturn(new org.springframework.ai.chat.messages.AssistantMessage("<response>Success</response>"));
+
+        // When
+        com.example.llama.domain.model.LlmResponse slowFirstChunk = idleClient.generate(prompt);
+        com.example.llama.domain.model.LlmResponse stalledStream = idleClient.generate(prompt);
+
+        // Then
+        assertThat(slowFirstChunk.content()).isEqualTo("<response>Success</response>");
+        assertThat(stalledStream.content()).contains("<status>FAILED</status>").contains("idle");
+    }
+
+    @Test
+    void shouldSendConfiguredModelWithEveryPromptAndReportServedModel() {
+        // Given
+        CloudOllamaLlmClient largeClient = client.withSettings(Map.of("model", "qwen3-coder:480b-cloud"));
+        LlmPrompt prompt = LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Task")
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+        ChatResponseMetadata metadata = mock(ChatResponseMetadata.class);
+        ArgumentCaptor<Prompt> sent = ArgumentCaptor.forClass(Prompt.class);
+
+        given(chatModel.stream(sent.capture())).willReturn(reactor.core.publisher.Flux.just(chatResponse));
+        given(chatResponse.getMetadata()).willReturn(metadata);
+        given(metadata.getModel()).willReturn("qwen3-coder:480b");
+        given(chatResponse.getResult()).willReturn(generation);
+        given(generation.getOutput()).willReturn(new org.springframework.ai.chat.messages.AssistantMessage("<response>Success</response>"));
+
+        // When
+        com.example.llama.domain.model.LlmResponse result = largeClient.generate(prompt);
+
+        // Then
+        assertThat(sent.getValue().getOptions()).isInstanceOf(OllamaOptions.class);
+        assertThat(((OllamaOptions) sent.getValue().getOptions()).getModel()).isEqualTo("qwen3-coder:480b-cloud");
+        assertThat(result.metadata()).containsEntry("model", "qwen3-coder:480b");
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.infrastructure.execution.ChildProcesses;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiWorkerPoolTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void shouldServeSecondRequestFromPreStartedWorker() throws Exception {
+        // given
+        try (GeminiWorkerPool pool = new GeminiWorkerPool(
+                model -> new ProcessBuilder("bash", "-c", "cat").redirectErrorStream(true), 1, Duration.ofMinutes(1), null)) {
+
+            // when
+            GeminiWorkerPool.Lease first = pool.acquire("m");
+            ChildProcesses.Outcome firstOutcome = ChildProcesses.await(first.process(), "one", TIMEOUT);
+            awaitWarmWorker(pool, "m");
+            GeminiWorkerPool.Lease second = pool.acquire("m");
+            ChildProcesses.Outcome secondOutcome = ChildProcesses.await(second.process(), "two", TIMEOUT);
+
+            // then
+            assertThat(first.warm()).isFalse();
+            assertThat(second.warm()).isTrue();
+            assertThat(second.spawnMs()).isZero();
+            assertThat(firstOutcome.output()).isEqualTo("one");
+            assertThat(secondOutcome.output()).isEqualTo("two");
+            assertThat(pool.stats().warmLeases()).isEqualTo(1);
+            assertThat(pool.stats().coldLeases()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldRecycleWorkersThatExceededMaxIdle() throws Exception {
+        // given
+        try (GeminiWorkerPool pool = new GeminiWorkerPool(
+                model -> new ProcessBuilder("bash", "-c", "cat").redirectErrorStream(true), 1, Duration.ofMillis(50), null)) {
+            ChildProcesses.await(pool.acquire("m").process(), "warm-up", TIMEOUT);
+            awaitWarmWorker(pool, "m");
+            Thread.sleep(100);
+
+            // when
+            GeminiWorkerPool.Lease lease = pool.acquire("m");
+            ChildProcesses.Outcome outcome = ChildProcesses.await(lease.process(), "fresh", TIMEOUT);
+
+            // then
+            assertThat(lease.warm()).isFalse();
+            assertThat(outcome.output()).isEqualTo("fresh");
+            assertThat(pool.stats().recycled()).isEqualTo(1);
+        }
+    }
+
+    private void awaitWarmWorker(GeminiWorkerPool pool, String model) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (pool.idleWorkers(model) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
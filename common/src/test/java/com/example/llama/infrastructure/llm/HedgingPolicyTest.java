@@ -0,0 +1,67 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    private LlmProviderProperties properties;
+    private HedgingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        LlmProviderProperties.ProviderConfig ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        properties.setProviders(List.of(gemini, ollama));
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinSamples(10);
+        properties.getHedge().setMinDelay(Duration.ofMillis(50));
+        policy = new HedgingPolicy(properties);
+    }
+
+    @Test
+    void shouldHedgeAfterObservedP90Ttft() {
+        // given
+        for (int ms = 100; ms <= 1000; ms += 100) {
+            policy.recordTtft("gemini", ms);
+        }
+
+        // when
+        Duration threshold = policy.threshold("gemini").orElseThrow();
+
+        // then
+        assertThat(threshold).isEqualTo(Duration.ofMillis(900));
+        assertThat(policy.threshold("ollama")).isEmpty();
+        assertThat(policy.secondaryFor("gemini")).isEqualTo("ollama");
+        assertThat(policy.secondaryFor("ollama")).isEqualTo("gemini");
+    }
+
+    @Test
+    void shouldCapHedgesAtMaxRate() {
+        // given
+        properties.getHedge().setMaxRate(0.1);
+        for (int i = 0; i < 20; i++) {
+            policy.recordRequest();
+        }
+
+        // when
+        boolean first = policy.tryHedge();
+        boolean second = policy.tryHedge();
+        boolean third = policy.tryHedge();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(policy.stats().hedgeRate()).isEqualTo(0.1);
+    }
+}
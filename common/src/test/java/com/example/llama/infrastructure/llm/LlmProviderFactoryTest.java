@@ -46,7 +46,7 @@ class LlmProviderFactoryTest {
 
         properties.setProviders(List.of(geminiConfig, ollamaConfig));
 
-        factory = new LlmProviderFactory(applicationContext, properties);
+        factory = new LlmProviderFactory(applicationContext, properties, new ProviderCircuitBreakers(properties));
     }
 
     @Test
@@ -68,23 +68,58 @@ class LlmProviderFactoryTest {
     }
 
     @Test
-    void shouldConfigureClientIfItIsConfigurable() {
+    void shouldDeriveClientWithSettingsIfItIsConfigurable() {
         // Given
         ConfigurableMockClient mockClient = mock(ConfigurableMockClient.class);
+        LlmClient customClient = mock(LlmClient.class);
         LlmProviderProperties.ProviderConfig config = new LlmProviderProperties.ProviderConfig();
         config.setName("custom");
         config.setType("custom");
         Map<String, String> settings = Map.of("key", "value");
         config.setSettings(settings);
-        
+
         properties.setProviders(List.of(config));
         given(applicationContext.getBean("customLlmClient", LlmClient.class)).willReturn(mockClient);
+        given(mockClient.withSettings(settings)).willReturn(customClient);
+
+        // When
+        LlmClient client = factory.getClient("custom");
+
+        // Then
+        assertThat(client).isSameAs(customClient);
+    }
+
+    @Test
+    void shouldBuildEachProviderClientOnce() {
+        // Given
+        given(applicationContext.getBean("ollamaLlmClient", LlmClient.class)).willReturn(ollamaClient);
+
+        // When
+        LlmClient first = factory.getClient("ollama");
+        LlmClient second = factory.getClient("OLLAMA");
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(applicationContext, times(1)).getBean("ollamaLlmClient", LlmClient.class);
+    }
+
+    @Test
+    void shouldOpenCircuitWhenHealthProbeFails() {
+        // Given
+        ConfigurableMockClient mockClient = mock(ConfigurableMockClient.class);
+        ConfigurableMockClient ollamaInstance = mock(ConfigurableMockClient.class);
+        given(applicationContext.getBean("ollamaLlmClient", LlmClient.class)).willReturn(mockClient);
+        given(mockClient.withSettings(Map.of())).willReturn(ollamaInstance);
+        given(ollamaInstance.isHealthy()).willReturn(false);
+        ProviderCircuitBreakers circuitBreakers = new ProviderCircuitBreakers(properties);
+        factory = new LlmProviderFactory(applicationContext, properties, circuitBreakers);
+        factory.getClient("ollama");
 
         // When
-        factory.getClient("custom");
+        factory.probeAll();
 
         // Then
-        verify(mockClient).configure(settings);
+        assertThat(circuitBreakers.of("ollama").state()).isEqualTo(CircuitBreaker.State.OPEN);
     }
 
     private interface ConfigurableMockClient extends LlmClient, ConfigurableLlmClient {}
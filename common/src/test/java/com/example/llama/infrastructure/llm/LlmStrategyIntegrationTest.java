@@ -29,8 +29,9 @@ class LlmStrategyIntegrationTest {
     }
 
     @Test
-    void shouldInjectRoutingLlmClientAsPrimary() {
-        assertThat(llmClient).isInstanceOf(RoutingLlmClient.class);
+    void shouldInjectCachingLlmClientAsPrimary() {
+        assertThat(llmClient).isInstanceOf(CachingLlmClient.class);
+        assertThat(applicationContext.getBean(RoutingLlmClient.class)).isNotNull();
     }
 
     @Test
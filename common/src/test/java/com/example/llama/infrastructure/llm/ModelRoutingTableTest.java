@@ -0,0 +1,76 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.AgentType;
+import com.example.llama.domain.model.Intelligence.ComponentType;
+import com.example.llama.domain.model.benchmark.BenchmarkResult;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelRoutingTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LlmProviderProperties properties;
+    private ModelRoutingTable table;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LlmProviderProperties();
+        properties.getRouting().setEnabled(true);
+        properties.getRouting().setTableFile(tempDir.resolve("routing.json").toString());
+        table = new ModelRoutingTable(properties);
+    }
+
+    @Test
+    void shouldRouteClassificationToFastModelAndGenerationToModelThatCompiles() {
+        // given
+        List<BenchmarkResult> scenarios = List.of(
+                scenario("small", ComponentType.SERVICE, 300, 4_000, false),
+                scenario("large", ComponentType.SERVICE, 2_000, 30_000, true));
+
+        // when
+        table.learn(scenarios);
+
+        // then
+        assertThat(table.providerFor(AgentType.JUDGE, ComponentType.SERVICE)).contains("small");
+        assertThat(table.providerFor(AgentType.ANNOTATION_SCOUT, null)).contains("small");
+        assertThat(table.providerFor(AgentType.SERVICE_CODER, ComponentType.SERVICE)).contains("large");
+        assertThat(table.providerFor(AgentType.SERVICE_CODER, ComponentType.ENTITY)).isEmpty();
+        assertThat(new ModelRoutingTable(properties).providerFor(AgentType.JUDGE, null))
+                .as("learned routes survive a restart")
+                .contains("small");
+    }
+
+    @Test
+    void shouldPreferConfiguredRouteOverLearnedOne() {
+        // given
+        table.learn(List.of(scenario("small", ComponentType.SERVICE, 300, 4_000, true)));
+        LlmProviderProperties.RouteConfig route = new LlmProviderProperties.RouteConfig();
+        route.setAgent("JUDGE");
+        route.setProvider("gemini-flash");
+        properties.getRouting().setRoutes(List.of(route));
+
+        // when / then
+        assertThat(table.providerFor(AgentType.JUDGE, ComponentType.SERVICE)).contains("gemini-flash");
+        assertThat(table.providerFor(AgentType.SCOUT, ComponentType.SERVICE)).contains("small");
+    }
+
+    private BenchmarkResult scenario(String provider, ComponentType type, long ttftMs, long totalMs, boolean compiles) {
+        return BenchmarkResult.builder()
+                .provider(provider)
+                .componentType(type)
+                .formatSuccess(true)
+                .compileSuccess(compiles)
+                .ttftMs(ttftMs)
+                .totalGenerationTimeMs(totalMs)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.io.InteractionLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class NativeOllamaLlmClientTest {
+
+    @Mock
+    private InteractionLogger logger;
+
+    private NativeOllamaLlmClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldAssembleStreamedChunksAndReportServerTokenCounts() {
+        // Given
+        List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+        client = clientReplying(requests, """
+                {"model":"m","message":{"role":"assistant","content":"<response>"},"done":false}
+                {"model":"m","message":{"role":"assistant","content":"OK</response>"},"done":false}
+                {"model":"m","message":{"role":"assistant","content":""},"done":true,"prompt_eval_count":120,"eval_count":7}
+                """);
+        client = client.withSettings(Map.of("base-url", "http://ollama.test", "model", "m"));
+
+        // When
+        LlmResponse response = client.generate(prompt());
+        List<String> pieces = client.stream(prompt()).collectList().block();
+
+        // Then
+        assertThat(response.content()).isEqualTo("<response>OK</response>");
+        assertThat(response.inputTokens()).isEqualTo(120);
+        assertThat(response.outputTokens()).isEqualTo(7);
+        assertThat(response.metadata()).containsEntry("model", "m");
+        assertThat(pieces).containsExactly("<response>", "OK</response>");
+        assertThat(requests).allSatisfy(request ->
+                assertThat(request.url().toString()).isEqualTo("http://ollama.test/api/chat"));
+    }
+
+    @Test
+    void shouldCancelStreamOnceResponseIsComplete() {
+        // Given
+        client = clientReplying(new CopyOnWriteArrayList<>(), """
+                {"model":"m","message":{"role":"assistant","content":"<response><code>x</code>"},"done":false}
+                {"model":"m","message":{"role":"assistant","content":"</response> Sure! Here is why"},"done":false}
+                {"model":"m","message":{"role":"assistant","content":" it works..."},"done":false}
+                {"model":"m","message":{"role":"assistant","content":""},"done":true,"prompt_eval_count":120,"eval_count":70}
+                """);
+        StringBuilder streamed = new StringBuilder();
+
+        // When
+        LlmResponse response = client.generate(prompt(), streamed::append, StopCondition.responseComplete());
+
+        // Then
+        assertThat(response.content()).isEqualTo("<response><code>x</code></response>");
+        assertThat(streamed.toString()).isEqualTo(response.content());
+        assertThat(response.savedTokens()).isEqualTo(" Sure! Here is why".length() / 4);
+        assertThat(response.ttftMs()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void shouldReportServerErrorsAsFailedResponse() {
+        // Given
+        client = clientReplying(new CopyOnWriteArrayList<>(), """
+                {"error":"model not found"}
+                """);
+
+        // When
+        LlmResponse response = client.generateAsync(prompt()).block();
+
+        // Then
+        assertThat(response.content()).contains("<status>FAILED</status>").contains("model not found");
+    }
+
+    @Test
+    void shouldSendClassContextAsOwnMessageInPrefixSession() {
+        // Given
+        client = new NativeOllamaLlmClient(WebClient.builder(), logger).withSettings(Map.of("prefix-session", "true"));
+        LlmPrompt prompt = prompt();
+
+        // When
+        List<NativeOllamaLlmClient.Message> messages = client.messages(prompt);
+
+        // Then
+        assertThat(messages).extracting(NativeOllamaLlmClient.Message::role)
+                .containsExactly("system", "user", "user");
+        assertThat(messages.get(1).content()).isEqualTo(prompt.getUserRequest().contextXml())
+                .startsWith("<context>").endsWith("</context>").doesNotContain("<task>");
+        assertThat(messages.get(2).content()).isEqualTo(prompt.getUserRequest().methodXml())
+                .startsWith("<request>").endsWith("</request>").contains("<task>");
+    }
+
+    private NativeOllamaLlmClient clientReplying(List<ClientRequest> requests, String ndjson) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, "application/x-ndjson")
+                    .body(ndjson)
+                    .build());
+        });
+        return new NativeOllamaLlmClient(builder, logger);
+    }
+
+    private LlmPrompt prompt() {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Task")
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+    }
+}
@@ -1,10 +1,88 @@
 package com.example.llama.infrastructure.llm;
 
-import com.example.llama.infrastructure.llm.OpencodeLlmClient;
-import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Nested;
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.io.InteractionLogger;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
-// Error:
\ No newline at end of file
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class OpencodeLlmClientTest {
+
+    @Mock
+    private InteractionLogger logger;
+
+    @Test
+    void shouldSendPromptOverStdin() {
+        // given: cat echoes the prompt it receives on stdin
+        OpencodeLlmClient client = new OpencodeLlmClient(logger).withSettings(Map.of("command", "cat"));
+        LlmPrompt prompt = prompt("x".repeat(512 * 1024));
+
+        // when
+        LlmResponse response = client.generate(prompt);
+
+        // then
+        assertThat(response.isClientFailure()).isFalse();
+        assertThat(response.content()).isEqualTo(prompt.toXml());
+    }
+
+    @Test
+    void shouldCaptureEachRequestToItsOwnDebugFiles(@TempDir Path debugDir) throws Exception {
+        // given
+        OpencodeLlmClient client = new OpencodeLlmClient(logger)
+                .withSettings(Map.of("command", "cat", "debug-dir", debugDir.toString()));
+
+        // when
+        client.generate(prompt("first"));
+        client.generate(prompt("second"));
+
+        // then: captures are written in the background
+        List<String> files = List.of();
+        for (long until = System.currentTimeMillis() + 5_000; files.size() < 4 && System.currentTimeMillis() < until; ) {
+            Thread.sleep(20);
+            try (Stream<Path> listed = Files.list(debugDir)) {
+                files = listed.map(file -> file.getFileName().toString()).toList();
+            }
+        }
+        assertThat(files).hasSize(4);
+        assertThat(files).filteredOn(name -> name.endsWith(".prompt.xml")).hasSize(2);
+    }
+
+    @Test
+    void shouldAppendModelFlag() {
+        // when
+        OpencodeLlmClient client = new OpencodeLlmClient(logger)
+                .withSettings(Map.of("command", "opencode run", "model", "anthropic/sonnet"));
+
+        // then
+        assertThat(client.commandLine()).containsExactly("opencode", "run", "--model", "anthropic/sonnet");
+    }
+
+    private LlmPrompt prompt(String task) {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task(task)
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.infrastructure.llm.ProviderAdmissionController.ProviderLimits;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderAdmissionControllerTest {
+
+    private ProviderAdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        gemini.setType("gemini");
+        gemini.setMaxConcurrency(4);
+        properties.setProviders(List.of(gemini));
+        controller = new ProviderAdmissionController(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    void shouldHalveLimitsOnQuotaErrorAndRecoverAdditively() {
+        // given
+        controller.admit("gemini", () -> LlmResponse.builder().content("ok").build());
+
+        // when
+        controller.admit("gemini", () -> LlmResponse.failed("429 Too Many Requests"));
+        ProviderLimits throttled = controller.limits().get(0);
+        for (int i = 0; i < 3; i++) {
+            controller.admit("gemini", () -> LlmResponse.builder().content("ok").build());
+        }
+        ProviderLimits recovered = controller.limits().get(0);
+
+        // then
+        assertThat(throttled.concurrencyLimit()).isEqualTo(2);
+        assertThat(throttled.isPaced()).isTrue();
+        assertThat(throttled.throttled()).isEqualTo(1);
+        assertThat(recovered.concurrencyLimit()).isEqualTo(3);
+        assertThat(recovered.ratePerMinute()).isGreaterThan(throttled.ratePerMinute());
+        assertThat(recovered.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldNotWaitForTokensBeyondDeadline() {
+        // given
+        controller.admit("gemini", () -> LlmResponse.failed("RetryableQuotaError: all models exhausted."));
+        Deadline.bind(Deadline.after(Duration.ofMillis(200)));
+        long start = System.currentTimeMillis();
+
+        // when / then
+        assertThatThrownBy(() -> controller.admit("gemini", () -> LlmResponse.builder().content("ok").build()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Deadline exceeded");
+        assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+    }
+
+    @Test
+    void shouldTreatOrdinaryFailuresAsSuccessfulAdmissions() {
+        // when
+        controller.admit("gemini", () -> LlmResponse.failed("Compilation failed"));
+
+        // then
+        ProviderLimits limits = controller.limits().get(0);
+        assertThat(limits.concurrencyLimit()).isEqualTo(4);
+        assertThat(limits.isPaced()).isFalse();
+        assertThat(limits.admitted()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimeoutsTest {
+
+    private LlmProviderProperties properties;
+    private RequestTimeouts timeouts;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        LlmProviderProperties.ProviderConfig ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        properties.setProviders(List.of(gemini, ollama));
+        properties.getTimeouts().setMinSamples(3);
+        properties.getTimeouts().setMinRequest(Duration.ofSeconds(1));
+        properties.getTimeouts().setMaxRequest(Duration.ofMinutes(10));
+        properties.getTimeouts().setSafetyFactor(2.0);
+        timeouts = new RequestTimeouts(properties);
+    }
+
+    @Test
+    void shouldUseMaxRequestUntilEnoughSamples() {
+        // given
+        timeouts.record("ollama", completed(1_000, 11_000, 500));
+
+        // when
+        Duration timeout = timeouts.timeoutFor("ollama");
+
+        // then
+        assertThat(timeout).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldDeriveTimeoutFromSlowTailTtftAndTokensPerSecond() {
+        // given: 1 s TTFT, then 500 tokens at 50 tok/s
+        for (int i = 0; i < 3; i++) {
+            timeouts.record("ollama", completed(1_000, 11_000, 500));
+        }
+        timeouts.record("ollama", LlmResponse.failed("Connection refused"));
+
+        // when
+        Duration timeout = timeouts.timeoutFor("ollama");
+
+        // then: (1 s + 500 / 50 s) x 2
+        assertThat(timeout).isEqualTo(Duration.ofSeconds(22));
+        assertThat(timeouts.timeoutFor("gemini")).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldClampToMinRequest() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            timeouts.record("ollama", completed(10, 110, 100));
+        }
+
+        // when
+        Duration timeout = timeouts.timeoutFor("ollama");
+
+        // then
+        assertThat(timeout).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldRetryTimedOutResponseOnNextProvider() {
+        // given
+        LlmResponse timedOut = timeouts.timedOut("gemini", Duration.ofSeconds(30));
+
+        // when
+        String target = timeouts.retryTargetFor(timedOut, false);
+        String pinnedTarget = timeouts.retryTargetFor(timedOut, true);
+
+        // then
+        assertThat(timedOut.isClientFailure()).isTrue();
+        assertThat(timedOut.content()).contains("Request timed out after 30 s on [gemini]");
+        assertThat(target).isEqualTo("ollama");
+        assertThat(pinnedTarget).isEqualTo("gemini");
+        assertThat(timeouts.timeouts("gemini")).isEqualTo(1);
+        assertThat(timeouts.retryTargetFor(LlmResponse.failed("Connection refused"), false)).isNull();
+    }
+
+    private static LlmResponse completed(long ttftMs, long totalMs, int outputTokens) {
+        return LlmResponse.builder()
+                .content("<response>ok</response>")
+                .ttftMs(ttftMs)
+                .totalTimeMs(totalMs)
+                .outputTokens(outputTokens)
+                .build();
+    }
+}
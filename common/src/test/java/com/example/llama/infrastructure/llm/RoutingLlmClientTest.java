@@ -1,16 +1,30 @@
 package com.example.llama.infrastructure.llm;
 
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.StopCondition;
 import com.example.llama.domain.model.prompt.LlmPrompt;
 import com.example.llama.domain.service.LlmClient;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.Deadline;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class RoutingLlmClientTest {
@@ -22,12 +36,20 @@ class RoutingLlmClientTest {
     @Mock
     private LlmPrompt prompt;
 
-    @InjectMocks
     private RoutingLlmClient routingClient;
 
+    @BeforeEach
+    void setUp() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        routingClient = new RoutingLlmClient(providerFactory,
+                new ProviderAdmissionController(properties), new HedgingPolicy(properties), new ModelRoutingTable(properties),
+                new ProviderCircuitBreakers(properties), new TokenAccountant(properties), new RequestTimeouts(properties));
+    }
+
     @AfterEach
     void tearDown() {
         LlmContextHolder.clear();
+        Deadline.clear();
     }
 
     @Test
@@ -55,4 +77,199 @@ class RoutingLlmClientTest {
         // Then
         verify(delegateClient).generate(prompt);
     }
+
+    @Test
+    void shouldFailFastWhenDeadlineExpired() throws InterruptedException {
+        // Given
+        Deadline.bind(Deadline.after(java.time.Duration.ofNanos(1)));
+        Thread.sleep(5);
+
+        // When
+        com.example.llama.domain.model.LlmResponse response = routingClient.generate(prompt);
+
+        // Then
+        assertThat(response.content()).contains("<status>FAILED</status>").contains("Deadline exceeded");
+        verifyNoInteractions(providerFactory);
+    }
+
+    @Test
+    void shouldHedgeOnSecondaryWhenPrimaryHasNoFirstToken() {
+        // Given
+        LlmClient slowClient = mock(LlmClient.class);
+        LlmClient fastClient = mock(LlmClient.class);
+        given(providerFactory.getClient(null)).willReturn(slowClient);
+        given(providerFactory.getClient("ollama")).willReturn(fastClient);
+        given(slowClient.generate(any(LlmPrompt.class), any(), any(StopCondition.class))).willAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return LlmResponse.builder().content("<response>slow</response>").build();
+        });
+        given(fastClient.generate(any(LlmPrompt.class), any(), any(StopCondition.class)))
+                .willReturn(LlmResponse.builder().content("<response>fast</response>").build());
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(hedgeProperties());
+        RoutingLlmClient hedgingClient = new RoutingLlmClient(providerFactory,
+                new ProviderAdmissionController(hedgeProperties()), hedgingPolicy, new ModelRoutingTable(hedgeProperties()),
+                new ProviderCircuitBreakers(hedgeProperties()), new TokenAccountant(hedgeProperties()),
+                new RequestTimeouts(hedgeProperties()));
+        StringBuilder streamed = new StringBuilder();
+        Consumer<String> onChunk = streamed::append;
+        long start = System.currentTimeMillis();
+
+        // When
+        LlmResponse response = hedgingClient.generate(prompt, onChunk, StopCondition.never());
+
+        // Then
+        assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+        assertThat(response.content()).isEqualTo("<response>fast</response>");
+        assertThat(response.metadata()).containsEntry("hedgedTo", "ollama");
+        assertThat(streamed.toString()).isEqualTo("<response>fast</response>");
+        assertThat(hedgingPolicy.stats().hedged()).isEqualTo(1);
+        assertThat(hedgingPolicy.stats().hedgeWins()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotHedgePinnedProvider() {
+        // Given
+        LlmClient slowClient = mock(LlmClient.class);
+        given(providerFactory.getClient("gemini")).willReturn(slowClient);
+        given(slowClient.generate(any(LlmPrompt.class), any(), any(StopCondition.class))).willAnswer(invocation -> {
+            Thread.sleep(300);
+            return LlmResponse.builder().content("<response>slow</response>").build();
+        });
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(hedgeProperties());
+        RoutingLlmClient hedgingClient = new RoutingLlmClient(providerFactory,
+                new ProviderAdmissionController(hedgeProperties()), hedgingPolicy, new ModelRoutingTable(hedgeProperties()),
+                new ProviderCircuitBreakers(hedgeProperties()), new TokenAccountant(hedgeProperties()),
+                new RequestTimeouts(hedgeProperties()));
+        LlmContextHolder.setProvider("gemini");
+
+        // When
+        LlmResponse response = hedgingClient.generate(prompt, chunk -> { }, StopCondition.never());
+
+        // Then
+        assertThat(response.content()).isEqualTo("<response>slow</response>");
+        assertThat(response.metadata()).doesNotContainKey("hedgedTo");
+        assertThat(hedgingPolicy.stats().hedged()).isZero();
+        verify(providerFactory, never()).getClient("ollama");
+    }
+
+    @Test
+    void shouldSkipProviderWhoseCircuitIsOpen() {
+        // Given
+        LlmProviderProperties properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        LlmProviderProperties.ProviderConfig ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        properties.setProviders(List.of(gemini, ollama));
+        properties.getResilience().setFailureThreshold(2);
+        ProviderCircuitBreakers circuitBreakers = new ProviderCircuitBreakers(properties);
+        RoutingLlmClient client = new RoutingLlmClient(providerFactory, new ProviderAdmissionController(properties),
+                new HedgingPolicy(properties), new ModelRoutingTable(properties), circuitBreakers,
+                new TokenAccountant(properties), new RequestTimeouts(properties));
+
+        LlmClient downClient = mock(LlmClient.class);
+        given(providerFactory.getClient("gemini")).willReturn(downClient);
+        given(providerFactory.getClient("ollama")).willReturn(delegateClient);
+        given(downClient.generate(prompt)).willReturn(LlmResponse.failed("Connection refused"));
+        given(delegateClient.generate(prompt)).willReturn(LlmResponse.builder().content("<response>ok</response>").build());
+        LlmContextHolder.setProvider("gemini");
+
+        // When
+        client.generate(prompt);
+        client.generate(prompt);
+        LlmResponse response = client.generate(prompt);
+
+        // Then
+        assertThat(circuitBreakers.of("gemini").state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(response.content()).isEqualTo("<response>ok</response>");
+        assertThat(response.metadata()).containsEntry("reroutedTo", "ollama");
+        verify(downClient, times(2)).generate(prompt);
+    }
+
+    @Test
+    void shouldRetryTimedOutRequestOnNextProvider() {
+        // Given
+        RequestTimeouts requestTimeouts = new RequestTimeouts(timeoutProperties());
+        RoutingLlmClient client = timeoutClient(requestTimeouts);
+        LlmClient hangingClient = hangingClient();
+        given(providerFactory.getClient(null)).willReturn(hangingClient);
+        given(providerFactory.getClient("ollama")).willReturn(delegateClient);
+        given(delegateClient.generate(prompt)).willReturn(LlmResponse.builder().content("<response>ok</response>").build());
+        long start = System.currentTimeMillis();
+
+        // When
+        LlmResponse response = client.generate(prompt);
+
+        // Then
+        assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+        assertThat(response.content()).isEqualTo("<response>ok</response>");
+        assertThat(response.metadata()).containsEntry("retriedOn", "ollama");
+        assertThat(requestTimeouts.timeouts("gemini")).isEqualTo(1);
+        assertThat(Deadline.current().isBounded()).isFalse();
+    }
+
+    @Test
+    void shouldRetryTimedOutRequestOnPinnedProvider() {
+        // Given
+        RequestTimeouts requestTimeouts = new RequestTimeouts(timeoutProperties());
+        RoutingLlmClient client = timeoutClient(requestTimeouts);
+        LlmClient hangingClient = hangingClient();
+        given(providerFactory.getClient("gemini")).willReturn(hangingClient);
+        LlmContextHolder.setProvider("gemini");
+
+        // When
+        LlmResponse response = client.generate(prompt);
+
+        // Then
+        assertThat(response.isClientFailure()).isTrue();
+        assertThat(response.metadata()).doesNotContainKey("retriedOn");
+        assertThat(requestTimeouts.timeouts("gemini")).isEqualTo(2);
+        verify(providerFactory, never()).getClient("ollama");
+    }
+
+    private LlmProviderProperties timeoutProperties() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        LlmProviderProperties.ProviderConfig ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        properties.setProviders(List.of(gemini, ollama));
+        properties.getTimeouts().setMaxRequest(Duration.ofMillis(200));
+        return properties;
+    }
+
+    private RoutingLlmClient timeoutClient(RequestTimeouts requestTimeouts) {
+        LlmProviderProperties properties = timeoutProperties();
+        return new RoutingLlmClient(providerFactory, new ProviderAdmissionController(properties),
+                new HedgingPolicy(properties), new ModelRoutingTable(properties), new ProviderCircuitBreakers(properties),
+                new TokenAccountant(properties), requestTimeouts);
+    }
+
+    private LlmClient hangingClient() {
+        LlmClient hangingClient = mock(LlmClient.class);
+        given(hangingClient.generate(prompt)).willAnswer(invocation -> {
+            // Clients give up cooperatively once the current deadline passes
+            while (!Deadline.current().isExpired()) {
+                Thread.sleep(10);
+            }
+            return LlmResponse.failed("Deadline exceeded");
+        });
+        return hangingClient;
+    }
+
+    private LlmProviderProperties hedgeProperties() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        LlmProviderProperties.ProviderConfig gemini = new LlmProviderProperties.ProviderConfig();
+        gemini.setName("gemini");
+        LlmProviderProperties.ProviderConfig ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        properties.setProviders(List.of(gemini, ollama));
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinSamples(0);
+        properties.getHedge().setMinDelay(Duration.ofMillis(100));
+        properties.getHedge().setMaxRate(1.0);
+        return properties;
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.llama.infrastructure.llm;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmCollaborator;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.llm.config.LlmProviderProperties;
+import com.example.llama.utils.TokenEstimator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenAccountantTest {
+
+    private LlmProviderProperties.ProviderConfig ollama;
+    private TokenAccountant accountant;
+
+    @BeforeEach
+    void setUp() {
+        LlmProviderProperties properties = new LlmProviderProperties();
+        ollama = new LlmProviderProperties.ProviderConfig();
+        ollama.setName("ollama");
+        ollama.setReservedOutputTokens(0);
+        properties.setProviders(List.of(ollama));
+        accountant = new TokenAccountant(properties);
+    }
+
+    @Test
+    void shouldDropReferencesBeforeRejecting() {
+        // given
+        LlmPrompt bare = prompt(List.of());
+        LlmPrompt withReferences = prompt(List.of(LlmCollaborator.builder()
+                .name("UserRepository")
+                .structure("interface UserRepository { User findById(Long id); }".repeat(50))
+                .build()));
+        ollama.setContextWindow(TokenEstimator.estimate(bare.toXml()) + 10);
+
+        // when
+        Optional<LlmPrompt> fitted = accountant.fit("ollama", withReferences);
+
+        // then
+        assertThat(fitted).isPresent();
+        assertThat(fitted.get().getUserRequest().getClassContext().getReferences()).isEmpty();
+        assertThat(fitted.get().getUserRequest().getLibraryInfo()).isEqualTo("JUnit 5");
+        assertThat(fitted.get().getUserRequest().getTask()).isEqualTo("Write tests");
+    }
+
+    @Test
+    void shouldRejectPromptThatCannotFit() {
+        // given
+        ollama.setContextWindow(5);
+
+        // when
+        Optional<LlmPrompt> fitted = accountant.fit("ollama", prompt(List.of()));
+
+        // then
+        assertThat(fitted).isEmpty();
+    }
+
+    @Test
+    void shouldKeepReportedCountsAndEstimateMissingOnes() {
+        // given
+        LlmPrompt prompt = prompt(List.of());
+        LlmResponse reported = LlmResponse.builder().content("<response>ok</response>").inputTokens(120).outputTokens(7).build();
+        LlmResponse unreported = LlmResponse.builder().content("<response>ok</response>").build();
+
+        // when
+        LlmResponse kept = accountant.account(prompt, reported);
+        LlmResponse estimated = accountant.account(prompt, unreported);
+
+        // then
+        assertThat(kept.inputTokens()).isEqualTo(120);
+        assertThat(kept.outputTokens()).isEqualTo(7);
+        assertThat(kept.metadata()).containsEntry("tokens", "reported");
+        assertThat(estimated.inputTokens()).isEqualTo(TokenEstimator.estimate(prompt.toXml()));
+        assertThat(estimated.outputTokens()).isEqualTo(TokenEstimator.estimate("<response>ok</response>"));
+        assertThat(estimated.metadata()).containsEntry("tokens", "estimated");
+    }
+
+    private LlmPrompt prompt(List<LlmCollaborator> references) {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Write tests")
+                        .libraryInfo("JUnit 5")
+                        .classContext(LlmClassContext.builder()
+                                .references(references)
+                                .targetMethodSource("public User find(Long id) { return repository.findById(id); }")
+                                .build())
+                        .build())
+                .build();
+    }
+}
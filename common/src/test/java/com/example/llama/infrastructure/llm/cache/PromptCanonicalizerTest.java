@@ -0,0 +1,68 @@
+package com.example.llama.infrastructure.llm.cache;
+
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmCollaborator;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Prompt Canonicalizer Test")
+class PromptCanonicalizerTest {
+
+    private final PromptCanonicalizer canonicalizer = new PromptCanonicalizer();
+
+    @Test
+    @DisplayName("should share a fingerprint across comments, formatting, import order and masked literals")
+    void shouldIgnoreCosmeticDifferences() {
+        // given
+        LlmPrompt original = prompt("import a.A;\nimport b.B;",
+                "public String key() { return \"[AUTO_SECURED]\"; }",
+                "class Repo { String url; }");
+        LlmPrompt cosmetic = prompt("import b.B;\n\nimport a.A;",
+                "public String key() {\n    // the api key\n    return   \"[SECURED_VALUE]\";\n}",
+                "class Repo {\n    /** where */\n    String url;\n}");
+
+        // when
+        String first = canonicalizer.fingerprint(original);
+        String second = canonicalizer.fingerprint(cosmetic);
+
+        // then
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("should only reuse responses for a structurally identical target method")
+    void shouldDistinguishTargetMethodStructure() {
+        // given
+        LlmPrompt original = prompt("", "public int size() { return items.size(); }", "");
+        LlmPrompt changed = prompt("", "public int size() { return items.size() + 1; }", "");
+        LlmPrompt unparsable = prompt("", "public int size() { return items.size() ", "");
+        LlmPrompt unparsableReformatted = prompt("", "public int size() {  return items.size() ", "");
+
+        // when & then
+        assertThat(canonicalizer.fingerprint(changed)).isNotEqualTo(canonicalizer.fingerprint(original));
+        assertThat(canonicalizer.fingerprint(unparsableReformatted)).isNotEqualTo(canonicalizer.fingerprint(unparsable));
+    }
+
+    private LlmPrompt prompt(String imports, String targetMethod, String collaboratorStructure) {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Write tests")
+                        .classContext(LlmClassContext.builder()
+                                .imports(imports)
+                                .reference(LlmCollaborator.builder().name("Repo").structure(collaboratorStructure).build())
+                                .targetMethodSource(targetMethod)
+                                .build())
+                        .build())
+                .build();
+    }
+}
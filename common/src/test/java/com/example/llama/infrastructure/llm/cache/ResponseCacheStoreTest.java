@@ -0,0 +1,92 @@
+package com.example.llama.infrastructure.llm.cache;
+
+import com.example.llama.infrastructure.llm.cache.ResponseCacheStore.CachedResponse;
+import com.example.llama.utils.Hashing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Response Cache Store Test")
+class ResponseCacheStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("should persist responses across reopen and drop a torn trailing record")
+    void shouldPersistAcrossReopen() throws IOException {
+        // given
+        String key = Hashing.sha256("prompt");
+        try (ResponseCacheStore store = ResponseCacheStore.open(dir, 1024 * 1024)) {
+            store.put(key, new CachedResponse("<response>한글 OK</response>", 100, 50, 1200));
+        }
+        Files.write(dir.resolve(ResponseCacheStore.DATA_FILE), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        // when
+        try (ResponseCacheStore reopened = ResponseCacheStore.open(dir, 1024 * 1024)) {
+
+            // then
+            assertThat(reopened.get(key)).contains(new CachedResponse("<response>한글 OK</response>", 100, 50, 1200));
+            assertThat(reopened.get(Hashing.sha256("other"))).isEmpty();
+            assertThat(reopened.stats().entries()).isEqualTo(1);
+            assertThat(reopened.stats().fileBytes()).isEqualTo(reopened.stats().liveBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("should evict least recently used entries and compact the data file")
+    void shouldEvictLeastRecentlyUsed() throws IOException {
+        // given
+        String body = "x".repeat(300);
+        try (ResponseCacheStore store = ResponseCacheStore.open(dir, 1000)) {
+            store.put(Hashing.sha256("a"), new CachedResponse(body, 1, 1, 1));
+            store.put(Hashing.sha256("b"), new CachedResponse(body, 1, 1, 1));
+            store.get(Hashing.sha256("a"));
+
+            // when
+            store.put(Hashing.sha256("c"), new CachedResponse(body, 1, 1, 1));
+            for (int i = 0; i < 5; i++) {
+                store.put(Hashing.sha256("c"), new CachedResponse(body, 1, 1, 1));
+            }
+
+            // then
+            assertThat(store.get(Hashing.sha256("b"))).isEmpty();
+            assertThat(store.get(Hashing.sha256("a"))).isPresent();
+            assertThat(store.get(Hashing.sha256("c"))).isPresent();
+            assertThat(store.stats().evictions()).isEqualTo(1);
+            assertThat(store.stats().fileBytes()).isLessThanOrEqualTo(2000);
+        }
+    }
+
+    @Test
+    @DisplayName("should keep evicted entries out and LRU order after reopen")
+    void shouldNotResurrectEvictedEntriesOnReopen() throws IOException {
+        // given
+        String body = "x".repeat(300);
+        try (ResponseCacheStore store = ResponseCacheStore.open(dir, 1000)) {
+            store.put(Hashing.sha256("a"), new CachedResponse(body, 1, 1, 1));
+            store.put(Hashing.sha256("b"), new CachedResponse(body, 1, 1, 1));
+            store.put(Hashing.sha256("c"), new CachedResponse(body, 1, 1, 1));
+            store.get(Hashing.sha256("b"));
+        }
+
+        // when
+        try (ResponseCacheStore reopened = ResponseCacheStore.open(dir, 1000)) {
+            reopened.put(Hashing.sha256("d"), new CachedResponse(body, 1, 1, 1));
+
+            // then
+            assertThat(reopened.get(Hashing.sha256("a"))).isEmpty();
+            assertThat(reopened.get(Hashing.sha256("c"))).isEmpty();
+            assertThat(reopened.get(Hashing.sha256("b"))).isPresent();
+            assertThat(reopened.get(Hashing.sha256("d"))).isPresent();
+            assertThat(reopened.stats().evictions()).isEqualTo(1);
+        }
+    }
+}
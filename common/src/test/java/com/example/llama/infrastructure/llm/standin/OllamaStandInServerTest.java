@@ -0,0 +1,88 @@
+package com.example.llama.infrastructure.llm.standin;
+
+import com.example.llama.domain.model.LlmResponse;
+import com.example.llama.domain.model.prompt.LlmClassContext;
+import com.example.llama.domain.model.prompt.LlmPersona;
+import com.example.llama.domain.model.prompt.LlmPrompt;
+import com.example.llama.domain.model.prompt.LlmSystemDirective;
+import com.example.llama.domain.model.prompt.LlmUserRequest;
+import com.example.llama.infrastructure.io.InteractionLogger;
+import com.example.llama.infrastructure.llm.NativeOllamaLlmClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class OllamaStandInServerTest {
+
+    @Mock
+    private InteractionLogger logger;
+
+    private OllamaStandInServer server;
+    private NativeOllamaLlmClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) client.close();
+        if (server != null) server.close();
+    }
+
+    @Test
+    void shouldStreamCannedResponseWithTokenCounts() {
+        // Given
+        server = OllamaStandInServer.start(new StandInProfile(Duration.ofMillis(50), 0, 0, 0,
+                List.of("<response><status>SUCCESS</status></response>")), 0);
+        client = clientFor(server);
+
+        // When
+        LlmResponse response = client.generate(prompt());
+
+        // Then
+        assertThat(response.content()).isEqualTo("<response><status>SUCCESS</status></response>");
+        assertThat(response.ttftMs()).isGreaterThanOrEqualTo(50);
+        assertThat(response.inputTokens()).isPositive();
+        assertThat(response.outputTokens()).isEqualTo(12);
+        assertThat(server.stats().completed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInjectThrottling() {
+        // Given
+        server = OllamaStandInServer.start(new StandInProfile(Duration.ZERO, 0, 0, 1.0, List.of()), 0);
+        client = clientFor(server);
+
+        // When
+        LlmResponse response = client.generate(prompt());
+
+        // Then
+        assertThat(response.content()).contains("<status>FAILED</status>").contains("429");
+        assertThat(server.stats().throttled()).isEqualTo(1);
+    }
+
+    private NativeOllamaLlmClient clientFor(OllamaStandInServer server) {
+        return new NativeOllamaLlmClient(WebClient.builder(), logger)
+                .withSettings(Map.of("base-url", server.baseUrl(), "model", "standin"));
+    }
+
+    private LlmPrompt prompt() {
+        return LlmPrompt.builder()
+                .systemDirective(LlmSystemDirective.builder()
+                        .persona(LlmPersona.builder().role("Tester").domain("D").mission("M").domainStrategy("S").criticalPolicy("C").repairProtocol("R").build())
+                        .formatStandard("F")
+                        .build())
+                .userRequest(LlmUserRequest.builder()
+                        .task("Task")
+                        .classContext(LlmClassContext.builder().build())
+                        .build())
+                .build();
+    }
+}
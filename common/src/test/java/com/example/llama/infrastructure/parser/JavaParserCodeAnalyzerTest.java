@@ -56,4 +56,27 @@ class JavaParserCodeAnalyzerTest {
         assertThat(intel.superClass()).isEqualTo("BaseService");
         assertThat(intel.interfaces()).containsExactly("Interface1", "Interface2");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep method fingerprints stable across comment and formatting changes")
+    void fingerprintIgnoresFormatting() {
+        String original = "public class A { public int sum(int a, int b) { return a + b; } }";
+        String reformatted = "public class A {\n  /** Adds. */\n  public int sum(int a, int b) {\n    // plain\n    return a+b;\n  }\n}";
+
+        assertThat(analyzer.fingerprintMethods(reformatted)).isEqualTo(analyzer.fingerprintMethods(original));
+    }
+
+    @Test
+    @DisplayName("Should change only the fingerprint of the edited method, including private helpers")
+    void fingerprintTracksBodyAndHelperChanges() {
+        String before = "public class A { public int a() { return helper(); } public int b() { return 2; } private int helper() { return 1; } }";
+        String after = "public class A { public int a() { return helper(); } public int b() { return 2; } private int helper() { return 42; } }";
+
+        java.util.Map<String, String> v1 = analyzer.fingerprintMethods(before);
+        java.util.Map<String, String> v2 = analyzer.fingerprintMethods(after);
+
+        assertThat(v1).containsOnlyKeys("public int a()", "public int b()");
+        assertThat(v2.get("public int a()")).isNotEqualTo(v1.get("public int a()"));
+        assertThat(v2.get("public int b()")).isEqualTo(v1.get("public int b()"));
+    }
+}
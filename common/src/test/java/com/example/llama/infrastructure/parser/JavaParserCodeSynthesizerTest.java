@@ -106,4 +106,43 @@ class JavaParserCodeSynthesizerTest {
         // 결과물이 유효한 Java 코드를 포함하지 않아야 함
         assertThat(result.body()).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should remove only the named Describe blocks from an existing test class")
+    void shouldRemoveNamedTestBlocks() {
+        String existing = """
+                package com.test;
+                class FooTest {
+                    @Nested class Describe_alpha { @Test void a() {} }
+                    @Nested class Describe_beta { @Test void b() {} }
+                    void helper() {}
+                }
+                """;
+
+        String result = synthesizer.removeTestBlocks(existing, java.util.List.of("Describe_beta"));
+
+        assertThat(result).contains("Describe_alpha", "void helper()").doesNotContain("Describe_beta");
+    }
+
+    @Test
+    @DisplayName("Should graft blocks as they arrive, buffering those that precede the skeleton")
+    void shouldStreamAssembly() {
+        com.example.llama.domain.service.TestClassAssembly assembly = synthesizer.openAssembly();
+
+        java.util.Optional<String> early = assembly.graft("@Nested class Describe_alpha { @Test void a() {} }");
+        java.util.Optional<String> started = assembly.start("""
+                package com.test;
+                class FooTest {
+                    @Nested class Describe_placeholder {}
+                    @BeforeEach void setUp() {}
+                }
+                """, java.util.List.of("static org.mockito.BDDMockito.given"), true);
+        java.util.Optional<String> grafted = assembly.graft("@Nested class Describe_beta { @Test void b() {} }");
+
+        assertThat(early).isEmpty();
+        assertThat(started).hasValueSatisfying(source -> assertThat(source)
+                .contains("Describe_alpha", "void setUp()", "import static org.mockito.BDDMockito.given;")
+                .doesNotContain("Describe_placeholder"));
+        assertThat(grafted).hasValueSatisfying(source -> assertThat(source).contains("Describe_alpha", "Describe_beta"));
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.llama.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        Deadline.clear();
+    }
+
+    @Test
+    @DisplayName("should treat a missing or zero budget as unbounded")
+    void shouldBeUnboundedWithoutBudget() {
+        assertThat(Deadline.after(null).isBounded()).isFalse();
+        assertThat(Deadline.after(Duration.ZERO).isExpired()).isFalse();
+        assertThat(Deadline.current().clamp(Duration.ofMinutes(5))).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("should clamp call timeouts to the time left")
+    void shouldClampToRemaining() {
+        // given
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        // when
+        Duration clamped = deadline.clamp(Duration.ofMinutes(10));
+
+        // then
+        assertThat(clamped).isLessThanOrEqualTo(Duration.ofSeconds(10));
+        assertThat(deadline.clamp(Duration.ofSeconds(1))).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("should hand the caller's deadline to worker threads")
+    void shouldPropagateToWorkerThreads() {
+        // given
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+        Deadline.bind(deadline);
+
+        // when
+        Deadline seen;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            seen = CompletableFuture.supplyAsync(ContextPropagator.wrap(Deadline::current), executor).join();
+        }
+
+        // then
+        assertThat(seen).isSameAs(deadline);
+    }
+}
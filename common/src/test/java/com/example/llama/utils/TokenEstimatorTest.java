@@ -0,0 +1,25 @@
+package com.example.llama.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    @Test
+    @DisplayName("should price short words, identifier parts and digit groups like a BPE vocabulary")
+    void shouldSplitLikeBpe() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+        assertThat(TokenEstimator.estimate("hello world")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("getUserName")).isEqualTo(3);
+        assertThat(TokenEstimator.estimate("123456")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("    return x;")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("should count non-Latin script per character")
+    void shouldCountNonLatinPerCharacter() {
+        assertThat(TokenEstimator.estimate("안녕하세요")).isEqualTo(5);
+    }
+}